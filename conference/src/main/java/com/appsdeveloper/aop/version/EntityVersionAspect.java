@@ -0,0 +1,39 @@
+package com.appsdeveloper.aop.version;
+
+import com.appsdeveloper.domain.Session;
+import com.appsdeveloper.domain.Speaker;
+import com.appsdeveloper.service.EntityVersionService;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+
+/**
+ * Aspect incrementing the version of an entity type on every write through its repository.
+ */
+@Aspect
+public class EntityVersionAspect {
+
+    private final EntityVersionService entityVersionService;
+
+    public EntityVersionAspect(EntityVersionService entityVersionService) {
+        this.entityVersionService = entityVersionService;
+    }
+
+    /**
+     * Pointcut that matches the methods writing through a repository.
+     */
+    @Pointcut("execution(* save*(..)) || execution(* delete*(..))")
+    public void repositoryWritePointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    @AfterReturning("repositoryWritePointcut() && this(com.appsdeveloper.repository.SpeakerRepository)")
+    public void speakerWritten() {
+        entityVersionService.increment(Speaker.class);
+    }
+
+    @AfterReturning("repositoryWritePointcut() && this(com.appsdeveloper.repository.SessionRepository)")
+    public void sessionWritten() {
+        entityVersionService.increment(Session.class);
+    }
+}
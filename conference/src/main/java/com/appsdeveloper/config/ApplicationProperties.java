@@ -1,5 +1,7 @@
 package com.appsdeveloper.config;
 
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +11,103 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final ResponseCache responseCache = new ResponseCache();
+
+    private final NearCache nearCache = new NearCache();
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    public static class ResponseCache {
+
+        private boolean enabled = true;
+
+        private int timeToLiveSeconds = 3600;
+
+        private int maxAgeSeconds = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public int getMaxAgeSeconds() {
+            return maxAgeSeconds;
+        }
+
+        public void setMaxAgeSeconds(int maxAgeSeconds) {
+            this.maxAgeSeconds = maxAgeSeconds;
+        }
+    }
+
+    public static class NearCache {
+
+        private boolean enabled = true;
+
+        private int maxSize = 10000;
+
+        private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+
+        private InMemoryFormat inMemoryFormat = InMemoryFormat.BINARY;
+
+        private boolean cacheLocalEntries = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public EvictionPolicy getEvictionPolicy() {
+            return evictionPolicy;
+        }
+
+        public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+            this.evictionPolicy = evictionPolicy;
+        }
+
+        public InMemoryFormat getInMemoryFormat() {
+            return inMemoryFormat;
+        }
+
+        public void setInMemoryFormat(InMemoryFormat inMemoryFormat) {
+            this.inMemoryFormat = inMemoryFormat;
+        }
+
+        public boolean isCacheLocalEntries() {
+            return cacheLocalEntries;
+        }
+
+        public void setCacheLocalEntries(boolean cacheLocalEntries) {
+            this.cacheLocalEntries = cacheLocalEntries;
+        }
+    }
+}
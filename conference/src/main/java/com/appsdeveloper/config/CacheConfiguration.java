@@ -1,8 +1,13 @@
 package com.appsdeveloper.config;
 
+import com.appsdeveloper.domain.Session;
+import com.appsdeveloper.domain.Speaker;
+import com.appsdeveloper.service.CatalogResponseCache;
 import com.hazelcast.config.*;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
+import java.util.Arrays;
+import java.util.List;
 import javax.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +32,16 @@ import tech.jhipster.config.cache.PrefixedKeyGenerator;
 @EnableCaching
 public class CacheConfiguration {
 
+    /**
+     * Hibernate second level cache regions which are read on every speaker and session request.
+     */
+    static final List<String> NEAR_CACHED_REGIONS = Arrays.asList(
+        Speaker.class.getName(),
+        Speaker.class.getName() + ".sessions",
+        Session.class.getName(),
+        Session.class.getName() + ".speakers"
+    );
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
 
@@ -64,7 +79,7 @@ public class CacheConfiguration {
     }
 
     @Bean
-    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties) {
+    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         log.debug("Configuring Hazelcast");
         HazelcastInstance hazelCastInstance = Hazelcast.getHazelcastInstanceByName("conference");
         if (hazelCastInstance != null) {
@@ -107,6 +122,12 @@ public class CacheConfiguration {
         config.setManagementCenterConfig(new ManagementCenterConfig());
         config.addMapConfig(initializeDefaultMapConfig(jHipsterProperties));
         config.addMapConfig(initializeDomainMapConfig(jHipsterProperties));
+        if (applicationProperties.getNearCache().isEnabled()) {
+            for (String region : NEAR_CACHED_REGIONS) {
+                config.addMapConfig(initializeNearCachedDomainMapConfig(region, jHipsterProperties, applicationProperties));
+            }
+        }
+        config.addMapConfig(initializeResponseMapConfig(applicationProperties));
         return Hazelcast.newHazelcastInstance(config);
     }
 
@@ -146,6 +167,45 @@ public class CacheConfiguration {
         return mapConfig;
     }
 
+    private MapConfig initializeNearCachedDomainMapConfig(
+        String region,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties
+    ) {
+        MapConfig mapConfig = initializeDomainMapConfig(jHipsterProperties).setName(region);
+        ApplicationProperties.NearCache nearCache = applicationProperties.getNearCache();
+
+        /*
+        Keep a local copy of the entries read by this member, so that cache hits
+        don't need a network hop to the partition owner. The copies are invalidated
+        by the owner on every change, and also cache the entries owned by this
+        member, which are otherwise read from the partition store.
+        */
+        NearCacheConfig nearCacheConfig = new NearCacheConfig(region)
+            .setInvalidateOnChange(true)
+            .setCacheLocalEntries(nearCache.isCacheLocalEntries())
+            .setInMemoryFormat(nearCache.getInMemoryFormat())
+            .setTimeToLiveSeconds(jHipsterProperties.getCache().getHazelcast().getTimeToLiveSeconds());
+        nearCacheConfig
+            .getEvictionConfig()
+            .setEvictionPolicy(nearCache.getEvictionPolicy())
+            .setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+            .setSize(nearCache.getMaxSize());
+        return mapConfig.setNearCacheConfig(nearCacheConfig);
+    }
+
+    @Bean
+    public NearCacheMetrics nearCacheMetrics(HazelcastInstance hazelcastInstance, ApplicationProperties applicationProperties) {
+        List<String> regions = applicationProperties.getNearCache().isEnabled() ? NEAR_CACHED_REGIONS : List.of();
+        return new NearCacheMetrics(hazelcastInstance, regions);
+    }
+
+    private MapConfig initializeResponseMapConfig(ApplicationProperties applicationProperties) {
+        MapConfig mapConfig = new MapConfig(CatalogResponseCache.RESPONSES_MAP);
+        mapConfig.setTimeToLiveSeconds(applicationProperties.getResponseCache().getTimeToLiveSeconds());
+        return mapConfig;
+    }
+
     @Autowired(required = false)
     public void setGitProperties(GitProperties gitProperties) {
         this.gitProperties = gitProperties;
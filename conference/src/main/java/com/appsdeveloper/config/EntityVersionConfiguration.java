@@ -0,0 +1,15 @@
+package com.appsdeveloper.config;
+
+import com.appsdeveloper.aop.version.EntityVersionAspect;
+import com.appsdeveloper.service.EntityVersionService;
+import org.springframework.context.annotation.*;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class EntityVersionConfiguration {
+
+    @Bean
+    public EntityVersionAspect entityVersionAspect(EntityVersionService entityVersionService) {
+        return new EntityVersionAspect(entityVersionService);
+    }
+}
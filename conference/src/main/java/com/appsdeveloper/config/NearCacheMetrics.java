@@ -0,0 +1,77 @@
+package com.appsdeveloper.config;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.nearcache.NearCacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the statistics of the Hazelcast near caches of this member.
+ * <p>
+ * The statistics are read from the maps on every scrape, they are tagged with the name of the map.
+ */
+public class NearCacheMetrics implements MeterBinder {
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final List<String> mapNames;
+
+    public NearCacheMetrics(HazelcastInstance hazelcastInstance, List<String> mapNames) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.mapNames = mapNames;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String mapName : mapNames) {
+            IMap<?, ?> map = hazelcastInstance.getMap(mapName);
+            FunctionCounter
+                .builder("cache.gets", map, stat(NearCacheStats::getHits))
+                .tags("cache", mapName, "result", "hit")
+                .description("The number of reads served by the near cache")
+                .register(registry);
+            FunctionCounter
+                .builder("cache.gets", map, stat(NearCacheStats::getMisses))
+                .tags("cache", mapName, "result", "miss")
+                .description("The number of reads which went to the partition owner")
+                .register(registry);
+            FunctionCounter
+                .builder("cache.evictions", map, stat(NearCacheStats::getEvictions))
+                .tag("cache", mapName)
+                .description("The number of entries evicted from the near cache")
+                .register(registry);
+            FunctionCounter
+                .builder("cache.near.invalidations", map, stat(NearCacheStats::getInvalidations))
+                .tag("cache", mapName)
+                .description("The number of near cache entries invalidated by a change")
+                .register(registry);
+            Gauge
+                .builder("cache.near.size", map, stat(NearCacheStats::getOwnedEntryCount))
+                .tag("cache", mapName)
+                .description("The number of entries in the near cache")
+                .register(registry);
+            Gauge
+                .builder("cache.near.hit.ratio", map, stat(NearCacheMetrics::hitRatio))
+                .tag("cache", mapName)
+                .description("The share of the reads served by the near cache")
+                .register(registry);
+        }
+    }
+
+    private static double hitRatio(NearCacheStats stats) {
+        long reads = stats.getHits() + stats.getMisses();
+        return reads == 0 ? 0 : (double) stats.getHits() / reads;
+    }
+
+    private static ToDoubleFunction<IMap<?, ?>> stat(ToDoubleFunction<NearCacheStats> statistic) {
+        return map -> {
+            NearCacheStats stats = map.getLocalMapStats().getNearCacheStats();
+            return stats == null ? 0 : statistic.applyAsDouble(stats);
+        };
+    }
+}
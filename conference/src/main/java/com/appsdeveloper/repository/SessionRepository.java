@@ -1,7 +1,11 @@
 package com.appsdeveloper.repository;
 
 import com.appsdeveloper.domain.Session;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +13,12 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface SessionRepository extends JpaRepository<Session, Long> {}
+public interface SessionRepository extends JpaRepository<Session, Long> {
+    List<Session> findAllByOrderByStartDateTimeAscIdAsc(Pageable pageable);
+
+    @Query(
+        "select session from Session session where session.startDateTime > :startDateTime " +
+        "or (session.startDateTime = :startDateTime and session.id > :id) order by session.startDateTime, session.id"
+    )
+    List<Session> findAllAfter(@Param("startDateTime") ZonedDateTime startDateTime, @Param("id") Long id, Pageable pageable);
+}
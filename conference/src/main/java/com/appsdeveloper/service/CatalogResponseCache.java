@@ -0,0 +1,126 @@
+package com.appsdeveloper.service;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.IMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cluster-wide cache of the JSON bodies returned by the read-only speaker and session endpoints.
+ * <p>
+ * The bodies are stored pre-encoded in a Hazelcast map, so a hit costs a map lookup and a byte copy instead of a query
+ * and a serialization. Keys are prefixed with a generation number, which is incremented after every committed write: a
+ * request which loaded the entities before the write can only store them under the previous generation, which is no
+ * longer read.
+ * <p>
+ * The responses are keyed by their ETag, which holds the entity versions it was computed from. As the versions and
+ * the generation are incremented by separate commit synchronizations, a body cached while only the versions were
+ * incremented is still stored under the ETag it was loaded for, and is never served with a newer ETag.
+ */
+@Service
+public class CatalogResponseCache {
+
+    public static final String RESPONSES_MAP = "conference-responses";
+
+    private static final String GENERATIONS_MAP = "conference-responses-generation";
+
+    private static final String GENERATION_KEY = "catalog";
+
+    private final Logger log = LoggerFactory.getLogger(CatalogResponseCache.class);
+
+    private final IMap<String, byte[]> responses;
+
+    private final IMap<String, Long> generations;
+
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled;
+
+    public CatalogResponseCache(
+        HazelcastInstance hazelcastInstance,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.responses = hazelcastInstance.getMap(RESPONSES_MAP);
+        this.generations = hazelcastInstance.getMap(GENERATIONS_MAP);
+        this.objectMapper = objectMapper;
+        this.enabled = applicationProperties.getResponseCache().isEnabled();
+    }
+
+    /**
+     * Get the JSON body cached for the key, or load and encode it.
+     *
+     * @param key the key of the response, i.e. its ETag, read before the loader is called.
+     * @param loader loads the body, only called on a cache miss.
+     * @param <T> the type of the body.
+     * @return the JSON body, or an empty {@link Optional} if the loader didn't find anything, which is not cached.
+     */
+    public <T> Optional<byte[]> get(String key, Supplier<Optional<T>> loader) {
+        if (!enabled) {
+            return loader.get().map(this::encode);
+        }
+        String generationKey = generations.getOrDefault(GENERATION_KEY, 0L) + ":" + key;
+        byte[] body = responses.get(generationKey);
+        if (body != null) {
+            return Optional.of(body);
+        }
+        Optional<byte[]> loaded = loader.get().map(this::encode);
+        loaded.ifPresent(bytes -> responses.set(generationKey, bytes));
+        return loaded;
+    }
+
+    /**
+     * Invalidate all the cached responses in the cluster, once the current transaction is committed.
+     */
+    public void invalidate() {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        invalidateNow();
+                    }
+                }
+            );
+        } else {
+            invalidateNow();
+        }
+    }
+
+    private void invalidateNow() {
+        log.debug("Invalidating the cached catalog responses");
+        generations.executeOnKey(GENERATION_KEY, new IncrementGeneration());
+        responses.clear();
+    }
+
+    private byte[] encode(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize the response", e);
+        }
+    }
+
+    private static class IncrementGeneration implements EntryProcessor<String, Long, Long> {
+
+        @Override
+        public Long process(Map.Entry<String, Long> entry) {
+            long generation = entry.getValue() == null ? 1L : entry.getValue() + 1;
+            entry.setValue(generation);
+            return generation;
+        }
+    }
+}
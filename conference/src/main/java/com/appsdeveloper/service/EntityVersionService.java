@@ -0,0 +1,88 @@
+package com.appsdeveloper.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.IMap;
+import java.util.Map;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cluster-wide version counters of the entity types, used to build the ETags of the REST resources.
+ * <p>
+ * A counter starts at the time it is first read, so that versions issued before a full cluster restart are not
+ * issued again for different data. It is incremented once the transaction writing the entities is committed, so a
+ * version is never paired with data which is not visible yet.
+ */
+@Service
+public class EntityVersionService {
+
+    public static final String VERSIONS_MAP = "conference-entity-versions";
+
+    private final IMap<String, Long> versions;
+
+    public EntityVersionService(HazelcastInstance hazelcastInstance) {
+        this.versions = hazelcastInstance.getMap(VERSIONS_MAP);
+    }
+
+    /**
+     * Get the current version of an entity type.
+     *
+     * @param entityType the entity type.
+     * @return the version, which changes whenever an entity of this type is written.
+     */
+    public long getVersion(Class<?> entityType) {
+        Long version = versions.get(entityType.getName());
+        if (version == null) {
+            versions.putIfAbsent(entityType.getName(), System.currentTimeMillis());
+            version = versions.get(entityType.getName());
+        }
+        return version;
+    }
+
+    /**
+     * Build a strong ETag from the current versions of the entity types.
+     *
+     * @param resource the resource name, e.g. the request path.
+     * @param entityTypes the entity types which the resource representation depends on.
+     * @return the quoted ETag.
+     */
+    public String getETag(String resource, Class<?>... entityTypes) {
+        StringBuilder eTag = new StringBuilder("\"").append(resource);
+        for (Class<?> entityType : entityTypes) {
+            eTag.append('-').append(Long.toString(getVersion(entityType), Character.MAX_RADIX));
+        }
+        return eTag.append('"').toString();
+    }
+
+    /**
+     * Increment the version of an entity type, once the current transaction is committed.
+     *
+     * @param entityType the written entity type.
+     */
+    public void increment(Class<?> entityType) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        versions.executeOnKey(entityType.getName(), new IncrementVersion());
+                    }
+                }
+            );
+        } else {
+            versions.executeOnKey(entityType.getName(), new IncrementVersion());
+        }
+    }
+
+    private static class IncrementVersion implements EntryProcessor<String, Long, Long> {
+
+        @Override
+        public Long process(Map.Entry<String, Long> entry) {
+            long version = entry.getValue() == null ? System.currentTimeMillis() : entry.getValue() + 1;
+            entry.setValue(version);
+            return version;
+        }
+    }
+}
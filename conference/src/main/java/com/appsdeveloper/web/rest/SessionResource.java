@@ -1,21 +1,40 @@
 package com.appsdeveloper.web.rest;
 
+import com.appsdeveloper.config.ApplicationProperties;
 import com.appsdeveloper.domain.Session;
+import com.appsdeveloper.domain.Speaker;
 import com.appsdeveloper.repository.SessionRepository;
+import com.appsdeveloper.service.CatalogResponseCache;
+import com.appsdeveloper.service.EntityVersionService;
 import com.appsdeveloper.web.rest.errors.BadRequestAlertException;
+import com.appsdeveloper.web.rest.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -36,8 +55,23 @@ public class SessionResource {
 
     private final SessionRepository sessionRepository;
 
-    public SessionResource(SessionRepository sessionRepository) {
+    private final CatalogResponseCache catalogResponseCache;
+
+    private final EntityVersionService entityVersionService;
+
+    private final CacheControl cacheControl;
+
+    public SessionResource(
+        SessionRepository sessionRepository,
+        CatalogResponseCache catalogResponseCache,
+        EntityVersionService entityVersionService,
+        ApplicationProperties applicationProperties
+    ) {
         this.sessionRepository = sessionRepository;
+        this.catalogResponseCache = catalogResponseCache;
+        this.entityVersionService = entityVersionService;
+        this.cacheControl =
+            CacheControl.maxAge(applicationProperties.getResponseCache().getMaxAgeSeconds(), TimeUnit.SECONDS).cachePublic();
     }
 
     /**
@@ -54,6 +88,7 @@ public class SessionResource {
             throw new BadRequestAlertException("A new session cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Session result = sessionRepository.save(session);
+        catalogResponseCache.invalidate();
         return ResponseEntity
             .created(new URI("/api/sessions/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -88,6 +123,7 @@ public class SessionResource {
         }
 
         Session result = sessionRepository.save(session);
+        catalogResponseCache.invalidate();
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, session.getId().toString()))
@@ -143,6 +179,7 @@ public class SessionResource {
                 }
             )
             .map(sessionRepository::save);
+        result.ifPresent(updated -> catalogResponseCache.invalidate());
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -153,25 +190,79 @@ public class SessionResource {
     /**
      * {@code GET  /sessions} : get all the sessions.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of sessions in body.
+     * @param request the request, to check its {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of sessions as cached JSON in body,
+     * or with status {@code 304 (Not Modified)} if the sessions didn't change.
      */
-    @GetMapping("/sessions")
-    public List<Session> getAllSessions() {
+    @GetMapping(value = "/sessions", params = { "!after", "!size" })
+    public ResponseEntity<byte[]> getAllSessions(WebRequest request) {
         log.debug("REST request to get all Sessions");
-        return sessionRepository.findAll();
+        String eTag = entityVersionService.getETag("sessions", Speaker.class, Session.class);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        Optional<byte[]> sessions = catalogResponseCache.get(eTag, () -> Optional.of(sessionRepository.findAll()));
+        return ResponseUtil.wrapOrNotFound(sessions, jsonHeaders(eTag));
+    }
+
+    /**
+     * {@code GET  /sessions?after=:cursor&size=:size} : get a page of the sessions, sorted by start date.
+     *
+     * @param after the cursor of the previous page, or none for the first page.
+     * @param size the page size.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of sessions in body.
+     */
+    @GetMapping("/sessions")
+    public ResponseEntity<List<Session>> getSessionsPage(
+        @RequestParam(required = false) String after,
+        @RequestParam(required = false) Integer size
+    ) {
+        log.debug("REST request to get a page of Sessions after : {}", after);
+        int pageSize = KeysetPaginationUtil.pageSize(size);
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<Session> sessions;
+        if (after == null) {
+            sessions = sessionRepository.findAllByOrderByStartDateTimeAscIdAsc(pageable);
+        } else {
+            KeysetPaginationUtil.Cursor cursor;
+            ZonedDateTime startDateTime;
+            try {
+                cursor = KeysetPaginationUtil.decodeCursor(after);
+                startDateTime = ZonedDateTime.ofInstant(Instant.parse(cursor.getSortValue()), ZoneOffset.UTC);
+            } catch (IllegalArgumentException | DateTimeException e) {
+                throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+            }
+            sessions = sessionRepository.findAllAfter(startDateTime, cursor.getId(), pageable);
+        }
+        if (sessions.size() <= pageSize) {
+            return ResponseEntity.ok(sessions);
+        }
+        Session last = sessions.get(pageSize - 1);
+        HttpHeaders headers = KeysetPaginationUtil.generateNextPageHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            KeysetPaginationUtil.encodeCursor(last.getStartDateTime().toInstant().toString(), last.getId()),
+            pageSize
+        );
+        return ResponseEntity.ok().headers(headers).body(new ArrayList<>(sessions.subList(0, pageSize)));
     }
 
     /**
      * {@code GET  /sessions/:id} : get the "id" session.
      *
      * @param id the id of the session to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the session, or with status {@code 404 (Not Found)}.
+     * @param request the request, to check its {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the session as cached JSON,
+     * or with status {@code 304 (Not Modified)} if it didn't change, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/sessions/{id}")
-    public ResponseEntity<Session> getSession(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getSession(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get Session : {}", id);
-        Optional<Session> session = sessionRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(session);
+        String eTag = entityVersionService.getETag("sessions-" + id, Speaker.class, Session.class);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        Optional<byte[]> session = catalogResponseCache.get(eTag, () -> sessionRepository.findById(id));
+        return ResponseUtil.wrapOrNotFound(session, jsonHeaders(eTag));
     }
 
     /**
@@ -184,9 +275,21 @@ public class SessionResource {
     public ResponseEntity<Void> deleteSession(@PathVariable Long id) {
         log.debug("REST request to delete Session : {}", id);
         sessionRepository.deleteById(id);
+        catalogResponseCache.invalidate();
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * The responses are the same for all the users, so they can be stored by shared caches.
+     */
+    private HttpHeaders jsonHeaders(String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setETag(eTag);
+        headers.setCacheControl(cacheControl);
+        return headers;
+    }
 }
@@ -1,21 +1,30 @@
 package com.appsdeveloper.web.rest;
 
+import com.appsdeveloper.config.ApplicationProperties;
+import com.appsdeveloper.domain.Session;
 import com.appsdeveloper.domain.Speaker;
 import com.appsdeveloper.repository.SpeakerRepository;
+import com.appsdeveloper.service.CatalogResponseCache;
+import com.appsdeveloper.service.EntityVersionService;
 import com.appsdeveloper.web.rest.errors.BadRequestAlertException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -36,8 +45,23 @@ public class SpeakerResource {
 
     private final SpeakerRepository speakerRepository;
 
-    public SpeakerResource(SpeakerRepository speakerRepository) {
+    private final CatalogResponseCache catalogResponseCache;
+
+    private final EntityVersionService entityVersionService;
+
+    private final CacheControl cacheControl;
+
+    public SpeakerResource(
+        SpeakerRepository speakerRepository,
+        CatalogResponseCache catalogResponseCache,
+        EntityVersionService entityVersionService,
+        ApplicationProperties applicationProperties
+    ) {
         this.speakerRepository = speakerRepository;
+        this.catalogResponseCache = catalogResponseCache;
+        this.entityVersionService = entityVersionService;
+        this.cacheControl =
+            CacheControl.maxAge(applicationProperties.getResponseCache().getMaxAgeSeconds(), TimeUnit.SECONDS).cachePublic();
     }
 
     /**
@@ -54,6 +78,7 @@ public class SpeakerResource {
             throw new BadRequestAlertException("A new speaker cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Speaker result = speakerRepository.save(speaker);
+        catalogResponseCache.invalidate();
         return ResponseEntity
             .created(new URI("/api/speakers/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -88,6 +113,7 @@ public class SpeakerResource {
         }
 
         Speaker result = speakerRepository.save(speaker);
+        catalogResponseCache.invalidate();
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, speaker.getId().toString()))
@@ -146,6 +172,7 @@ public class SpeakerResource {
                 }
             )
             .map(speakerRepository::save);
+        result.ifPresent(updated -> catalogResponseCache.invalidate());
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -157,25 +184,41 @@ public class SpeakerResource {
      * {@code GET  /speakers} : get all the speakers.
      *
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of speakers in body.
+     * @param request the request, to check its {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of speakers as cached JSON in body,
+     * or with status {@code 304 (Not Modified)} if the speakers didn't change.
      */
     @GetMapping("/speakers")
-    public List<Speaker> getAllSpeakers(@RequestParam(required = false, defaultValue = "false") boolean eagerload) {
+    public ResponseEntity<byte[]> getAllSpeakers(
+        @RequestParam(required = false, defaultValue = "false") boolean eagerload,
+        WebRequest request
+    ) {
         log.debug("REST request to get all Speakers");
-        return speakerRepository.findAllWithEagerRelationships();
+        String eTag = entityVersionService.getETag("speakers", Speaker.class, Session.class);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        Optional<byte[]> speakers = catalogResponseCache.get(eTag, () -> Optional.of(speakerRepository.findAllWithEagerRelationships()));
+        return ResponseUtil.wrapOrNotFound(speakers, jsonHeaders(eTag));
     }
 
     /**
      * {@code GET  /speakers/:id} : get the "id" speaker.
      *
      * @param id the id of the speaker to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the speaker, or with status {@code 404 (Not Found)}.
+     * @param request the request, to check its {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the speaker as cached JSON,
+     * or with status {@code 304 (Not Modified)} if it didn't change, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/speakers/{id}")
-    public ResponseEntity<Speaker> getSpeaker(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getSpeaker(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get Speaker : {}", id);
-        Optional<Speaker> speaker = speakerRepository.findOneWithEagerRelationships(id);
-        return ResponseUtil.wrapOrNotFound(speaker);
+        String eTag = entityVersionService.getETag("speakers-" + id, Speaker.class, Session.class);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        Optional<byte[]> speaker = catalogResponseCache.get(eTag, () -> speakerRepository.findOneWithEagerRelationships(id));
+        return ResponseUtil.wrapOrNotFound(speaker, jsonHeaders(eTag));
     }
 
     /**
@@ -188,9 +231,21 @@ public class SpeakerResource {
     public ResponseEntity<Void> deleteSpeaker(@PathVariable Long id) {
         log.debug("REST request to delete Speaker : {}", id);
         speakerRepository.deleteById(id);
+        catalogResponseCache.invalidate();
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * The responses are the same for all the users, so they can be stored by shared caches.
+     */
+    private HttpHeaders jsonHeaders(String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setETag(eTag);
+        headers.setCacheControl(cacheControl);
+        return headers;
+    }
 }
@@ -0,0 +1,108 @@
+package com.appsdeveloper.web.rest.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset (cursor) pagination.
+ * <p>
+ * A cursor is an opaque token holding the sort value and the id of the last element of a page, so the next page starts
+ * right after it, whatever its depth. The next page is advertised in a
+ * <a href="https://tools.ietf.org/html/rfc5988">Link header</a> with {@code rel="next"}.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final int DEFAULT_SIZE = 20;
+
+    public static final int MAX_SIZE = 1000;
+
+    private static final String HEADER_LINK_FORMAT = "<%s>; rel=\"next\"";
+
+    private static final char SEPARATOR = ':';
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Clamp the requested page size between 1 and {@link #MAX_SIZE}.
+     *
+     * @param size the requested page size, or {@code null} for the default one.
+     * @return the page size to use.
+     */
+    public static int pageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(Math.max(size, 1), MAX_SIZE);
+    }
+
+    /**
+     * Create the cursor pointing after the given element.
+     *
+     * @param sortValue the sort value of the element, as a string.
+     * @param id the id of the element.
+     * @return the opaque cursor.
+     */
+    public static String encodeCursor(String sortValue, Long id) {
+        String value = id + String.valueOf(SEPARATOR) + sortValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read a cursor created by {@link #encodeCursor(String, Long)}.
+     *
+     * @param cursor the opaque cursor, or {@code null} for the first page.
+     * @return the decoded cursor, or {@code null} for the first page.
+     * @throws IllegalArgumentException if the cursor is not valid.
+     */
+    public static Cursor decodeCursor(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = value.indexOf(SEPARATOR);
+        if (separator < 1) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return new Cursor(value.substring(separator + 1), Long.valueOf(value.substring(0, separator)));
+    }
+
+    /**
+     * Generate the pagination headers pointing to the next page.
+     *
+     * @param uriBuilder a {@link UriComponentsBuilder} of the current request.
+     * @param nextCursor the cursor of the next page.
+     * @param size the page size.
+     * @return the {@link HttpHeaders} with the {@code Link} header.
+     */
+    public static HttpHeaders generateNextPageHttpHeaders(UriComponentsBuilder uriBuilder, String nextCursor, int size) {
+        String next = uriBuilder.replaceQueryParam("after", nextCursor).replaceQueryParam("size", size).toUriString();
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, String.format(HEADER_LINK_FORMAT, next));
+        return headers;
+    }
+
+    /**
+     * The position of the last element of a page.
+     */
+    public static final class Cursor {
+
+        private final String sortValue;
+
+        private final Long id;
+
+        private Cursor(String sortValue, Long id) {
+            this.sortValue = sortValue;
+            this.id = id;
+        }
+
+        public String getSortValue() {
+            return sortValue;
+        }
+
+        public Long getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.appsdeveloper.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.appsdeveloper.IntegrationTest;
+import com.appsdeveloper.domain.Session;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for the near caches configured by {@link CacheConfiguration}, and their {@link NearCacheMetrics}.
+ */
+@IntegrationTest
+class NearCacheMetricsIT {
+
+    private static final String REGION = Session.class.getName();
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @AfterEach
+    public void cleanup() {
+        hazelcastInstance.getMap(REGION).clear();
+    }
+
+    @Test
+    void testDomainRegionsAreNearCached() {
+        for (String region : CacheConfiguration.NEAR_CACHED_REGIONS) {
+            assertThat(hazelcastInstance.getConfig().getMapConfig(region).getNearCacheConfig()).isNotNull();
+        }
+    }
+
+    @Test
+    void testPublishNearCacheHits() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new NearCacheMetrics(hazelcastInstance, List.of(REGION)).bindTo(registry);
+        IMap<String, String> map = hazelcastInstance.getMap(REGION);
+        map.set("near-cache-test", "value");
+
+        map.get("near-cache-test");
+        map.get("near-cache-test");
+        map.get("near-cache-test");
+
+        assertThat(registry.get("cache.gets").tags("cache", REGION, "result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tags("cache", REGION, "result", "hit").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("cache.near.size").tag("cache", REGION).gauge().value()).isEqualTo(1);
+        assertThat(registry.get("cache.near.hit.ratio").tag("cache", REGION).gauge().value()).isEqualTo(2.0 / 3);
+    }
+}
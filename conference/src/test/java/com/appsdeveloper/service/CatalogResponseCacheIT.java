@@ -0,0 +1,105 @@
+package com.appsdeveloper.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.appsdeveloper.IntegrationTest;
+import com.appsdeveloper.config.ApplicationProperties;
+import com.appsdeveloper.domain.Speaker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.core.HazelcastInstance;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link CatalogResponseCache}.
+ */
+@IntegrationTest
+class CatalogResponseCacheIT {
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityVersionService entityVersionService;
+
+    private CatalogResponseCache catalogResponseCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getResponseCache().setEnabled(true);
+        catalogResponseCache = new CatalogResponseCache(hazelcastInstance, objectMapper, applicationProperties);
+        catalogResponseCache.invalidate();
+    }
+
+    @Test
+    void testReturnCachedBody() {
+        Optional<byte[]> first = catalogResponseCache.get("speakers", this::load);
+        Optional<byte[]> second = catalogResponseCache.get("speakers", this::load);
+
+        assertThat(loads).hasValue(1);
+        assertThat(first).isPresent();
+        assertThat(new String(second.orElseThrow(), StandardCharsets.UTF_8)).isEqualTo("[\"body-1\"]");
+    }
+
+    @Test
+    void testDoNotCacheMissingEntity() {
+        assertThat(catalogResponseCache.get("speakers/1", Optional::empty)).isEmpty();
+        assertThat(catalogResponseCache.get("speakers/1", this::load)).isPresent();
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void testInvalidate() {
+        catalogResponseCache.get("speakers", this::load);
+        catalogResponseCache.invalidate();
+        Optional<byte[]> reloaded = catalogResponseCache.get("speakers", this::load);
+
+        assertThat(loads).hasValue(2);
+        assertThat(new String(reloaded.orElseThrow(), StandardCharsets.UTF_8)).isEqualTo("[\"body-2\"]");
+    }
+
+    @Test
+    void testInvalidateAfterCommit() {
+        catalogResponseCache.get("speakers", this::load);
+        transactionTemplate.executeWithoutResult(
+            status -> {
+                catalogResponseCache.invalidate();
+                catalogResponseCache.get("speakers", this::load);
+                assertThat(loads).hasValue(1);
+            }
+        );
+        catalogResponseCache.get("speakers", this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void testNotServeBodyOfPreviousVersion() {
+        catalogResponseCache.get(entityVersionService.getETag("speakers", Speaker.class), this::load);
+        // the version is incremented by its own commit synchronization, before the cached responses are invalidated
+        entityVersionService.increment(Speaker.class);
+        Optional<byte[]> reloaded = catalogResponseCache.get(entityVersionService.getETag("speakers", Speaker.class), this::load);
+
+        assertThat(loads).hasValue(2);
+        assertThat(new String(reloaded.orElseThrow(), StandardCharsets.UTF_8)).isEqualTo("[\"body-2\"]");
+    }
+
+    private Optional<String[]> load() {
+        return Optional.of(new String[] { "body-" + loads.incrementAndGet() });
+    }
+}
@@ -9,6 +9,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.appsdeveloper.IntegrationTest;
 import com.appsdeveloper.domain.Session;
 import com.appsdeveloper.repository.SessionRepository;
+import java.net.URI;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
@@ -21,9 +22,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Base64Utils;
 
@@ -205,6 +208,44 @@ class SessionResourceIT {
             .andExpect(jsonPath("$.[*].endDateTime").value(hasItem(sameInstant(DEFAULT_END_DATE_TIME))));
     }
 
+    @Test
+    @Transactional
+    void getAllSessionsWithCursor() throws Exception {
+        // Initialize the database
+        Session laterSession = createUpdatedEntity(em);
+        Session sameStartSession = createEntity(em);
+        sessionRepository.saveAndFlush(session);
+        sessionRepository.saveAndFlush(laterSession);
+        sessionRepository.saveAndFlush(sameStartSession);
+
+        // Get the first page, sorted by start date and id
+        MvcResult firstPage = restSessionMockMvc
+            .perform(get(ENTITY_API_URL + "?size=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[0].id").value(session.getId().intValue()))
+            .andExpect(jsonPath("$.[1].id").value(sameStartSession.getId().intValue()))
+            .andReturn();
+
+        String link = firstPage.getResponse().getHeader(HttpHeaders.LINK);
+        assertThat(link).endsWith("; rel=\"next\"");
+        URI next = URI.create(link.substring(1, link.indexOf('>')));
+
+        // Get the last page through the next link
+        restSessionMockMvc
+            .perform(get(next))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(laterSession.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getAllSessionsWithInvalidCursor() throws Exception {
+        restSessionMockMvc.perform(get(ENTITY_API_URL + "?after=*")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getSession() throws Exception {
@@ -223,6 +264,37 @@ class SessionResourceIT {
             .andExpect(jsonPath("$.endDateTime").value(sameInstant(DEFAULT_END_DATE_TIME)));
     }
 
+    @Test
+    void getSessionNotModified() throws Exception {
+        // Initialize the database, outside of a test transaction so that the writes are committed
+        Session updatedSession = createUpdatedEntity(em);
+        sessionRepository.saveAndFlush(session);
+
+        try {
+            String eTag = restSessionMockMvc
+                .perform(get(ENTITY_API_URL_ID, session.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=10, public"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+            // The session didn't change
+            restSessionMockMvc
+                .perform(get(ENTITY_API_URL_ID, session.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=10, public"));
+
+            // Any write of a session changes the ETag
+            sessionRepository.saveAndFlush(updatedSession);
+            restSessionMockMvc.perform(get(ENTITY_API_URL_ID, session.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag)).andExpect(status().isOk());
+        } finally {
+            sessionRepository.delete(session);
+            sessionRepository.delete(updatedSession);
+        }
+    }
+
     @Test
     @Transactional
     void getNonExistingSession() throws Exception {
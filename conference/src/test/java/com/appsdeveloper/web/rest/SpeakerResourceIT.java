@@ -23,6 +23,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -288,6 +289,37 @@ class SpeakerResourceIT {
             .andExpect(jsonPath("$.bio").value(DEFAULT_BIO));
     }
 
+    @Test
+    void getAllSpeakersNotModified() throws Exception {
+        // Initialize the database, outside of a test transaction so that the writes are committed
+        Speaker updatedSpeaker = createUpdatedEntity(em);
+        speakerRepository.saveAndFlush(speaker);
+
+        try {
+            String eTag = restSpeakerMockMvc
+                .perform(get(ENTITY_API_URL))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=10, public"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+            // The list didn't change
+            restSpeakerMockMvc
+                .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=10, public"));
+
+            // Any write of a speaker changes the ETag
+            speakerRepository.saveAndFlush(updatedSpeaker);
+            restSpeakerMockMvc.perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag)).andExpect(status().isOk());
+        } finally {
+            speakerRepository.delete(speaker);
+            speakerRepository.delete(updatedSpeaker);
+        }
+    }
+
     @Test
     @Transactional
     void getNonExistingSpeaker() throws Exception {
@@ -1,5 +1,10 @@
 package com.appsdeveloper.config;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +14,625 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final TokenCache tokenCache = new TokenCache();
+
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
+    private final UserCache userCache = new UserCache();
+
+    private final MailOutbox mailOutbox = new MailOutbox();
+
+    private final UserPurge userPurge = new UserPurge();
+
+    private final ApiDocsCache apiDocsCache = new ApiDocsCache();
+
+    private final LoadBalancer loadBalancer = new LoadBalancer();
+
+    private final Hedging hedging = new Hedging();
+
+    private final Resilience resilience = new Resilience();
+
+    private final RateLimit rateLimit = new RateLimit();
+
+    private final ResponseCache responseCache = new ResponseCache();
+
+    private final EntityVersion entityVersion = new EntityVersion();
+
+    public TokenCache getTokenCache() {
+        return tokenCache;
+    }
+
+    public PasswordHashing getPasswordHashing() {
+        return passwordHashing;
+    }
+
+    public UserCache getUserCache() {
+        return userCache;
+    }
+
+    public MailOutbox getMailOutbox() {
+        return mailOutbox;
+    }
+
+    public UserPurge getUserPurge() {
+        return userPurge;
+    }
+
+    public ApiDocsCache getApiDocsCache() {
+        return apiDocsCache;
+    }
+
+    public LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    public Hedging getHedging() {
+        return hedging;
+    }
+
+    public Resilience getResilience() {
+        return resilience;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public EntityVersion getEntityVersion() {
+        return entityVersion;
+    }
+
+    public static class TokenCache {
+
+        private int maxSize = 10000;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class PasswordHashing {
+
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        private int queueCapacity = 100;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class UserCache {
+
+        private int maxSize = 1000;
+
+        private int timeToLiveSeconds = 300;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+    }
+
+    public static class MailOutbox {
+
+        private int queueCapacity = 1000;
+
+        private int batchSize = 20;
+
+        private int maxAttempts = 3;
+
+        private long retryBackoffMillis = 1000;
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getRetryBackoffMillis() {
+            return retryBackoffMillis;
+        }
+
+        public void setRetryBackoffMillis(long retryBackoffMillis) {
+            this.retryBackoffMillis = retryBackoffMillis;
+        }
+    }
+
+    public static class UserPurge {
+
+        private int batchSize = 500;
+
+        private int concurrency = 2;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+    }
+
+    public static class ApiDocsCache {
+
+        private int maxSize = 100;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class LoadBalancer {
+
+        private boolean enabled = true;
+
+        private long decayMillis = 10000;
+
+        private double errorRateThreshold = 0.5;
+
+        private int minimumRequests = 10;
+
+        private long errorWindowMillis = 10000;
+
+        private long ejectionMillis = 30000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getDecayMillis() {
+            return decayMillis;
+        }
+
+        public void setDecayMillis(long decayMillis) {
+            this.decayMillis = decayMillis;
+        }
+
+        public double getErrorRateThreshold() {
+            return errorRateThreshold;
+        }
+
+        public void setErrorRateThreshold(double errorRateThreshold) {
+            this.errorRateThreshold = errorRateThreshold;
+        }
+
+        public int getMinimumRequests() {
+            return minimumRequests;
+        }
+
+        public void setMinimumRequests(int minimumRequests) {
+            this.minimumRequests = minimumRequests;
+        }
+
+        public long getErrorWindowMillis() {
+            return errorWindowMillis;
+        }
+
+        public void setErrorWindowMillis(long errorWindowMillis) {
+            this.errorWindowMillis = errorWindowMillis;
+        }
+
+        public long getEjectionMillis() {
+            return ejectionMillis;
+        }
+
+        public void setEjectionMillis(long ejectionMillis) {
+            this.ejectionMillis = ejectionMillis;
+        }
+    }
+
+    public static class Hedging {
+
+        private double budgetPercent = 5;
+
+        private int budgetBurst = 10;
+
+        public double getBudgetPercent() {
+            return budgetPercent;
+        }
+
+        public void setBudgetPercent(double budgetPercent) {
+            this.budgetPercent = budgetPercent;
+        }
+
+        public int getBudgetBurst() {
+            return budgetBurst;
+        }
+
+        public void setBudgetBurst(int budgetBurst) {
+            this.budgetBurst = budgetBurst;
+        }
+    }
+
+    public static class Resilience {
+
+        private boolean enabled = true;
+
+        private int maxConcurrentRequests = 200;
+
+        private long timeoutMillis = 10000;
+
+        private double failureRateThreshold = 0.5;
+
+        private int minimumRequests = 20;
+
+        private long windowMillis = 10000;
+
+        private long openMillis = 30000;
+
+        private int halfOpenRequests = 5;
+
+        private Map<String, Service> services = new HashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+        }
+
+        public long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+
+        public void setTimeoutMillis(long timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        public double getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public int getMinimumRequests() {
+            return minimumRequests;
+        }
+
+        public void setMinimumRequests(int minimumRequests) {
+            this.minimumRequests = minimumRequests;
+        }
+
+        public long getWindowMillis() {
+            return windowMillis;
+        }
+
+        public void setWindowMillis(long windowMillis) {
+            this.windowMillis = windowMillis;
+        }
+
+        public long getOpenMillis() {
+            return openMillis;
+        }
+
+        public void setOpenMillis(long openMillis) {
+            this.openMillis = openMillis;
+        }
+
+        public int getHalfOpenRequests() {
+            return halfOpenRequests;
+        }
+
+        public void setHalfOpenRequests(int halfOpenRequests) {
+            this.halfOpenRequests = halfOpenRequests;
+        }
+
+        public Map<String, Service> getServices() {
+            return services;
+        }
+
+        public void setServices(Map<String, Service> services) {
+            this.services = services;
+        }
+
+        /**
+         * Settings of a service, overriding the ones of all the services when they are set.
+         */
+        public static class Service {
+
+            private Integer maxConcurrentRequests;
+
+            private Long timeoutMillis;
+
+            private Double failureRateThreshold;
+
+            private Integer minimumRequests;
+
+            private Long openMillis;
+
+            public Integer getMaxConcurrentRequests() {
+                return maxConcurrentRequests;
+            }
+
+            public void setMaxConcurrentRequests(Integer maxConcurrentRequests) {
+                this.maxConcurrentRequests = maxConcurrentRequests;
+            }
+
+            public Long getTimeoutMillis() {
+                return timeoutMillis;
+            }
+
+            public void setTimeoutMillis(Long timeoutMillis) {
+                this.timeoutMillis = timeoutMillis;
+            }
+
+            public Double getFailureRateThreshold() {
+                return failureRateThreshold;
+            }
+
+            public void setFailureRateThreshold(Double failureRateThreshold) {
+                this.failureRateThreshold = failureRateThreshold;
+            }
+
+            public Integer getMinimumRequests() {
+                return minimumRequests;
+            }
+
+            public void setMinimumRequests(Integer minimumRequests) {
+                this.minimumRequests = minimumRequests;
+            }
+
+            public Long getOpenMillis() {
+                return openMillis;
+            }
+
+            public void setOpenMillis(Long openMillis) {
+                this.openMillis = openMillis;
+            }
+        }
+    }
+
+    public static class RateLimit {
+
+        private int burst = 20;
+
+        private double refillPerSecond = 10;
+
+        private long sweepMillis = 1000;
+
+        private List<String> trustedProxies = new ArrayList<>();
+
+        private Map<String, Policy> policies = new LinkedHashMap<>();
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public long getSweepMillis() {
+            return sweepMillis;
+        }
+
+        public void setSweepMillis(long sweepMillis) {
+            this.sweepMillis = sweepMillis;
+        }
+
+        public List<String> getTrustedProxies() {
+            return trustedProxies;
+        }
+
+        public void setTrustedProxies(List<String> trustedProxies) {
+            this.trustedProxies = trustedProxies;
+        }
+
+        public Map<String, Policy> getPolicies() {
+            return policies;
+        }
+
+        public void setPolicies(Map<String, Policy> policies) {
+            this.policies = policies;
+        }
+
+        /**
+         * Limit of requests to paths served by the gateway itself.
+         */
+        public static class Policy {
+
+            private List<String> paths = new ArrayList<>();
+
+            private String key = "ip";
+
+            private int burst = 10;
+
+            private double refillPerSecond = 1;
+
+            public List<String> getPaths() {
+                return paths;
+            }
+
+            public void setPaths(List<String> paths) {
+                this.paths = paths;
+            }
+
+            public String getKey() {
+                return key;
+            }
+
+            public void setKey(String key) {
+                this.key = key;
+            }
+
+            public int getBurst() {
+                return burst;
+            }
+
+            public void setBurst(int burst) {
+                this.burst = burst;
+            }
+
+            public double getRefillPerSecond() {
+                return refillPerSecond;
+            }
+
+            public void setRefillPerSecond(double refillPerSecond) {
+                this.refillPerSecond = refillPerSecond;
+            }
+        }
+    }
+
+    public static class ResponseCache {
+
+        private boolean enabled = true;
+
+        private List<String> paths = new ArrayList<>(List.of("/services/**"));
+
+        private List<String> keyHeaders = new ArrayList<>(List.of("Accept", "Accept-Language"));
+
+        private long maxBytes = 64 * 1024 * 1024;
+
+        private int maxEntryBytes = 1024 * 1024;
+
+        private boolean offHeap = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public List<String> getKeyHeaders() {
+            return keyHeaders;
+        }
+
+        public void setKeyHeaders(List<String> keyHeaders) {
+            this.keyHeaders = keyHeaders;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public int getMaxEntryBytes() {
+            return maxEntryBytes;
+        }
+
+        public void setMaxEntryBytes(int maxEntryBytes) {
+            this.maxEntryBytes = maxEntryBytes;
+        }
+
+        public boolean isOffHeap() {
+            return offHeap;
+        }
+
+        public void setOffHeap(boolean offHeap) {
+            this.offHeap = offHeap;
+        }
+    }
+
+    public static class EntityVersion {
+
+        private long refreshMillis = 1000;
+
+        public long getRefreshMillis() {
+            return refreshMillis;
+        }
+
+        public void setRefreshMillis(long refreshMillis) {
+            this.refreshMillis = refreshMillis;
+        }
+    }
+}
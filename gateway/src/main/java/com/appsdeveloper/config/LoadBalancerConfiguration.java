@@ -0,0 +1,15 @@
+package com.appsdeveloper.config;
+
+import com.appsdeveloper.gateway.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Use the {@link com.appsdeveloper.gateway.loadbalancer.LatencyAwareLoadBalancer} for all the services, instead of
+ * the default round-robin.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.load-balancer", name = "enabled", havingValue = "true", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfiguration {}
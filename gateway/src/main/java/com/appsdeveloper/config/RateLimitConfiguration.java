@@ -0,0 +1,31 @@
+package com.appsdeveloper.config;
+
+import com.appsdeveloper.gateway.ratelimit.RateLimitKeyResolver;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Keys of the {@code RequestRateLimiter} filters, by user unless the filter sets its {@code key-resolver}, e.g. to
+ * {@code "#{@ipKeyResolver}"}.
+ */
+@Configuration
+public class RateLimitConfiguration {
+
+    @Bean
+    @Primary
+    public KeyResolver userKeyResolver(ApplicationProperties applicationProperties) {
+        return new RateLimitKeyResolver(RateLimitKeyResolver.Type.USER, applicationProperties.getRateLimit().getTrustedProxies());
+    }
+
+    @Bean
+    public KeyResolver ipKeyResolver(ApplicationProperties applicationProperties) {
+        return new RateLimitKeyResolver(RateLimitKeyResolver.Type.IP, applicationProperties.getRateLimit().getTrustedProxies());
+    }
+
+    @Bean
+    public KeyResolver routeKeyResolver(ApplicationProperties applicationProperties) {
+        return new RateLimitKeyResolver(RateLimitKeyResolver.Type.ROUTE, applicationProperties.getRateLimit().getTrustedProxies());
+    }
+}
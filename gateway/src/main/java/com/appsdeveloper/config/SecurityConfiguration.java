@@ -3,9 +3,11 @@ package com.appsdeveloper.config;
 import static org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers.pathMatchers;
 
 import com.appsdeveloper.security.AuthoritiesConstants;
+import com.appsdeveloper.security.PasswordHashingScheduler;
 import com.appsdeveloper.security.jwt.JWTFilter;
 import com.appsdeveloper.security.jwt.TokenProvider;
 import com.appsdeveloper.web.filter.SpaWebFilter;
+import java.util.concurrent.RejectedExecutionException;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpMethod;
@@ -38,16 +40,20 @@ public class SecurityConfiguration {
 
     private final SecurityProblemSupport problemSupport;
 
+    private final PasswordHashingScheduler passwordHashingScheduler;
+
     public SecurityConfiguration(
         ReactiveUserDetailsService userDetailsService,
         TokenProvider tokenProvider,
         JHipsterProperties jHipsterProperties,
-        SecurityProblemSupport problemSupport
+        SecurityProblemSupport problemSupport,
+        PasswordHashingScheduler passwordHashingScheduler
     ) {
         this.userDetailsService = userDetailsService;
         this.tokenProvider = tokenProvider;
         this.jHipsterProperties = jHipsterProperties;
         this.problemSupport = problemSupport;
+        this.passwordHashingScheduler = passwordHashingScheduler;
     }
 
     @Bean
@@ -61,7 +67,12 @@ public class SecurityConfiguration {
             userDetailsService
         );
         authenticationManager.setPasswordEncoder(passwordEncoder());
-        return authenticationManager;
+        // check the passwords on the dedicated threads, which reject the logins once their queue is full
+        authenticationManager.setScheduler(passwordHashingScheduler.getScheduler());
+        return authentication ->
+            authenticationManager
+                .authenticate(authentication)
+                .onErrorMap(RejectedExecutionException.class, passwordHashingScheduler::translateRejection);
     }
 
     @Bean
@@ -0,0 +1,146 @@
+package com.appsdeveloper.gateway.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.IllegalReferenceCountException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Response of a microservice kept in the {@link ResponseCache}.
+ * <p>
+ * The body is a reference counted buffer, released when the response is evicted: it is served with
+ * {@link #retainBody()}, which fails once the response is released.
+ * <p>
+ * All the times are given by {@link System#nanoTime()}.
+ */
+public class CachedResponse {
+
+    private final String path;
+
+    private final HttpHeaders headers;
+
+    private final ByteBuf body;
+
+    private final Map<String, List<String>> varyValues;
+
+    private volatile long storedAtNanos;
+
+    private volatile long freshUntilNanos;
+
+    private volatile long lastAccessNanos;
+
+    /**
+     * @param path the path of the request, before the gateway routing.
+     * @param headers the headers of the response, which must not be modified afterwards.
+     * @param body the body of the response.
+     * @param varyValues the values of the request headers listed by the {@code Vary} header of the response.
+     * @param ttlNanos the time during which the response can be served without revalidation.
+     * @param nowNanos the current time.
+     */
+    public CachedResponse(
+        String path,
+        HttpHeaders headers,
+        ByteBuf body,
+        Map<String, List<String>> varyValues,
+        long ttlNanos,
+        long nowNanos
+    ) {
+        this.path = path;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+        this.varyValues = varyValues;
+        this.storedAtNanos = nowNanos;
+        this.freshUntilNanos = nowNanos + ttlNanos;
+        this.lastAccessNanos = nowNanos;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    public String getETag() {
+        return headers.getETag();
+    }
+
+    public int getSize() {
+        return body.readableBytes();
+    }
+
+    public boolean isFresh(long nowNanos) {
+        return freshUntilNanos - nowNanos > 0;
+    }
+
+    /**
+     * @param nowNanos the current time.
+     * @return the value of the {@code Age} header, in seconds.
+     */
+    public long getAgeSeconds(long nowNanos) {
+        long upstreamAge = 0;
+        String age = headers.getFirst(HttpHeaders.AGE);
+        if (age != null) {
+            try {
+                upstreamAge = Long.parseLong(age.trim());
+            } catch (NumberFormatException e) {
+                // ignore an invalid header
+            }
+        }
+        return upstreamAge + Math.max(nowNanos - storedAtNanos, 0) / 1_000_000_000;
+    }
+
+    /**
+     * Check that the response can be served to a request, according to the {@code Vary} header of the response.
+     *
+     * @param requestHeaders the headers of the request.
+     * @return {@code true} if the request matches.
+     */
+    public boolean matches(HttpHeaders requestHeaders) {
+        for (Map.Entry<String, List<String>> vary : varyValues.entrySet()) {
+            if (!Objects.equals(vary.getValue(), requestHeaders.get(vary.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Make the response fresh again, once revalidated by the microservice.
+     *
+     * @param ttlNanos the time during which the response can be served without revalidation.
+     * @param nowNanos the current time.
+     */
+    public void refresh(long ttlNanos, long nowNanos) {
+        storedAtNanos = nowNanos;
+        freshUntilNanos = nowNanos + ttlNanos;
+    }
+
+    /**
+     * Get a view of the body, to be released once written.
+     *
+     * @return the view, or {@code null} if the response was evicted meanwhile.
+     */
+    public ByteBuf retainBody() {
+        try {
+            return body.retainedDuplicate();
+        } catch (IllegalReferenceCountException e) {
+            return null;
+        }
+    }
+
+    void touch(long nowNanos) {
+        lastAccessNanos = nowNanos;
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    void release() {
+        body.release();
+    }
+}
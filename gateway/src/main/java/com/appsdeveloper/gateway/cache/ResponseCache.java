@@ -0,0 +1,242 @@
+package com.appsdeveloper.gateway.cache;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Cache of the responses of the microservices, shared by all the users of the gateway, bounded by the size of the
+ * bodies.
+ * <p>
+ * The bodies are kept in pooled buffers, on the Java heap or in direct memory, and are served without being copied.
+ * Above the maximum size, the least recently used responses are evicted down to 90% of it.
+ */
+@Component
+public class ResponseCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "responses";
+
+    private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+
+    private final long maxBytes;
+
+    private final int maxEntryBytes;
+
+    private final boolean offHeap;
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder notModified = new LongAdder();
+
+    private final LongAdder modified = new LongAdder();
+
+    public ResponseCache(ApplicationProperties applicationProperties) {
+        this.maxBytes = applicationProperties.getResponseCache().getMaxBytes();
+        this.maxEntryBytes = applicationProperties.getResponseCache().getMaxEntryBytes();
+        this.offHeap = applicationProperties.getResponseCache().isOffHeap();
+    }
+
+    /**
+     * Get a response, fresh or not, matching the request.
+     *
+     * @param key the key of the request.
+     * @param requestHeaders the headers of the request, matched with the {@code Vary} header of the response.
+     * @param nowNanos the current time.
+     * @return the response, or {@code null} if it is not cached.
+     */
+    public CachedResponse get(String key, HttpHeaders requestHeaders, long nowNanos) {
+        CachedResponse response = entries.get(key);
+        if (response == null || !response.matches(requestHeaders)) {
+            misses.increment();
+            return null;
+        }
+        if (response.isFresh(nowNanos)) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        response.touch(nowNanos);
+        return response;
+    }
+
+    /**
+     * Store a response, replacing the previous one of the request.
+     *
+     * @param key the key of the request.
+     * @param response the response, released by the cache once evicted.
+     */
+    public void put(String key, CachedResponse response) {
+        CachedResponse previous = entries.put(key, response);
+        bytes.addAndGet(response.getSize());
+        if (previous != null) {
+            bytes.addAndGet(-previous.getSize());
+            previous.release();
+        }
+        if (bytes.get() > maxBytes) {
+            evict();
+        }
+    }
+
+    /**
+     * Remove the responses of the requests matching a path.
+     *
+     * @param pathPattern the pattern of the paths, before the gateway routing, or {@code null} for all the responses.
+     * @return the number of removed responses.
+     */
+    public int purge(String pathPattern) {
+        PathPattern pattern = pathPattern != null ? PathPatternParser.defaultInstance.parse(pathPattern) : null;
+        int purged = 0;
+        for (Map.Entry<String, CachedResponse> entry : entries.entrySet()) {
+            if (pattern == null || pattern.matches(PathContainer.parsePath(entry.getValue().getPath()))) {
+                if (remove(entry.getKey(), entry.getValue())) {
+                    purged++;
+                }
+            }
+        }
+        return purged;
+    }
+
+    /**
+     * Remove the responses of the requests to some paths, whatever their query strings.
+     *
+     * @param paths the raw paths, before the gateway routing.
+     * @return the number of removed responses.
+     */
+    public int invalidate(Collection<String> paths) {
+        int invalidated = 0;
+        for (Map.Entry<String, CachedResponse> entry : entries.entrySet()) {
+            if (paths.contains(entry.getValue().getPath()) && remove(entry.getKey(), entry.getValue())) {
+                invalidated++;
+            }
+        }
+        return invalidated;
+    }
+
+    /**
+     * Allocate a buffer for the body of a response.
+     *
+     * @param initialCapacity the expected size of the body.
+     * @return the buffer, to be released if it is not stored.
+     */
+    public ByteBuf allocate(int initialCapacity) {
+        int capacity = Math.min(initialCapacity, maxEntryBytes);
+        return offHeap ? PooledByteBufAllocator.DEFAULT.directBuffer(capacity) : PooledByteBufAllocator.DEFAULT.heapBuffer(capacity);
+    }
+
+    /**
+     * Record the revalidation of a stale response by the microservice.
+     *
+     * @param wasModified whether the microservice answered with a new response.
+     */
+    public void onRevalidated(boolean wasModified) {
+        (wasModified ? modified : notModified).increment();
+    }
+
+    public int getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    private boolean remove(String key, CachedResponse response) {
+        if (!entries.remove(key, response)) {
+            return false;
+        }
+        bytes.addAndGet(-response.getSize());
+        response.release();
+        return true;
+    }
+
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Map.Entry<String, CachedResponse>> lru = new ArrayList<>(entries.entrySet());
+            lru.sort(Comparator.comparingLong(entry -> entry.getValue().getLastAccessNanos()));
+            long target = maxBytes - maxBytes / 10;
+            for (Map.Entry<String, CachedResponse> entry : lru) {
+                if (bytes.get() <= target) {
+                    break;
+                }
+                if (remove(entry.getKey(), entry.getValue())) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter
+            .builder("cache.gets", hits, LongAdder::doubleValue)
+            .tags("cache", CACHE_NAME, "result", "hit")
+            .description("The number of times a fresh response was found in the cache")
+            .register(registry);
+        FunctionCounter
+            .builder("cache.gets", misses, LongAdder::doubleValue)
+            .tags("cache", CACHE_NAME, "result", "miss")
+            .description("The number of times a response was missing or stale, and was requested from the microservice")
+            .register(registry);
+        FunctionCounter
+            .builder("cache.evictions", evictions, LongAdder::doubleValue)
+            .tag("cache", CACHE_NAME)
+            .description("The number of responses evicted from the cache")
+            .register(registry);
+        FunctionCounter
+            .builder("cache.revalidations", notModified, LongAdder::doubleValue)
+            .tags("cache", CACHE_NAME, "result", "not-modified")
+            .description("The number of stale responses confirmed by the microservice")
+            .register(registry);
+        FunctionCounter
+            .builder("cache.revalidations", modified, LongAdder::doubleValue)
+            .tags("cache", CACHE_NAME, "result", "modified")
+            .description("The number of stale responses replaced by the microservice")
+            .register(registry);
+        Gauge
+            .builder("cache.size", entries, Map::size)
+            .tag("cache", CACHE_NAME)
+            .description("The number of responses in the cache")
+            .register(registry);
+        Gauge
+            .builder("cache.bytes", bytes, AtomicLong::doubleValue)
+            .tag("cache", CACHE_NAME)
+            .description("The size of the bodies of the responses in the cache")
+            .baseUnit("bytes")
+            .register(registry);
+    }
+}
@@ -0,0 +1,417 @@
+package com.appsdeveloper.gateway.cache;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import com.appsdeveloper.gateway.resilience.ResilienceFilter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serve the {@code GET} requests of the microservices from the {@link ResponseCache}, following the
+ * {@code Cache-Control}, {@code Vary} and {@code ETag} headers of their responses.
+ * <p>
+ * As the requests are authenticated, only the responses marked {@code public} or with a {@code s-maxage} are stored.
+ * The stale responses with an {@code ETag} are revalidated with a conditional request, and served again if the
+ * microservice answers with 304 (Not Modified).
+ * <p>
+ * The responses of a path and of its collection are invalidated by the {@code POST}, {@code PUT}, {@code PATCH} and
+ * {@code DELETE} requests to it which don't fail, as required by RFC 7234 (section 4.4).
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.response-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Run before the circuit breakers, so that the cached responses are still served when a microservice is down.
+     */
+    public static final int RESPONSE_CACHE_FILTER_ORDER = ResilienceFilter.RESILIENCE_FILTER_ORDER - 1;
+
+    private static final Set<HttpMethod> UNSAFE_METHODS = EnumSet.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    private static final Set<String> UNCACHED_HEADERS = Set.of(
+        HttpHeaders.CONNECTION.toLowerCase(Locale.ROOT),
+        HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT),
+        HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT),
+        HttpHeaders.AGE.toLowerCase(Locale.ROOT),
+        "keep-alive"
+    );
+
+    private final ResponseCache responseCache;
+
+    private final List<PathPattern> paths;
+
+    private final List<String> keyHeaders;
+
+    public ResponseCacheFilter(ApplicationProperties applicationProperties, ResponseCache responseCache) {
+        this.responseCache = responseCache;
+        this.paths =
+            applicationProperties
+                .getResponseCache()
+                .getPaths()
+                .stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .collect(Collectors.toList());
+        this.keyHeaders = applicationProperties.getResponseCache().getKeyHeaders();
+    }
+
+    @Override
+    public int getOrder() {
+        return RESPONSE_CACHE_FILTER_ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        String path = getOriginalPath(exchange);
+        if (route == null || !isCached(path)) {
+            return chain.filter(exchange);
+        }
+        if (UNSAFE_METHODS.contains(request.getMethod())) {
+            ServerHttpResponse response = exchange.getResponse();
+            // Invalidate before the response is sent, so that the client does not read its previous state afterwards
+            response.beforeCommit(() -> Mono.fromRunnable(() -> invalidate(response, path)));
+            return chain.filter(exchange);
+        }
+        if (request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        Map<String, String> requestDirectives = parseCacheControl(request.getHeaders().getCacheControl());
+        if (requestDirectives.containsKey("no-store")) {
+            return chain.filter(exchange);
+        }
+        String key = getKey(route, request);
+        long now = System.nanoTime();
+        CachedResponse cached = requestDirectives.containsKey("no-cache") ? null : responseCache.get(key, request.getHeaders(), now);
+        if (cached != null && cached.isFresh(now)) {
+            ByteBuf body = cached.retainBody();
+            if (body != null) {
+                return writeCached(exchange.getResponse(), request, cached, body, now);
+            }
+        }
+        ByteBuf staleBody = null;
+        if (
+            cached != null &&
+            cached.getETag() != null &&
+            request.getHeaders().getIfNoneMatch().isEmpty() &&
+            !request.getHeaders().containsKey(HttpHeaders.IF_MODIFIED_SINCE)
+        ) {
+            staleBody = cached.retainBody();
+        }
+        ServerWebExchange cachingExchange;
+        CachingResponse response;
+        if (staleBody != null) {
+            ServerHttpRequest conditionalRequest = request.mutate().headers(headers -> headers.setIfNoneMatch(cached.getETag())).build();
+            response = new CachingResponse(exchange.getResponse(), request.getHeaders(), key, path, cached, staleBody);
+            cachingExchange = exchange.mutate().request(conditionalRequest).response(response).build();
+        } else {
+            response = new CachingResponse(exchange.getResponse(), request.getHeaders(), key, path, null, null);
+            cachingExchange = exchange.mutate().response(response).build();
+        }
+        return chain.filter(cachingExchange).doFinally(signal -> response.releaseStaleBody());
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, ServerHttpRequest request, CachedResponse cached, ByteBuf body, long now) {
+        String eTag = cached.getETag();
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        if (eTag != null && (ifNoneMatch.contains(eTag) || ifNoneMatch.contains("*"))) {
+            body.release();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().setETag(eTag);
+            response.getHeaders().setCacheControl(cached.getHeaders().getCacheControl());
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().putAll(cached.getHeaders());
+        response.getHeaders().set(HttpHeaders.AGE, Long.toString(cached.getAgeSeconds(now)));
+        response.getHeaders().setContentLength(body.readableBytes());
+        return response.writeWith(Mono.just(wrap(response.bufferFactory(), body)));
+    }
+
+    private static DataBuffer wrap(DataBufferFactory bufferFactory, ByteBuf body) {
+        if (bufferFactory instanceof NettyDataBufferFactory) {
+            return ((NettyDataBufferFactory) bufferFactory).wrap(body);
+        }
+        try {
+            return bufferFactory.wrap(ByteBufUtil.getBytes(body));
+        } finally {
+            body.release();
+        }
+    }
+
+    private boolean isCached(String path) {
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        for (PathPattern pattern : paths) {
+            if (pattern.matches(pathContainer)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Invalidate the responses of the path of an unsafe request and of its collection, such as {@code /api/sessions}
+     * for {@code /api/sessions/1}, unless the request failed.
+     */
+    private void invalidate(ServerHttpResponse response, String path) {
+        HttpStatus status = response.getStatusCode();
+        if (status == null || status.isError()) {
+            return;
+        }
+        String trimmed = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        int lastSlash = trimmed.lastIndexOf('/');
+        responseCache.invalidate(lastSlash > 0 ? List.of(path, trimmed.substring(0, lastSlash)) : List.of(path));
+    }
+
+    private String getKey(Route route, ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(route.getId()).append(' ').append(request.getURI().getRawPath());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        for (String header : keyHeaders) {
+            key.append(' ').append(header).append('=').append(request.getHeaders().getOrEmpty(header));
+        }
+        return key.toString();
+    }
+
+    private static String getOriginalPath(ServerWebExchange exchange) {
+        Set<URI> originalUris = exchange.getAttribute(GATEWAY_ORIGINAL_REQUEST_URL_ATTR);
+        if (originalUris != null && !originalUris.isEmpty()) {
+            return originalUris.iterator().next().getRawPath();
+        }
+        return exchange.getRequest().getURI().getRawPath();
+    }
+
+    private static Map<String, String> parseCacheControl(String cacheControl) {
+        Map<String, String> directives = new HashMap<>();
+        if (cacheControl != null) {
+            for (String directive : cacheControl.split(",")) {
+                String[] nameAndValue = directive.trim().split("=", 2);
+                if (!nameAndValue[0].isEmpty()) {
+                    directives.put(
+                        nameAndValue[0].toLowerCase(Locale.ROOT),
+                        nameAndValue.length > 1 ? nameAndValue[1].replace("\"", "").trim() : ""
+                    );
+                }
+            }
+        }
+        return directives;
+    }
+
+    /**
+     * @param directives the {@code Cache-Control} directives of a response.
+     * @return the time during which the response can be served without revalidation.
+     */
+    private static long getTimeToLiveNanos(Map<String, String> directives) {
+        if (directives.containsKey("no-cache")) {
+            return 0;
+        }
+        String maxAge = directives.containsKey("s-maxage") ? directives.get("s-maxage") : directives.get("max-age");
+        if (maxAge == null) {
+            return 0;
+        }
+        try {
+            return TimeUnit.SECONDS.toNanos(Math.max(Long.parseLong(maxAge), 0));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static boolean isStorable(HttpHeaders headers, Map<String, String> directives) {
+        return (
+            !directives.containsKey("no-store") &&
+            !directives.containsKey("private") &&
+            (directives.containsKey("public") || directives.containsKey("s-maxage")) &&
+            !headers.getVary().contains("*") &&
+            !headers.containsKey(HttpHeaders.SET_COOKIE) &&
+            (getTimeToLiveNanos(directives) > 0 || headers.getETag() != null)
+        );
+    }
+
+    /**
+     * Response of a microservice, stored in the cache while it is written, or replaced by the cached response once
+     * revalidated.
+     */
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final HttpHeaders requestHeaders;
+
+        private final String key;
+
+        private final String path;
+
+        private final CachedResponse stale;
+
+        private final AtomicReference<ByteBuf> staleBody;
+
+        private CachingResponse(
+            ServerHttpResponse delegate,
+            HttpHeaders requestHeaders,
+            String key,
+            String path,
+            CachedResponse stale,
+            ByteBuf staleBody
+        ) {
+            super(delegate);
+            this.requestHeaders = requestHeaders;
+            this.key = key;
+            this.path = path;
+            this.stale = stale;
+            this.staleBody = new AtomicReference<>(staleBody);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            Map<String, String> directives = parseCacheControl(getHeaders().getCacheControl());
+            if (stale != null && getStatusCode() == HttpStatus.NOT_MODIFIED && staleBody.get() != null) {
+                return writeRevalidated(body, directives);
+            }
+            if (stale != null) {
+                responseCache.onRevalidated(true);
+            }
+            if (getStatusCode() != HttpStatus.OK || !isStorable(getHeaders(), directives)) {
+                return super.writeWith(body);
+            }
+            BodyCollector collector = new BodyCollector(
+                cachedHeaders(getHeaders()),
+                getHeaders().getContentLength(),
+                getTimeToLiveNanos(directives)
+            );
+            return super.writeWith(
+                Flux
+                    .from(body)
+                    .doOnNext(collector::collect)
+                    .doOnComplete(collector::store)
+                    .doOnError(e -> collector.abandon())
+                    .doOnCancel(collector::abandon)
+            );
+        }
+
+        private Mono<Void> writeRevalidated(Publisher<? extends DataBuffer> body, Map<String, String> directives) {
+            long now = System.nanoTime();
+            responseCache.onRevalidated(false);
+            stale.refresh(getTimeToLiveNanos(directives), now);
+            HttpHeaders revalidatedHeaders = new HttpHeaders();
+            for (String header : Arrays.asList(HttpHeaders.CACHE_CONTROL, HttpHeaders.EXPIRES, HttpHeaders.DATE)) {
+                if (getHeaders().containsKey(header)) {
+                    revalidatedHeaders.put(header, getHeaders().get(header));
+                }
+            }
+            // Keep the headers set by the other filters, such as the rate limit ones
+            getHeaders().putAll(stale.getHeaders());
+            getHeaders().putAll(revalidatedHeaders);
+            getHeaders().set(HttpHeaders.AGE, "0");
+            getHeaders().setContentLength(stale.getSize());
+            setStatusCode(HttpStatus.OK);
+            return Flux
+                .from(body)
+                .doOnNext(DataBufferUtils::release)
+                .then(Mono.defer(() -> super.writeWith(Mono.just(wrap(bufferFactory(), staleBody.getAndSet(null))))));
+        }
+
+        private HttpHeaders cachedHeaders(HttpHeaders headers) {
+            HttpHeaders cachedHeaders = new HttpHeaders();
+            headers.forEach(
+                (name, values) -> {
+                    if (!UNCACHED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                        cachedHeaders.put(name, values);
+                    }
+                }
+            );
+            return cachedHeaders;
+        }
+
+        private void releaseStaleBody() {
+            ByteBuf body = staleBody.getAndSet(null);
+            if (body != null) {
+                body.release();
+            }
+        }
+
+        /**
+         * Copy of the body of a response, abandoned above the maximum size of a cached response.
+         */
+        private final class BodyCollector {
+
+            private final HttpHeaders headers;
+
+            private final long timeToLiveNanos;
+
+            private ByteBuf body;
+
+            private BodyCollector(HttpHeaders headers, long contentLength, long timeToLiveNanos) {
+                this.headers = headers;
+                this.timeToLiveNanos = timeToLiveNanos;
+                if (contentLength <= responseCache.getMaxEntryBytes()) {
+                    this.body = responseCache.allocate(contentLength >= 0 ? (int) contentLength : 1024);
+                }
+            }
+
+            private synchronized void collect(DataBuffer buffer) {
+                if (body == null) {
+                    return;
+                }
+                if (body.readableBytes() + buffer.readableByteCount() > responseCache.getMaxEntryBytes()) {
+                    abandon();
+                    return;
+                }
+                body.writeBytes(buffer.asByteBuffer());
+            }
+
+            private synchronized void store() {
+                if (body == null) {
+                    return;
+                }
+                Map<String, List<String>> varyValues = new HashMap<>();
+                for (String header : headers.getVary()) {
+                    varyValues.put(header, requestHeaders.get(header));
+                }
+                responseCache.put(key, new CachedResponse(path, headers, body, varyValues, timeToLiveNanos, System.nanoTime()));
+                body = null;
+            }
+
+            private synchronized void abandon() {
+                if (body != null) {
+                    body.release();
+                    body = null;
+                }
+            }
+        }
+    }
+}
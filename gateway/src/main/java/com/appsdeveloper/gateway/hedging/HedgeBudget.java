@@ -0,0 +1,50 @@
+package com.appsdeveloper.gateway.hedging;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+/**
+ * Budget of the hedged requests, shared by all the routes, so that hedging doesn't double the load on the services
+ * when they all slow down.
+ * <p>
+ * Each request deposits a fraction of a token, a hedged request withdraws a whole token: over time, the hedged
+ * requests are at most the configured percentage of the requests, plus a small burst.
+ */
+@Component
+public class HedgeBudget {
+
+    private static final long TOKEN = 1000;
+
+    private final long deposit;
+
+    private final long maxBalance;
+
+    private final AtomicLong balance;
+
+    public HedgeBudget(ApplicationProperties applicationProperties) {
+        this.deposit = Math.round(applicationProperties.getHedging().getBudgetPercent() * TOKEN / 100);
+        this.maxBalance = applicationProperties.getHedging().getBudgetBurst() * TOKEN;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    public void deposit() {
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(current + amount, maxBalance));
+    }
+
+    /**
+     * Withdraw a token for a hedged request.
+     *
+     * @return {@code true} if the request can be hedged.
+     */
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+}
@@ -0,0 +1,519 @@
+package com.appsdeveloper.gateway.hedging;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+import com.appsdeveloper.gateway.loadbalancer.InstanceStats;
+import com.appsdeveloper.gateway.loadbalancer.LoadBalancerStats;
+import com.appsdeveloper.gateway.loadbalancer.LoadBalancerStatsFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.timeout.ReadTimeoutException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Hedge the GET and HEAD requests of a route: when the instance chosen by the load balancer has not answered after a
+ * percentile of the route latency, the request is also sent to another instance. The instance whose response headers
+ * arrive first wins: its body is streamed to the client, and the other request is cancelled.
+ * <p>
+ * The hedged requests are limited by the {@link HedgeBudget}. As both requests may be in flight at the same time, the
+ * filter routes the requests itself instead of the {@code NettyRoutingFilter}. The requests of a stream of events are
+ * not hedged, as they are not answered once but for as long as the stream is open.
+ * <p>
+ * The {@code response-timeout} metadata of the route bounds the wait for each response, as in the
+ * {@code NettyRoutingFilter}.
+ * <p>
+ * The filter records both requests in the {@link LoadBalancerStats} itself, up to their response headers, and the
+ * request cancelled once the other one answered is not recorded, as its latency is not known.
+ */
+@Component
+public class HedgeGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgeGatewayFilterFactory.Config> {
+
+    /**
+     * Responses measured before the percentile is used, the maximum delay is used until then.
+     */
+    private static final long MIN_SAMPLES = 20;
+
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final List<MediaType> STREAMING_MEDIA_TYPES = List.of(
+        MediaType.TEXT_EVENT_STREAM,
+        MediaType.APPLICATION_NDJSON
+    );
+
+    private final Logger log = LoggerFactory.getLogger(HedgeGatewayFilterFactory.class);
+
+    private final HttpClient httpClient;
+
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+
+    private final LoadBalancerClientFactory loadBalancerClientFactory;
+
+    private final LoadBalancerStats loadBalancerStats;
+
+    private final HedgeBudget hedgeBudget;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, RouteLatency> latencies = new ConcurrentHashMap<>();
+
+    public HedgeGatewayFilterFactory(
+        HttpClient httpClient,
+        ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+        LoadBalancerClientFactory loadBalancerClientFactory,
+        LoadBalancerStats loadBalancerStats,
+        HedgeBudget hedgeBudget,
+        MeterRegistry meterRegistry
+    ) {
+        super(Config.class);
+        this.httpClient = httpClient;
+        this.headersFiltersProvider = headersFiltersProvider;
+        this.loadBalancerClientFactory = loadBalancerClientFactory;
+        this.loadBalancerStats = loadBalancerStats;
+        this.hedgeBudget = hedgeBudget;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return Collections.singletonList("percentile");
+    }
+
+    /**
+     * The filter runs once the load balancer has chosen the first instance, before the {@link LoadBalancerStatsFilter}:
+     * the hedged exchanges are not routed further down the chain.
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (config.getPercentile() <= 0 || config.getPercentile() >= 1) {
+            throw new IllegalArgumentException("The hedging percentile must be between 0 and 1: " + config.getPercentile());
+        }
+        return new OrderedGatewayFilter(
+            (exchange, chain) -> filter(exchange, chain, config),
+            ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1
+        );
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        HttpMethod method = exchange.getRequest().getMethod();
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        Response<ServiceInstance> lbResponse = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (
+            (method != HttpMethod.GET && method != HttpMethod.HEAD) ||
+            route == null ||
+            requestUrl == null ||
+            lbResponse == null ||
+            !lbResponse.hasServer() ||
+            isAlreadyRouted(exchange) ||
+            isStreaming(exchange)
+        ) {
+            return chain.filter(exchange);
+        }
+        setAlreadyRouted(exchange);
+        hedgeBudget.deposit();
+
+        RouteLatency routeLatency = latencies.computeIfAbsent(route.getId(), routeId -> new RouteLatency(routeId, config));
+        DefaultHttpHeaders headers = requestHeaders(exchange);
+        ServiceInstance primaryInstance = lbResponse.getServer();
+        Duration responseTimeout = getResponseTimeout(route);
+        AtomicBoolean hedged = new AtomicBoolean();
+        AtomicBoolean answered = new AtomicBoolean();
+        long start = System.nanoTime();
+
+        HttpClient client = responseTimeout != null ? httpClient.responseTimeout(responseTimeout) : httpClient;
+
+        Mono<UpstreamResponse> primary = send(client, primaryInstance, method, requestUrl, headers, answered, false);
+        Mono<UpstreamResponse> hedge = Mono
+            .delay(routeLatency.getDelay())
+            .flatMap(tick -> hedge(client, route.getId(), method, requestUrl, headers, primaryInstance, hedged, answered))
+            // a failed hedged request must not fail the request, the primary request is still running
+            .onErrorResume(e -> Mono.never());
+
+        return Mono
+            .firstWithSignal(primary, hedge)
+            .doOnNext(
+                response -> {
+                    routeLatency.record(System.nanoTime() - start);
+                    if (hedged.get()) {
+                        hedgeCounter(route.getId(), response.isHedged() ? "won" : "lost").increment();
+                    }
+                }
+            )
+            .onErrorMap(
+                ReadTimeoutException.class,
+                e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Response took longer than timeout: " + responseTimeout, e)
+            )
+            .flatMap(response -> write(exchange, response));
+    }
+
+    private static Duration getResponseTimeout(Route route) {
+        Object responseTimeout = route.getMetadata().get(RESPONSE_TIMEOUT_ATTR);
+        if (responseTimeout == null) {
+            return null;
+        }
+        long millis = responseTimeout instanceof Number
+            ? ((Number) responseTimeout).longValue()
+            : Long.parseLong(responseTimeout.toString());
+        return Duration.ofMillis(millis);
+    }
+
+    private static boolean isStreaming(ServerWebExchange exchange) {
+        for (MediaType accept : exchange.getRequest().getHeaders().getAccept()) {
+            for (MediaType streamingMediaType : STREAMING_MEDIA_TYPES) {
+                if (streamingMediaType.equalsTypeAndSubtype(accept)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Mono<UpstreamResponse> hedge(
+        HttpClient client,
+        String routeId,
+        HttpMethod method,
+        URI requestUrl,
+        DefaultHttpHeaders headers,
+        ServiceInstance primaryInstance,
+        AtomicBoolean hedged,
+        AtomicBoolean answered
+    ) {
+        ServiceInstanceListSupplier supplier = loadBalancerClientFactory
+            .getLazyProvider(primaryInstance.getServiceId(), ServiceInstanceListSupplier.class)
+            .getIfAvailable();
+        if (supplier == null) {
+            return Mono.never();
+        }
+        return supplier
+            .get()
+            .next()
+            .flatMap(
+                instances -> {
+                    ServiceInstance instance = chooseOtherInstance(instances, primaryInstance);
+                    if (instance == null) {
+                        skippedCounter(routeId, "no-instance").increment();
+                        return Mono.never();
+                    }
+                    if (!hedgeBudget.tryWithdraw()) {
+                        skippedCounter(routeId, "budget").increment();
+                        return Mono.never();
+                    }
+                    log.debug("Hedging {} {} to instance {}", method, requestUrl, instance.getUri());
+                    hedged.set(true);
+                    URI url = LoadBalancerUriTools.reconstructURI(instance, requestUrl);
+                    return send(client, instance, method, url, headers, answered, true);
+                }
+            );
+    }
+
+    /**
+     * Choose the instance with the best score among the instances which are not ejected, except the primary instance.
+     */
+    private ServiceInstance chooseOtherInstance(List<ServiceInstance> instances, ServiceInstance primaryInstance) {
+        long now = System.nanoTime();
+        ServiceInstance best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (ServiceInstance instance : instances) {
+            if (isSameInstance(instance, primaryInstance)) {
+                continue;
+            }
+            InstanceStats stats = loadBalancerStats.getStats(instance);
+            if (stats.isEjected(now)) {
+                continue;
+            }
+            double score = stats.getScore(now);
+            if (best == null || score < bestScore) {
+                best = instance;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private static boolean isSameInstance(ServiceInstance instance, ServiceInstance other) {
+        if (instance.getInstanceId() != null) {
+            return instance.getInstanceId().equals(other.getInstanceId());
+        }
+        return instance.getHost().equals(other.getHost()) && instance.getPort() == other.getPort();
+    }
+
+    /**
+     * Same headers as the ones sent by the {@code NettyRoutingFilter}.
+     */
+    private DefaultHttpHeaders requestHeaders(ServerWebExchange exchange) {
+        HttpHeaders filtered = HttpHeadersFilter.filterRequest(headersFiltersProvider.getIfAvailable(), exchange);
+        DefaultHttpHeaders headers = new DefaultHttpHeaders();
+        filtered.forEach(headers::set);
+        headers.remove(HttpHeaders.HOST);
+        if (exchange.getAttributeOrDefault(PRESERVE_HOST_HEADER_ATTRIBUTE, false)) {
+            headers.add(HttpHeaders.HOST, exchange.getRequest().getHeaders().getFirst(HttpHeaders.HOST));
+        }
+        return headers;
+    }
+
+    /**
+     * Send a request to an instance, and emit its response once its headers arrived, unless the other request already
+     * answered: the connection is then closed, and nothing is emitted until the request is cancelled.
+     */
+    private Mono<UpstreamResponse> send(
+        HttpClient client,
+        ServiceInstance instance,
+        HttpMethod method,
+        URI url,
+        DefaultHttpHeaders headers,
+        AtomicBoolean answered,
+        boolean hedged
+    ) {
+        AtomicInteger statusCode = new AtomicInteger();
+        Mono<UpstreamResponse> request = client
+            .headers(httpHeaders -> httpHeaders.set(headers))
+            .request(io.netty.handler.codec.http.HttpMethod.valueOf(method.name()))
+            .uri(url)
+            .responseConnection(
+                (response, connection) -> {
+                    if (!answered.compareAndSet(false, true)) {
+                        connection.dispose();
+                        return Mono.never();
+                    }
+                    statusCode.set(response.status().code());
+                    HttpHeaders responseHeaders = new HttpHeaders();
+                    response.responseHeaders().forEach(header -> responseHeaders.add(header.getKey(), header.getValue()));
+                    return Mono.just(new UpstreamResponse(statusCode.get(), responseHeaders, connection, hedged));
+                }
+            )
+            .next();
+        return loadBalancerStats.record(instance, request, () -> statusCode.get() >= 500);
+    }
+
+    /**
+     * Same response as the one written by the {@code NettyRoutingFilter} and the {@code NettyWriteResponseFilter}.
+     */
+    private Mono<Void> write(ServerWebExchange exchange, UpstreamResponse upstreamResponse) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setRawStatusCode(upstreamResponse.getStatusCode());
+        HttpHeaders headers = HttpHeadersFilter.filter(
+            headersFiltersProvider.getIfAvailable(),
+            upstreamResponse.getHeaders(),
+            exchange,
+            HttpHeadersFilter.Type.RESPONSE
+        );
+        if (!headers.containsKey(HttpHeaders.TRANSFER_ENCODING) && headers.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+            response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        }
+        response.getHeaders().putAll(headers);
+        Connection connection = upstreamResponse.getConnection();
+        return response
+            .writeWith(connection.inbound().receive().retain().map(byteBuf -> wrap(byteBuf, response)))
+            .doOnError(e -> connection.dispose())
+            .doOnCancel(connection::dispose);
+    }
+
+    private static DataBuffer wrap(ByteBuf byteBuf, ServerHttpResponse response) {
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        if (bufferFactory instanceof NettyDataBufferFactory) {
+            return ((NettyDataBufferFactory) bufferFactory).wrap(byteBuf);
+        }
+        // the mock responses of the tests are not backed by Netty
+        if (bufferFactory instanceof DefaultDataBufferFactory) {
+            DataBuffer buffer = ((DefaultDataBufferFactory) bufferFactory).allocateBuffer(byteBuf.readableBytes());
+            buffer.write(byteBuf.nioBuffer());
+            byteBuf.release();
+            return buffer;
+        }
+        throw new IllegalArgumentException("Unknown DataBufferFactory type " + bufferFactory.getClass());
+    }
+
+    private Counter hedgeCounter(String routeId, String result) {
+        return Counter
+            .builder("gateway.hedging.requests")
+            .tags("route", routeId, "result", result)
+            .description("The number of hedged requests, by whether they answered first")
+            .register(meterRegistry);
+    }
+
+    private Counter skippedCounter(String routeId, String reason) {
+        return Counter
+            .builder("gateway.hedging.skipped")
+            .tags("route", routeId, "reason", reason)
+            .description("The number of requests which could not be hedged")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Latency of a route, from which the hedging delay is computed.
+     */
+    private class RouteLatency {
+
+        private final Timer timer;
+
+        private final Config config;
+
+        private volatile Duration delay;
+
+        private volatile long nextRefreshNanos;
+
+        private RouteLatency(String routeId, Config config) {
+            this.config = config;
+            this.timer =
+                Timer
+                    .builder("gateway.hedging.latency")
+                    .tag("route", routeId)
+                    .publishPercentiles(config.getPercentile())
+                    .description("The latency of the hedged routes")
+                    .register(meterRegistry);
+            this.delay = config.getMaxDelay();
+            this.nextRefreshNanos = System.nanoTime() + DELAY_REFRESH_NANOS;
+        }
+
+        private void record(long latencyNanos) {
+            timer.record(latencyNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * The percentile is only computed once per second, as it needs a snapshot of the histogram.
+         */
+        private Duration getDelay() {
+            long now = System.nanoTime();
+            if (now - nextRefreshNanos >= 0) {
+                nextRefreshNanos = now + DELAY_REFRESH_NANOS;
+                delay = computeDelay();
+            }
+            return delay;
+        }
+
+        private Duration computeDelay() {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            ValueAtPercentile[] percentiles = snapshot.percentileValues();
+            if (snapshot.count() < MIN_SAMPLES || percentiles.length == 0) {
+                return config.getMaxDelay();
+            }
+            Duration percentile = Duration.ofNanos((long) percentiles[0].value(TimeUnit.NANOSECONDS));
+            if (percentile.compareTo(config.getMinDelay()) < 0) {
+                return config.getMinDelay();
+            }
+            if (percentile.compareTo(config.getMaxDelay()) > 0) {
+                return config.getMaxDelay();
+            }
+            return percentile;
+        }
+    }
+
+    private static class UpstreamResponse {
+
+        private final int statusCode;
+
+        private final HttpHeaders headers;
+
+        private final Connection connection;
+
+        private final boolean hedged;
+
+        /**
+         * @param connection the connection the body is read from.
+         */
+        private UpstreamResponse(int statusCode, HttpHeaders headers, Connection connection, boolean hedged) {
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.connection = connection;
+            this.hedged = hedged;
+        }
+
+        int getStatusCode() {
+            return statusCode;
+        }
+
+        HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        Connection getConnection() {
+            return connection;
+        }
+
+        boolean isHedged() {
+            return hedged;
+        }
+    }
+
+    public static class Config {
+
+        private double percentile = 0.95;
+
+        private Duration minDelay = Duration.ofMillis(10);
+
+        private Duration maxDelay = Duration.ofMillis(500);
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.appsdeveloper.gateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency and error statistics of a service instance.
+ * <p>
+ * The latency is tracked as a peak EWMA: a slower response is taken at once, while the average decays as time passes.
+ * The average of an idle instance decays as well, so that an instance which was slow once is tried again later on.
+ * <p>
+ * The errors are counted over a fixed window, and an instance failing too many requests is ejected for a while.
+ * <p>
+ * All the times are given by {@link System#nanoTime()}.
+ */
+public class InstanceStats {
+
+    /**
+     * Score of an instance with requests in flight but no latency measured yet, so that it gets no more requests
+     * until its first response.
+     */
+    private static final double PENALTY = Long.MAX_VALUE >> 16;
+
+    private final long decayNanos;
+
+    private final double errorRateThreshold;
+
+    private final int minimumRequests;
+
+    private final long errorWindowNanos;
+
+    private final long ejectionNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double cost;
+
+    private volatile long lastSampleNanos;
+
+    private long windowStartNanos;
+
+    private int windowRequests;
+
+    private int windowFailures;
+
+    private volatile boolean ejected;
+
+    private volatile long ejectedUntilNanos;
+
+    public InstanceStats(long decayNanos, double errorRateThreshold, int minimumRequests, long errorWindowNanos, long ejectionNanos) {
+        this.decayNanos = decayNanos;
+        this.errorRateThreshold = errorRateThreshold;
+        this.minimumRequests = minimumRequests;
+        this.errorWindowNanos = errorWindowNanos;
+        this.ejectionNanos = ejectionNanos;
+    }
+
+    public void start() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Forget a request started with {@link #start()} which was cancelled: its latency is not known.
+     */
+    public void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Record the outcome of a request started with {@link #start()}.
+     *
+     * @param latencyNanos the time taken by the request.
+     * @param failure whether the request failed.
+     * @param nowNanos the current time.
+     * @return {@code true} if the instance has just been ejected.
+     */
+    public synchronized boolean complete(long latencyNanos, boolean failure, long nowNanos) {
+        inFlight.decrementAndGet();
+        double weight = weight(nowNanos);
+        double decayedCost = cost * weight;
+        cost = latencyNanos > decayedCost ? latencyNanos : decayedCost + latencyNanos * (1 - weight);
+        lastSampleNanos = nowNanos;
+
+        if (windowRequests == 0 || nowNanos - windowStartNanos >= errorWindowNanos) {
+            windowStartNanos = nowNanos;
+            windowRequests = 0;
+            windowFailures = 0;
+        }
+        windowRequests++;
+        if (failure) {
+            windowFailures++;
+        }
+        if (windowRequests >= minimumRequests && windowFailures >= windowRequests * errorRateThreshold && !isEjected(nowNanos)) {
+            ejectedUntilNanos = nowNanos + ejectionNanos;
+            ejected = true;
+            windowRequests = 0;
+            windowFailures = 0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the score of the instance, the lowest score being the best: the expected latency, times the number of
+     * requests which would be waiting on the instance.
+     *
+     * @param nowNanos the current time.
+     * @return the score.
+     */
+    public double getScore(long nowNanos) {
+        int pending = inFlight.get();
+        double currentCost = currentCost(pending, nowNanos);
+        if (currentCost == 0 && pending != 0) {
+            return PENALTY + pending;
+        }
+        return currentCost * (pending + 1);
+    }
+
+    public boolean isEjected(long nowNanos) {
+        return ejected && nowNanos - ejectedUntilNanos < 0;
+    }
+
+    public double getLatencyMillis(long nowNanos) {
+        return currentCost(inFlight.get(), nowNanos) / 1_000_000;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * The average only decays while the instance is idle: an instance which stopped answering must not look faster.
+     */
+    private double currentCost(int pending, long nowNanos) {
+        return pending == 0 ? cost * weight(nowNanos) : cost;
+    }
+
+    private double weight(long nowNanos) {
+        return Math.exp(-(double) Math.max(nowNanos - lastSampleNanos, 0) / decayNanos);
+    }
+}
@@ -0,0 +1,96 @@
+package com.appsdeveloper.gateway.loadbalancer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * Load balancer picking the instances by latency, with the power of two choices: two instances are drawn at random,
+ * and the one with the lowest {@link InstanceStats#getScore(long) score} is chosen.
+ * <p>
+ * Ejected instances are skipped, unless all the instances are ejected.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final Logger log = LoggerFactory.getLogger(LatencyAwareLoadBalancer.class);
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+
+    private final String serviceId;
+
+    private final LoadBalancerStats loadBalancerStats;
+
+    public LatencyAwareLoadBalancer(
+        ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+        String serviceId,
+        LoadBalancerStats loadBalancerStats
+    ) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.loadBalancerStats = loadBalancerStats;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier
+            .get(request)
+            .next()
+            .map(
+                instances -> {
+                    Response<ServiceInstance> response = choose(instances);
+                    if (response.hasServer() && supplier instanceof SelectedInstanceCallback) {
+                        ((SelectedInstanceCallback) supplier).selectedServiceInstance(response.getServer());
+                    }
+                    return response;
+                }
+            );
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        loadBalancerStats.retainInstances(serviceId, instances);
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        long now = System.nanoTime();
+        List<ServiceInstance> available = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!loadBalancerStats.getStats(instance).isEjected(now)) {
+                available.add(instance);
+            }
+        }
+        if (available.isEmpty()) {
+            // better send requests to failing instances than failing them all in the gateway
+            available = instances;
+        }
+        if (available.size() == 1) {
+            return new DefaultResponse(available.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(available.size());
+        int second = random.nextInt(available.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance firstInstance = available.get(first);
+        ServiceInstance secondInstance = available.get(second);
+        double firstScore = loadBalancerStats.getStats(firstInstance).getScore(now);
+        double secondScore = loadBalancerStats.getStats(secondInstance).getScore(now);
+        return new DefaultResponse(secondScore < firstScore ? secondInstance : firstInstance);
+    }
+}
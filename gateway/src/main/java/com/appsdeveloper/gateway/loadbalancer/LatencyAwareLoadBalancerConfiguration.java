@@ -0,0 +1,31 @@
+package com.appsdeveloper.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuration of the load balancer of each service, registered in the child context Spring Cloud LoadBalancer
+ * creates per service.
+ * <p>
+ * It is not a {@code @Configuration}, so it is not picked by the component scan of the application context.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+        Environment environment,
+        LoadBalancerClientFactory loadBalancerClientFactory,
+        LoadBalancerStats loadBalancerStats
+    ) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LatencyAwareLoadBalancer(
+            loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+            serviceId,
+            loadBalancerStats
+        );
+    }
+}
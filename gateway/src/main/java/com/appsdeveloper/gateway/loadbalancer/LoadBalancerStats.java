@@ -0,0 +1,188 @@
+package com.appsdeveloper.gateway.loadbalancer;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.search.Search;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Statistics of the service instances, fed by the requests routed through the load balancer.
+ * <p>
+ * The score, latency, in-flight requests and ejection of each instance are published as
+ * {@code gateway.loadbalancer.instance.*} gauges, tagged by service and instance. They are removed with the statistics
+ * once the instance is no longer registered.
+ */
+@Component
+public class LoadBalancerStats {
+
+    private static final String METER_PREFIX = "gateway.loadbalancer.";
+
+    private final Logger log = LoggerFactory.getLogger(LoadBalancerStats.class);
+
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    private final Map<String, List<ServiceInstance>> registeredInstances = new ConcurrentHashMap<>();
+
+    private final ApplicationProperties.LoadBalancer properties;
+
+    private final MeterRegistry meterRegistry;
+
+    public LoadBalancerStats(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.properties = applicationProperties.getLoadBalancer();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Get the statistics of an instance, which are created on its first request.
+     *
+     * @param instance the service instance.
+     * @return the statistics of the instance.
+     */
+    public InstanceStats getStats(ServiceInstance instance) {
+        String serviceId = instance.getServiceId();
+        String instanceId = instanceId(instance);
+        return stats.computeIfAbsent(key(serviceId, instanceId), key -> createStats(serviceId, instanceId));
+    }
+
+    private InstanceStats createStats(String serviceId, String instanceId) {
+        InstanceStats instanceStats = new InstanceStats(
+            TimeUnit.MILLISECONDS.toNanos(properties.getDecayMillis()),
+            properties.getErrorRateThreshold(),
+            properties.getMinimumRequests(),
+            TimeUnit.MILLISECONDS.toNanos(properties.getErrorWindowMillis()),
+            TimeUnit.MILLISECONDS.toNanos(properties.getEjectionMillis())
+        );
+        Tags tags = Tags.of("service", serviceId, "instance", instanceId);
+        Gauge
+            .builder(METER_PREFIX + "instance.score", instanceStats, s -> s.getScore(System.nanoTime()))
+            .tags(tags)
+            .description("The score of the instance, the instance with the lowest score is preferred")
+            .register(meterRegistry);
+        Gauge
+            .builder(METER_PREFIX + "instance.latency", instanceStats, s -> s.getLatencyMillis(System.nanoTime()))
+            .tags(tags)
+            .baseUnit("milliseconds")
+            .description("The peak EWMA of the instance response time")
+            .register(meterRegistry);
+        Gauge
+            .builder(METER_PREFIX + "instance.in.flight", instanceStats, InstanceStats::getInFlight)
+            .tags(tags)
+            .description("The number of requests in flight to the instance")
+            .register(meterRegistry);
+        Gauge
+            .builder(METER_PREFIX + "instance.ejected", instanceStats, s -> s.isEjected(System.nanoTime()) ? 1 : 0)
+            .tags(tags)
+            .description("Whether the instance is ejected because of its errors")
+            .register(meterRegistry);
+        return instanceStats;
+    }
+
+    /**
+     * Record the statistics of a request sent to an instance, once subscribed. A cancelled request, given up by the
+     * client, a timeout or a hedged request, is only removed from the requests in flight: its latency is not known.
+     *
+     * @param instance the service instance.
+     * @param request the request.
+     * @param serverError whether the completed request failed on the instance.
+     * @return the request, recorded when it terminates or is cancelled.
+     */
+    public <T> Mono<T> record(ServiceInstance instance, Mono<T> request, BooleanSupplier serverError) {
+        return Mono.defer(
+            () -> {
+                InstanceStats instanceStats = getStats(instance);
+                long startTime = System.nanoTime();
+                instanceStats.start();
+                // recorded before the signal is propagated, so that the statistics are up to date once the caller sees it
+                AtomicBoolean done = new AtomicBoolean();
+                return request
+                    .doOnEach(
+                        signal -> {
+                            if ((signal.isOnComplete() || signal.isOnError()) && done.compareAndSet(false, true)) {
+                                complete(instance, instanceStats, startTime, signal.isOnError() || serverError.getAsBoolean());
+                            }
+                        }
+                    )
+                    .doOnCancel(
+                        () -> {
+                            if (done.compareAndSet(false, true)) {
+                                instanceStats.cancel();
+                            }
+                        }
+                    );
+            }
+        );
+    }
+
+    /**
+     * Remove the statistics, and their gauges, of the instances of a service which are no longer registered.
+     *
+     * @param serviceId the service.
+     * @param instances the registered instances of the service.
+     */
+    public void retainInstances(String serviceId, List<ServiceInstance> instances) {
+        // the instances are usually cached by the supplier, so they are only compared when they were refreshed
+        if (registeredInstances.put(serviceId, instances) == instances) {
+            return;
+        }
+        Set<String> registered = new HashSet<>();
+        for (ServiceInstance instance : instances) {
+            registered.add(key(instance.getServiceId(), instanceId(instance)));
+        }
+        for (String key : stats.keySet()) {
+            int separator = key.indexOf('/');
+            String statsServiceId = key.substring(0, separator);
+            if (statsServiceId.equalsIgnoreCase(serviceId) && !registered.contains(key) && stats.remove(key) != null) {
+                String instanceId = key.substring(separator + 1);
+                log.debug("Removing the statistics of instance {} of service {}, which is no longer registered", instanceId, serviceId);
+                Search
+                    .in(meterRegistry)
+                    .tags("service", statsServiceId, "instance", instanceId)
+                    .meters()
+                    .stream()
+                    .filter(meter -> meter.getId().getName().startsWith(METER_PREFIX))
+                    .forEach(meterRegistry::remove);
+            }
+        }
+    }
+
+    private void complete(ServiceInstance instance, InstanceStats instanceStats, long startTime, boolean failure) {
+        long now = System.nanoTime();
+        if (instanceStats.complete(now - startTime, failure, now)) {
+            log.warn(
+                "Ejecting instance {} of service {} for {} ms, too many requests failed",
+                instanceId(instance),
+                instance.getServiceId(),
+                properties.getEjectionMillis()
+            );
+            Counter
+                .builder(METER_PREFIX + "ejections")
+                .tags("service", instance.getServiceId(), "instance", instanceId(instance))
+                .description("The number of times an instance was ejected because of its errors")
+                .register(meterRegistry)
+                .increment();
+        }
+    }
+
+    private static String key(String serviceId, String instanceId) {
+        return serviceId + "/" + instanceId;
+    }
+
+    private static String instanceId(ServiceInstance instance) {
+        return instance.getInstanceId() != null ? instance.getInstanceId() : instance.getHost() + ":" + instance.getPort();
+    }
+}
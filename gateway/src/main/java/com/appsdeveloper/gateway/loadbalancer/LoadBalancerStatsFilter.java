@@ -0,0 +1,56 @@
+package com.appsdeveloper.gateway.loadbalancer;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Feed the {@link LoadBalancerStats} with the requests routed to the instance chosen by the load balancer.
+ * <p>
+ * The load balancer lifecycle is not used, as it is not notified of the cancelled requests: they would stay in flight
+ * forever.
+ */
+@Component
+public class LoadBalancerStatsFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Run once the load balancer has chosen the instance, after the {@code Hedge} filters which record their requests
+     * themselves. The routing filters complete when the response headers are received, so the latency does not include
+     * the transfer of the body.
+     */
+    public static final int LOAD_BALANCER_STATS_FILTER_ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 2;
+
+    private final LoadBalancerStats loadBalancerStats;
+
+    public LoadBalancerStatsFilter(LoadBalancerStats loadBalancerStats) {
+        this.loadBalancerStats = loadBalancerStats;
+    }
+
+    @Override
+    public int getOrder() {
+        return LOAD_BALANCER_STATS_FILTER_ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> lbResponse = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return chain.filter(exchange);
+        }
+        return loadBalancerStats.record(lbResponse.getServer(), chain.filter(exchange), () -> isServerError(exchange));
+    }
+
+    private static boolean isServerError(ServerWebExchange exchange) {
+        HttpStatus status = exchange.getResponse().getStatusCode();
+        return status != null && status.is5xxServerError();
+    }
+}
@@ -0,0 +1,207 @@
+package com.appsdeveloper.gateway.ratelimit;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Positive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rate limiter keeping its {@link TokenBucket token buckets} in memory, for the gateway routes with a
+ * {@code RequestRateLimiter} filter, and for the policies of the requests served by the gateway.
+ * <p>
+ * A route sets its limit with the {@code local-rate-limiter.burst} and {@code local-rate-limiter.refill-per-second}
+ * args of the filter. The buckets are shared with the other gateway instances when there is a
+ * {@link RateLimitSynchronizer}.
+ */
+@Component
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+
+    private final Logger log = LoggerFactory.getLogger(LocalRateLimiter.class);
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final Config defaultConfig;
+
+    private final ObjectProvider<RateLimitSynchronizer> synchronizerProvider;
+
+    private final MeterRegistry meterRegistry;
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final AtomicBoolean synchronizing = new AtomicBoolean();
+
+    public LocalRateLimiter(
+        ApplicationProperties applicationProperties,
+        ConfigurationService configurationService,
+        ObjectProvider<RateLimitSynchronizer> synchronizerProvider,
+        MeterRegistry meterRegistry
+    ) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        ApplicationProperties.RateLimit properties = applicationProperties.getRateLimit();
+        this.defaultConfig = new Config(properties.getBurst(), properties.getRefillPerSecond());
+        this.synchronizerProvider = synchronizerProvider;
+        this.meterRegistry = meterRegistry;
+        properties.getPolicies().forEach((name, policy) -> getConfig().put(name, new Config(policy.getBurst(), policy.getRefillPerSecond())));
+
+        Gauge
+            .builder("gateway.ratelimit.buckets", buckets, Map::size)
+            .description("The number of rate limit buckets in memory")
+            .register(meterRegistry);
+        FunctionCounter
+            .builder("gateway.ratelimit.evictions", evictions, LongAdder::doubleValue)
+            .description("The number of idle rate limit buckets evicted")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Take a token from the bucket of a key.
+     *
+     * @param routeId the id of the route, or the name of the policy.
+     * @param id the key of the request.
+     * @return the response, with the rate limit headers.
+     */
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.computeIfAbsent(
+            routeId + "|" + id,
+            key -> new TokenBucket(config.getBurst(), config.getRefillPerSecond(), now)
+        );
+        long waitNanos = bucket.tryConsume(now);
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put(REMAINING_HEADER, String.valueOf(bucket.getRemaining(now)));
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(config.getBurst()));
+        if (waitNanos > 0) {
+            headers.put(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max((long) Math.ceil(waitNanos / 1e9), 1)));
+        }
+        Counter
+            .builder("gateway.ratelimit.requests")
+            .tags("limit", routeId, "result", waitNanos > 0 ? "throttled" : "allowed")
+            .description("The number of requests checked by the rate limiter")
+            .register(meterRegistry)
+            .increment();
+        return Mono.just(new Response(waitNanos == 0, headers));
+    }
+
+    /**
+     * Share the buckets with the other gateway instances, and evict the idle ones.
+     */
+    @Scheduled(fixedDelayString = "${application.rate-limit.sweep-millis:1000}")
+    public void sweep() {
+        RateLimitSynchronizer synchronizer = synchronizerProvider.getIfAvailable();
+        if (synchronizer != null) {
+            synchronize(synchronizer);
+        }
+        evictIdleBuckets(System.nanoTime());
+    }
+
+    private void synchronize(RateLimitSynchronizer synchronizer) {
+        if (!synchronizing.compareAndSet(false, true)) {
+            log.debug("Rate limit buckets are still being synchronized, skipping this run");
+            return;
+        }
+        Map<String, Long> localCounts = new HashMap<>();
+        buckets.forEach(
+            (key, bucket) -> {
+                long count = bucket.drainUnsynchronized();
+                if (count > 0) {
+                    localCounts.put(key, count);
+                }
+            }
+        );
+        synchronizer
+            .synchronize(localCounts)
+            .doFinally(signal -> synchronizing.set(false))
+            .subscribe(
+                remoteCounts -> {
+                    long now = System.nanoTime();
+                    remoteCounts.forEach(
+                        (key, count) -> {
+                            TokenBucket bucket = buckets.get(key);
+                            if (bucket != null) {
+                                bucket.consume(count, now);
+                            }
+                        }
+                    );
+                },
+                e -> log.warn("Could not synchronize the rate limit buckets: {}", e.getMessage())
+            );
+    }
+
+    private void evictIdleBuckets(long now) {
+        buckets
+            .values()
+            .removeIf(
+                bucket -> {
+                    boolean idle = bucket.isIdle(now);
+                    if (idle) {
+                        evictions.increment();
+                    }
+                    return idle;
+                }
+            );
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    @Validated
+    public static class Config {
+
+        @Min(1)
+        private int burst;
+
+        @Positive
+        private double refillPerSecond;
+
+        public Config() {}
+
+        public Config(int burst, double refillPerSecond) {
+            this.burst = burst;
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.appsdeveloper.gateway.ratelimit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Resolve the key of the rate limit bucket of a request.
+ * <p>
+ * The client IP is the remote address of the request, unless it is a trusted proxy: it is then the right-most address
+ * of the {@code X-Forwarded-For} header which is not a trusted proxy. The addresses before it were sent by the client,
+ * which could otherwise get a new bucket for each request.
+ */
+public class RateLimitKeyResolver implements KeyResolver {
+
+    public enum Type {
+        /**
+         * The subject of the JWT, or the client IP for anonymous requests.
+         */
+        USER,
+        /**
+         * The client IP.
+         */
+        IP,
+        /**
+         * The route, or the path for the requests served by the gateway: all the clients share a bucket.
+         */
+        ROUTE,
+    }
+
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    /**
+     * The addresses which {@link InetAddress#getByName(String)} parses without a DNS lookup.
+     */
+    private static final Pattern IP_LITERAL = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}|[0-9a-fA-F:][0-9a-fA-F.]*:[0-9a-fA-F:.]*");
+
+    private final Type type;
+
+    private final List<IpRange> trustedProxies;
+
+    /**
+     * @param type the type of key.
+     * @param trustedProxies the addresses or CIDR ranges of the trusted proxies.
+     */
+    public RateLimitKeyResolver(Type type, List<String> trustedProxies) {
+        this.type = type;
+        this.trustedProxies = trustedProxies.stream().map(IpRange::parse).collect(Collectors.toList());
+    }
+
+    /**
+     * @param type the name of the type, in any case.
+     * @param trustedProxies the addresses or CIDR ranges of the trusted proxies.
+     * @return the resolver.
+     */
+    public static RateLimitKeyResolver of(String type, List<String> trustedProxies) {
+        return new RateLimitKeyResolver(Type.valueOf(type.toUpperCase(Locale.ROOT)), trustedProxies);
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        switch (type) {
+            case USER:
+                return exchange.getPrincipal().map(Principal::getName).map(name -> "user:" + name).defaultIfEmpty(ip(exchange));
+            case IP:
+                return Mono.just(ip(exchange));
+            default:
+                Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+                return Mono.just("route:" + (route != null ? route.getId() : exchange.getRequest().getPath().value()));
+        }
+    }
+
+    private String ip(ServerWebExchange exchange) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return "ip:" + (remoteAddress != null ? remoteAddress.getHostString() : "unknown");
+        }
+        InetAddress client = remoteAddress.getAddress();
+        List<String> forwardedFor = forwardedFor(exchange);
+        for (int i = forwardedFor.size() - 1; i >= 0 && isTrustedProxy(client); i--) {
+            InetAddress hop = parseIp(forwardedFor.get(i));
+            if (hop == null) {
+                // not written by a trusted proxy, as they all write addresses
+                return "ip:unknown";
+            }
+            client = hop;
+        }
+        // the addresses are formatted again, so that a client can't get another bucket with another notation
+        return "ip:" + client.getHostAddress();
+    }
+
+    private boolean isTrustedProxy(InetAddress address) {
+        for (IpRange trustedProxy : trustedProxies) {
+            if (trustedProxy.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> forwardedFor(ServerWebExchange exchange) {
+        List<String> hops = new ArrayList<>();
+        for (String value : exchange.getRequest().getHeaders().getOrEmpty(X_FORWARDED_FOR)) {
+            for (String hop : value.split(",")) {
+                if (!hop.isBlank()) {
+                    hops.add(hop.trim());
+                }
+            }
+        }
+        return hops;
+    }
+
+    private static InetAddress parseIp(String address) {
+        if (!IP_LITERAL.matcher(address).matches()) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(address);
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /**
+     * An address, or a range of addresses in the CIDR notation.
+     */
+    private static final class IpRange {
+
+        private final byte[] network;
+
+        private final int prefixLength;
+
+        private IpRange(byte[] network, int prefixLength) {
+            this.network = network;
+            this.prefixLength = prefixLength;
+        }
+
+        private static IpRange parse(String range) {
+            int slash = range.indexOf('/');
+            InetAddress address = parseIp(slash < 0 ? range.trim() : range.substring(0, slash).trim());
+            if (address == null) {
+                throw new IllegalArgumentException("The trusted proxy is not an IP address or a CIDR range: " + range);
+            }
+            byte[] network = address.getAddress();
+            int prefixLength = slash < 0 ? network.length * 8 : Integer.parseInt(range.substring(slash + 1).trim());
+            if (prefixLength < 0 || prefixLength > network.length * 8) {
+                throw new IllegalArgumentException("The prefix length of the trusted proxies is invalid: " + range);
+            }
+            return new IpRange(network, prefixLength);
+        }
+
+        private boolean contains(InetAddress address) {
+            byte[] bytes = address.getAddress();
+            if (bytes.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (bytes[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - remainingBits);
+            return (bytes[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
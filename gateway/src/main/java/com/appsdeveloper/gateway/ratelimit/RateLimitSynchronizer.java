@@ -0,0 +1,20 @@
+package com.appsdeveloper.gateway.ratelimit;
+
+import java.util.Map;
+import reactor.core.publisher.Mono;
+
+/**
+ * Share the requests allowed by the {@link LocalRateLimiter} with the other gateway instances, so that a client
+ * spreading its requests over the instances is still limited, approximately.
+ * <p>
+ * The limits are local to each instance when there is no bean of this type.
+ */
+public interface RateLimitSynchronizer {
+    /**
+     * Exchange the requests allowed by this instance since the last call with the ones allowed by the other instances.
+     *
+     * @param localCounts the requests allowed by this instance, by bucket.
+     * @return the requests allowed by the other instances, by bucket.
+     */
+    Mono<Map<String, Long>> synchronize(Map<String, Long> localCounts);
+}
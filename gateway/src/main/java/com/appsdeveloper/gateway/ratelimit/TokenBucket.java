@@ -0,0 +1,93 @@
+package com.appsdeveloper.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket of a rate limit key, without locks.
+ * <p>
+ * The bucket is tracked as the time at which it will be full again (the generic cell rate algorithm): each request
+ * pushes this time by the refill interval, and is allowed as long as the bucket doesn't need more than its capacity
+ * to refill. A single {@link AtomicLong} is enough to update it.
+ * <p>
+ * All the times are given by {@link System#nanoTime()}.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+
+    private final long capacityNanos;
+
+    private final AtomicLong fullAtNanos;
+
+    private final AtomicLong unsynchronized = new AtomicLong();
+
+    /**
+     * @param burst the requests allowed at once.
+     * @param refillPerSecond the requests allowed per second, once the burst is used.
+     * @param nowNanos the current time.
+     */
+    public TokenBucket(int burst, double refillPerSecond, long nowNanos) {
+        this.intervalNanos = Math.max((long) (1_000_000_000 / refillPerSecond), 1);
+        this.capacityNanos = intervalNanos * burst;
+        this.fullAtNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Take a token.
+     *
+     * @param nowNanos the current time.
+     * @return zero if the request is allowed, otherwise the time until a token is available.
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long fullAt = fullAtNanos.get();
+            long newFullAt = Math.max(fullAt - nowNanos, 0) + nowNanos + intervalNanos;
+            long waitNanos = newFullAt - nowNanos - capacityNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (fullAtNanos.compareAndSet(fullAt, newFullAt)) {
+                unsynchronized.incrementAndGet();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Take the tokens used by the other gateway instances, without going below an empty bucket.
+     *
+     * @param tokens the number of tokens.
+     * @param nowNanos the current time.
+     */
+    public void consume(long tokens, long nowNanos) {
+        fullAtNanos.accumulateAndGet(
+            0,
+            (fullAt, ignored) -> Math.min(Math.max(fullAt - nowNanos, 0) + tokens * intervalNanos, capacityNanos) + nowNanos
+        );
+    }
+
+    /**
+     * @param nowNanos the current time.
+     * @return the number of requests which would be allowed now.
+     */
+    public long getRemaining(long nowNanos) {
+        return (capacityNanos - Math.max(fullAtNanos.get() - nowNanos, 0)) / intervalNanos;
+    }
+
+    /**
+     * @return the tokens taken since the last call, to be shared with the other gateway instances.
+     */
+    public long drainUnsynchronized() {
+        return unsynchronized.getAndSet(0);
+    }
+
+    /**
+     * An idle bucket is full: it can be evicted, it would be created the same.
+     *
+     * @param nowNanos the current time.
+     * @return {@code true} if the bucket is idle.
+     */
+    public boolean isIdle(long nowNanos) {
+        return fullAtNanos.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,160 @@
+package com.appsdeveloper.gateway.resilience;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Circuit breaker of a service.
+ * <p>
+ * The failures are counted over a fixed window: when too many requests fail, the circuit opens and the requests are
+ * rejected for a while. Then a few trial requests are let through: the circuit closes if they all succeed, and opens
+ * again as soon as one of them fails.
+ * <p>
+ * All the times are given by {@link System#nanoTime()}.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN,
+    }
+
+    private final double failureRateThreshold;
+
+    private final int minimumRequests;
+
+    private final long windowNanos;
+
+    private final long openNanos;
+
+    private final int halfOpenRequests;
+
+    private final BiConsumer<State, State> transitionListener;
+
+    private volatile State state = State.CLOSED;
+
+    private long windowStartNanos;
+
+    private int windowRequests;
+
+    private int windowFailures;
+
+    private long openUntilNanos;
+
+    private int halfOpenPermits;
+
+    private int halfOpenSuccesses;
+
+    /**
+     * @param transitionListener called with the previous and the new state on each transition.
+     */
+    public CircuitBreaker(
+        double failureRateThreshold,
+        int minimumRequests,
+        long windowNanos,
+        long openNanos,
+        int halfOpenRequests,
+        BiConsumer<State, State> transitionListener
+    ) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumRequests = minimumRequests;
+        this.windowNanos = windowNanos;
+        this.openNanos = openNanos;
+        this.halfOpenRequests = halfOpenRequests;
+        this.transitionListener = transitionListener;
+    }
+
+    /**
+     * Check whether a request can be sent. A permitted request must be followed by a call to
+     * {@link #onResult(boolean, long)} or {@link #onCancel()}.
+     *
+     * @param nowNanos the current time.
+     * @return {@code true} if the request can be sent.
+     */
+    public synchronized boolean tryAcquirePermission(long nowNanos) {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (nowNanos - openUntilNanos < 0) {
+                return false;
+            }
+            halfOpenPermits = halfOpenRequests;
+            halfOpenSuccesses = 0;
+            transition(State.HALF_OPEN);
+        }
+        if (halfOpenPermits == 0) {
+            return false;
+        }
+        halfOpenPermits--;
+        return true;
+    }
+
+    /**
+     * Record the outcome of a permitted request.
+     *
+     * @param failure whether the request failed.
+     * @param nowNanos the current time.
+     */
+    public synchronized void onResult(boolean failure, long nowNanos) {
+        if (state == State.HALF_OPEN) {
+            if (failure) {
+                open(nowNanos);
+            } else if (++halfOpenSuccesses >= halfOpenRequests) {
+                windowRequests = 0;
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // a request sent before the circuit opened
+            return;
+        }
+        if (windowRequests == 0 || nowNanos - windowStartNanos >= windowNanos) {
+            windowStartNanos = nowNanos;
+            windowRequests = 0;
+            windowFailures = 0;
+        }
+        windowRequests++;
+        if (failure) {
+            windowFailures++;
+        }
+        if (windowRequests >= minimumRequests && windowFailures >= windowRequests * failureRateThreshold) {
+            open(nowNanos);
+        }
+    }
+
+    /**
+     * Give back the permission of a request which was cancelled before its outcome was known.
+     */
+    public synchronized void onCancel() {
+        if (state == State.HALF_OPEN && halfOpenPermits < halfOpenRequests - halfOpenSuccesses) {
+            halfOpenPermits++;
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @param nowNanos the current time.
+     * @return the time until trial requests are let through, zero if the circuit is not open.
+     */
+    public synchronized long getRemainingOpenNanos(long nowNanos) {
+        return state == State.OPEN ? Math.max(openUntilNanos - nowNanos, 0) : 0;
+    }
+
+    private void open(long nowNanos) {
+        openUntilNanos = nowNanos + openNanos;
+        windowRequests = 0;
+        windowFailures = 0;
+        transition(State.OPEN);
+    }
+
+    private void transition(State newState) {
+        State previousState = state;
+        state = newState;
+        transitionListener.accept(previousState, newState);
+    }
+}
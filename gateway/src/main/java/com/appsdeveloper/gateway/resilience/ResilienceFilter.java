@@ -0,0 +1,280 @@
+package com.appsdeveloper.gateway.resilience;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Isolate the microservices from each other: the requests of the {@code lb://} routes go through a bulkhead, a
+ * circuit breaker and a timeout of their service, so that a hung service can't take all the connections and the
+ * requests of the gateway.
+ * <p>
+ * The timeout only bounds the wait for the response headers, not the transfer of the body: it is given to the routing
+ * filters as the {@code response-timeout} metadata of the route, unless the route sets its own. The routing filters
+ * fail with a 504 (Gateway Timeout) {@link ResponseStatusException}, recorded as a failure of the service.
+ * <p>
+ * The rejected requests fail fast with a {@link ResponseStatusException}, answered in the RFC7807 format by the
+ * {@code ProblemExceptionHandler}: 503 (Service Unavailable) when the bulkhead is full or the circuit is open, and 504
+ * (Gateway Timeout) when the service is too slow.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.resilience", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ResilienceFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Run before the load balancer, so that a service without instance counts as a failure.
+     */
+    public static final int RESILIENCE_FILTER_ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+
+    private final Logger log = LoggerFactory.getLogger(ResilienceFilter.class);
+
+    private final ApplicationProperties.Resilience properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, ServiceResilience> services = new ConcurrentHashMap<>();
+
+    private final Map<String, TimedRoute> timedRoutes = new ConcurrentHashMap<>();
+
+    public ResilienceFilter(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.properties = applicationProperties.getResilience();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public int getOrder() {
+        return RESILIENCE_FILTER_ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null || !"lb".equals(route.getUri().getScheme()) || route.getUri().getHost() == null) {
+            return chain.filter(exchange);
+        }
+        ServiceResilience service = services.computeIfAbsent(route.getUri().getHost().toLowerCase(Locale.ROOT), ServiceResilience::new);
+        if (!route.getMetadata().containsKey(RESPONSE_TIMEOUT_ATTR)) {
+            exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, withResponseTimeout(route, service.timeout));
+        }
+        return Mono.defer(
+            () -> {
+                long now = System.nanoTime();
+                if (!service.circuitBreaker.tryAcquirePermission(now)) {
+                    return reject(exchange, service, "circuit-open", service.circuitBreaker.getRemainingOpenNanos(now));
+                }
+                if (!service.bulkhead.tryAcquire()) {
+                    service.circuitBreaker.onCancel();
+                    return reject(exchange, service, "bulkhead", 0);
+                }
+                // released before the outcome is sent downstream, and only once as a cancel may follow the outcome
+                AtomicBoolean released = new AtomicBoolean();
+                return chain
+                    .filter(exchange)
+                    .doOnSuccess(
+                        v -> service.circuitBreaker.onResult(isFailure(exchange.getResponse().getRawStatusCode()), System.nanoTime())
+                    )
+                    .doOnError(
+                        e -> {
+                            if (isTimeout(e)) {
+                                onTimeout(service);
+                            }
+                            service.circuitBreaker.onResult(isFailure(e), System.nanoTime());
+                        }
+                    )
+                    .doOnTerminate(
+                        () -> {
+                            if (released.compareAndSet(false, true)) {
+                                service.bulkhead.release();
+                            }
+                        }
+                    )
+                    .doOnCancel(
+                        () -> {
+                            if (released.compareAndSet(false, true)) {
+                                service.circuitBreaker.onCancel();
+                                service.bulkhead.release();
+                            }
+                        }
+                    );
+            }
+        );
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, ServiceResilience service, String reason, long retryAfterNanos) {
+        log.debug("Rejected request to service {}: {}", service.serviceId, reason);
+        Counter
+            .builder("gateway.resilience.rejections")
+            .tags("service", service.serviceId, "reason", reason)
+            .description("The number of requests rejected to protect a service")
+            .register(meterRegistry)
+            .increment();
+        // the header is kept by the ProblemExceptionHandler
+        long retryAfterSeconds = Math.max((long) Math.ceil(retryAfterNanos / 1e9), 1);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        String detail = "circuit-open".equals(reason)
+            ? "Service " + service.serviceId + " is failing, its requests are rejected for a while"
+            : "Service " + service.serviceId + " has too many requests in flight";
+        return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, detail));
+    }
+
+    private void onTimeout(ServiceResilience service) {
+        log.debug("Service {} did not answer in time", service.serviceId);
+        Counter
+            .builder("gateway.resilience.timeouts")
+            .tag("service", service.serviceId)
+            .description("The number of requests to a service which timed out")
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * The route with the timeout of its service is only built again when the route is refreshed.
+     */
+    private Route withResponseTimeout(Route route, Duration timeout) {
+        TimedRoute timedRoute = timedRoutes.get(route.getId());
+        if (timedRoute == null || timedRoute.route != route) {
+            timedRoute = new TimedRoute(route, buildWithResponseTimeout(route, timeout));
+            timedRoutes.put(route.getId(), timedRoute);
+        }
+        return timedRoute.withResponseTimeout;
+    }
+
+    private static Route buildWithResponseTimeout(Route route, Duration timeout) {
+        return Route
+            .async()
+            .id(route.getId())
+            .uri(route.getUri())
+            .order(route.getOrder())
+            .asyncPredicate(route.getPredicate())
+            .replaceFilters(route.getFilters())
+            .metadata(route.getMetadata())
+            .metadata(RESPONSE_TIMEOUT_ATTR, timeout.toMillis())
+            .build();
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        return e instanceof ResponseStatusException && ((ResponseStatusException) e).getStatus() == HttpStatus.GATEWAY_TIMEOUT;
+    }
+
+    /**
+     * Only the unavailability of the service counts as a failure, not the errors of the requests.
+     */
+    private static boolean isFailure(Integer statusCode) {
+        return (
+            statusCode != null &&
+            (
+                statusCode == HttpStatus.BAD_GATEWAY.value() ||
+                statusCode == HttpStatus.SERVICE_UNAVAILABLE.value() ||
+                statusCode == HttpStatus.GATEWAY_TIMEOUT.value()
+            )
+        );
+    }
+
+    private static boolean isFailure(Throwable e) {
+        if (e instanceof ResponseStatusException) {
+            return isFailure(((ResponseStatusException) e).getRawStatusCode());
+        }
+        return true;
+    }
+
+    private static <T> T orDefault(T value, T defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * A route, and the same route with the timeout of its service.
+     */
+    private static class TimedRoute {
+
+        private final Route route;
+
+        private final Route withResponseTimeout;
+
+        private TimedRoute(Route route, Route withResponseTimeout) {
+            this.route = route;
+            this.withResponseTimeout = withResponseTimeout;
+        }
+    }
+
+    /**
+     * Bulkhead, circuit breaker and timeout of a service.
+     */
+    private class ServiceResilience {
+
+        private final String serviceId;
+
+        private final Semaphore bulkhead;
+
+        private final CircuitBreaker circuitBreaker;
+
+        private final Duration timeout;
+
+        private ServiceResilience(String serviceId) {
+            this.serviceId = serviceId;
+            ApplicationProperties.Resilience.Service overrides = properties
+                .getServices()
+                .getOrDefault(serviceId, new ApplicationProperties.Resilience.Service());
+            this.bulkhead = new Semaphore(orDefault(overrides.getMaxConcurrentRequests(), properties.getMaxConcurrentRequests()));
+            this.timeout = Duration.ofMillis(orDefault(overrides.getTimeoutMillis(), properties.getTimeoutMillis()));
+            this.circuitBreaker =
+                new CircuitBreaker(
+                    orDefault(overrides.getFailureRateThreshold(), properties.getFailureRateThreshold()),
+                    orDefault(overrides.getMinimumRequests(), properties.getMinimumRequests()),
+                    TimeUnit.MILLISECONDS.toNanos(properties.getWindowMillis()),
+                    TimeUnit.MILLISECONDS.toNanos(orDefault(overrides.getOpenMillis(), properties.getOpenMillis())),
+                    properties.getHalfOpenRequests(),
+                    this::onTransition
+                );
+
+            Gauge
+                .builder("gateway.resilience.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .tag("service", serviceId)
+                .description("The number of requests which can still be sent to a service")
+                .register(meterRegistry);
+            Gauge
+                .builder("gateway.resilience.circuitbreaker.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .tag("service", serviceId)
+                .description("The state of the circuit breaker of a service: 0 closed, 1 open, 2 half open")
+                .register(meterRegistry);
+        }
+
+        private void onTransition(CircuitBreaker.State from, CircuitBreaker.State to) {
+            if (to == CircuitBreaker.State.OPEN) {
+                log.warn("Circuit breaker of service {} is open", serviceId);
+            } else {
+                log.info("Circuit breaker of service {} is {}", serviceId, to.name().toLowerCase(Locale.ROOT).replace('_', ' '));
+            }
+            Counter
+                .builder("gateway.resilience.circuitbreaker.transitions")
+                .tags("service", serviceId, "from", from.name().toLowerCase(Locale.ROOT), "to", to.name().toLowerCase(Locale.ROOT))
+                .description("The number of state transitions of the circuit breaker of a service")
+                .register(meterRegistry)
+                .increment();
+        }
+    }
+}
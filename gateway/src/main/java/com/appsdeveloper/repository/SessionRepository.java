@@ -1,6 +1,8 @@
 package com.appsdeveloper.repository;
 
 import com.appsdeveloper.domain.Session;
+import java.time.ZonedDateTime;
+import org.reactivestreams.Publisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
@@ -15,6 +17,21 @@ import reactor.core.publisher.Mono;
 @SuppressWarnings("unused")
 @Repository
 public interface SessionRepository extends R2dbcRepository<Session, Long>, SessionRepositoryInternal {
+    @Override
+    Mono<Session> findOneWithEagerRelationships(Long id);
+
+    @Override
+    Flux<Session> findAllWithEagerRelationships();
+
+    @Override
+    Flux<Session> findAllWithEagerRelationships(Pageable page);
+
+    @Override
+    Flux<Session> findAllWithEagerRelationshipsAfter(ZonedDateTime startDateTime, Long id, int limit);
+
+    @Override
+    Mono<Void> deleteById(Long id);
+
     // just to avoid having unambigous methods
     @Override
     Flux<Session> findAll();
@@ -35,4 +52,28 @@ interface SessionRepositoryInternal {
     Mono<Session> findById(Long id);
     Flux<Session> findAllBy(Pageable pageable);
     Flux<Session> findAllBy(Pageable pageable, Criteria criteria);
+
+    Mono<Session> findOneWithEagerRelationships(Long id);
+
+    Flux<Session> findAllWithEagerRelationships();
+
+    Flux<Session> findAllWithEagerRelationships(Pageable page);
+
+    Flux<Session> findAllWithEagerRelationshipsAfter(ZonedDateTime startDateTime, Long id, int limit);
+
+    Mono<Void> deleteById(Long id);
+
+    <S extends Session> Flux<S> saveAll(Iterable<S> entities);
+
+    <S extends Session> Flux<S> saveAll(Publisher<S> entityStream);
+
+    Mono<Void> deleteById(Publisher<Long> idPublisher);
+
+    Mono<Void> delete(Session entity);
+
+    Mono<Void> deleteAll(Iterable<? extends Session> entities);
+
+    Mono<Void> deleteAll(Publisher<? extends Session> entityStream);
+
+    Mono<Void> deleteAll();
 }
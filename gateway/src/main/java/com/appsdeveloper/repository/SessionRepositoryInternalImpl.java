@@ -5,23 +5,29 @@ import static org.springframework.data.relational.core.query.Query.query;
 
 import com.appsdeveloper.domain.Session;
 import com.appsdeveloper.repository.rowmapper.SessionRowMapper;
+import com.appsdeveloper.repository.rowmapper.SpeakerRowMapper;
+import com.appsdeveloper.service.EntityManager.LinkTable;
 import com.appsdeveloper.service.EntityManager;
+import com.appsdeveloper.service.EntityVersionService;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
+import java.util.Map;
 import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import org.reactivestreams.Publisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Expression;
-import org.springframework.data.relational.core.sql.Select;
-import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.r2dbc.core.RowsFetchSpec;
@@ -40,13 +46,29 @@ class SessionRepositoryInternalImpl implements SessionRepositoryInternal {
 
     private final SessionRowMapper sessionMapper;
 
+    private final SpeakerRowMapper speakerMapper;
+
+    private final EntityVersionService entityVersionService;
+
     private static final Table entityTable = Table.aliased("session", EntityManager.ENTITY_ALIAS);
 
-    public SessionRepositoryInternalImpl(R2dbcEntityTemplate template, EntityManager entityManager, SessionRowMapper sessionMapper) {
+    private static final Table speakersTable = Table.aliased("speaker", EntityManager.ENTITY_ALIAS);
+
+    private static final EntityManager.LinkTable speakersLink = new LinkTable("rel_speaker__sessions", "sessions_id", "speaker_id");
+
+    public SessionRepositoryInternalImpl(
+        R2dbcEntityTemplate template,
+        EntityManager entityManager,
+        SessionRowMapper sessionMapper,
+        SpeakerRowMapper speakerMapper,
+        EntityVersionService entityVersionService
+    ) {
         this.db = template.getDatabaseClient();
         this.r2dbcEntityTemplate = template;
         this.entityManager = entityManager;
         this.sessionMapper = sessionMapper;
+        this.speakerMapper = speakerMapper;
+        this.entityVersionService = entityVersionService;
     }
 
     @Override
@@ -60,26 +82,15 @@ class SessionRepositoryInternalImpl implements SessionRepositoryInternal {
     }
 
     RowsFetchSpec<Session> createQuery(Pageable pageable, Criteria criteria) {
-        List<Expression> columns = SessionSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
-        SelectFromAndJoin selectFrom = Select.builder().select(columns).from(entityTable);
-
-        String select = entityManager.createSelect(selectFrom, Session.class, pageable, criteria);
-        String alias = entityTable.getReferenceName().getReference();
-        String selectWhere = Optional
-            .ofNullable(criteria)
-            .map(
-                crit ->
-                    new StringBuilder(select)
-                        .append(" ")
-                        .append("WHERE")
-                        .append(" ")
-                        .append(alias)
-                        .append(".")
-                        .append(crit.toString())
-                        .toString()
+        return entityManager
+            .createSelect(
+                entityTable,
+                () -> SessionSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS),
+                Session.class,
+                pageable,
+                criteria
             )
-            .orElse(select); // TODO remove once https://github.com/spring-projects/spring-data-jdbc/issues/907 will be fixed
-        return db.sql(selectWhere).map(this::process);
+            .map(this::process);
     }
 
     @Override
@@ -92,8 +103,63 @@ class SessionRepositoryInternalImpl implements SessionRepositoryInternal {
         return createQuery(null, where("id").is(id)).one();
     }
 
+    @Override
+    public Mono<Session> findOneWithEagerRelationships(Long id) {
+        return fetchRelations(findById(id).flux()).next();
+    }
+
+    @Override
+    public Flux<Session> findAllWithEagerRelationships() {
+        return fetchRelations(findAll());
+    }
+
+    @Override
+    public Flux<Session> findAllWithEagerRelationships(Pageable page) {
+        return fetchRelations(findAllBy(page));
+    }
+
+    /**
+     * Keyset pagination on (start_date_time, id): fetches the entities sorted after the given position, with their relations.
+     * @param startDateTime the start_date_time of the last entity of the previous page, or null for the first page.
+     * @param id the id of the last entity of the previous page, or null for the first page.
+     * @param limit the maximum number of entities to fetch.
+     * @return the entities following the given position.
+     */
+    @Override
+    public Flux<Session> findAllWithEagerRelationshipsAfter(ZonedDateTime startDateTime, Long id, int limit) {
+        Criteria criteria = null;
+        if (startDateTime != null && id != null) {
+            criteria = where("startDateTime").greaterThan(startDateTime).or(where("startDateTime").is(startDateTime).and("id").greaterThan(id));
+        }
+        return fetchRelations(findAllBy(PageRequest.of(0, limit, Sort.by("startDateTime", "id")), criteria));
+    }
+
+    protected Flux<Session> fetchRelations(Flux<Session> sessions) {
+        return sessions
+            .collectList()
+            .flatMapMany(
+                entities ->
+                    entityManager
+                        .findLinkedEntities(
+                            speakersLink,
+                            speakersTable,
+                            SpeakerSqlHelper.getColumns(speakersTable, EntityManager.ENTITY_ALIAS),
+                            entities.stream().map(Session::getId).collect(Collectors.toList()),
+                            (row, metadata) -> speakerMapper.apply(row, metadata, EntityManager.ENTITY_ALIAS)
+                        )
+                        .flatMapIterable(
+                            speakers -> {
+                                for (Session entity : entities) {
+                                    entity.setSpeakers(new HashSet<>(speakers.getOrDefault(entity.getId(), Collections.emptyList())));
+                                }
+                                return entities;
+                            }
+                        )
+            );
+    }
+
     private Session process(Row row, RowMetadata metadata) {
-        Session entity = sessionMapper.apply(row, "e");
+        Session entity = sessionMapper.apply(row, metadata, "e");
         return entity;
     }
 
@@ -105,7 +171,7 @@ class SessionRepositoryInternalImpl implements SessionRepositoryInternal {
     @Override
     public <S extends Session> Mono<S> save(S entity) {
         if (entity.getId() == null) {
-            return insert(entity);
+            return insert(entity).flatMap(this::incrementVersion);
         } else {
             return update(entity)
                 .map(
@@ -115,7 +181,8 @@ class SessionRepositoryInternalImpl implements SessionRepositoryInternal {
                         }
                         return entity;
                     }
-                );
+                )
+                .flatMap(this::incrementVersion);
         }
     }
 
@@ -124,6 +191,56 @@ class SessionRepositoryInternalImpl implements SessionRepositoryInternal {
         //fixme is this the proper way?
         return r2dbcEntityTemplate.update(entity).thenReturn(1);
     }
+
+    @Override
+    public Mono<Void> deleteById(Long entityId) {
+        return r2dbcEntityTemplate
+            .delete(Session.class)
+            .matching(query(where("id").is(entityId)))
+            .all()
+            .then(entityVersionService.increment(Session.class));
+    }
+
+    // the default implementations of the batch writes don't go through save and deleteById, which increment the version
+
+    @Override
+    public <S extends Session> Flux<S> saveAll(Iterable<S> entities) {
+        return Flux.fromIterable(entities).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends Session> Flux<S> saveAll(Publisher<S> entityStream) {
+        return Flux.from(entityStream).concatMap(this::save);
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<Long> idPublisher) {
+        return Mono.from(idPublisher).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(Session entity) {
+        return deleteById(entity.getId());
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends Session> entities) {
+        return Flux.fromIterable(entities).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends Session> entityStream) {
+        return Flux.from(entityStream).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return r2dbcEntityTemplate.delete(Session.class).all().then(entityVersionService.increment(Session.class));
+    }
+
+    private <S extends Session> Mono<S> incrementVersion(S entity) {
+        return entityVersionService.increment(Session.class).thenReturn(entity);
+    }
 }
 
 class SessionSqlHelper {
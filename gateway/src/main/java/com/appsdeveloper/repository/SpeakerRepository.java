@@ -1,6 +1,7 @@
 package com.appsdeveloper.repository;
 
 import com.appsdeveloper.domain.Speaker;
+import org.reactivestreams.Publisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
@@ -24,6 +25,9 @@ public interface SpeakerRepository extends R2dbcRepository<Speaker, Long>, Speak
     @Override
     Flux<Speaker> findAllWithEagerRelationships(Pageable page);
 
+    @Override
+    Flux<Speaker> findAllWithEagerRelationshipsAfter(String lastName, Long id, int limit);
+
     @Override
     Mono<Void> deleteById(Long id);
 
@@ -59,5 +63,21 @@ interface SpeakerRepositoryInternal {
 
     Flux<Speaker> findAllWithEagerRelationships(Pageable page);
 
+    Flux<Speaker> findAllWithEagerRelationshipsAfter(String lastName, Long id, int limit);
+
     Mono<Void> deleteById(Long id);
+
+    <S extends Speaker> Flux<S> saveAll(Iterable<S> entities);
+
+    <S extends Speaker> Flux<S> saveAll(Publisher<S> entityStream);
+
+    Mono<Void> deleteById(Publisher<Long> idPublisher);
+
+    Mono<Void> delete(Speaker entity);
+
+    Mono<Void> deleteAll(Iterable<? extends Speaker> entities);
+
+    Mono<Void> deleteAll(Publisher<? extends Speaker> entityStream);
+
+    Mono<Void> deleteAll();
 }
@@ -5,24 +5,29 @@ import static org.springframework.data.relational.core.query.Query.query;
 
 import com.appsdeveloper.domain.Session;
 import com.appsdeveloper.domain.Speaker;
+import com.appsdeveloper.repository.rowmapper.SessionRowMapper;
 import com.appsdeveloper.repository.rowmapper.SpeakerRowMapper;
-import com.appsdeveloper.service.EntityManager;
 import com.appsdeveloper.service.EntityManager.LinkTable;
+import com.appsdeveloper.service.EntityManager;
+import com.appsdeveloper.service.EntityVersionService;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
+import java.util.Map;
 import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import org.reactivestreams.Publisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Expression;
-import org.springframework.data.relational.core.sql.Select;
-import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.r2dbc.core.RowsFetchSpec;
@@ -41,15 +46,29 @@ class SpeakerRepositoryInternalImpl implements SpeakerRepositoryInternal {
 
     private final SpeakerRowMapper speakerMapper;
 
+    private final SessionRowMapper sessionMapper;
+
+    private final EntityVersionService entityVersionService;
+
     private static final Table entityTable = Table.aliased("speaker", EntityManager.ENTITY_ALIAS);
 
+    private static final Table sessionsTable = Table.aliased("session", EntityManager.ENTITY_ALIAS);
+
     private static final EntityManager.LinkTable sessionsLink = new LinkTable("rel_speaker__sessions", "speaker_id", "sessions_id");
 
-    public SpeakerRepositoryInternalImpl(R2dbcEntityTemplate template, EntityManager entityManager, SpeakerRowMapper speakerMapper) {
+    public SpeakerRepositoryInternalImpl(
+        R2dbcEntityTemplate template,
+        EntityManager entityManager,
+        SpeakerRowMapper speakerMapper,
+        SessionRowMapper sessionMapper,
+        EntityVersionService entityVersionService
+    ) {
         this.db = template.getDatabaseClient();
         this.r2dbcEntityTemplate = template;
         this.entityManager = entityManager;
         this.speakerMapper = speakerMapper;
+        this.sessionMapper = sessionMapper;
+        this.entityVersionService = entityVersionService;
     }
 
     @Override
@@ -63,26 +82,15 @@ class SpeakerRepositoryInternalImpl implements SpeakerRepositoryInternal {
     }
 
     RowsFetchSpec<Speaker> createQuery(Pageable pageable, Criteria criteria) {
-        List<Expression> columns = SpeakerSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
-        SelectFromAndJoin selectFrom = Select.builder().select(columns).from(entityTable);
-
-        String select = entityManager.createSelect(selectFrom, Speaker.class, pageable, criteria);
-        String alias = entityTable.getReferenceName().getReference();
-        String selectWhere = Optional
-            .ofNullable(criteria)
-            .map(
-                crit ->
-                    new StringBuilder(select)
-                        .append(" ")
-                        .append("WHERE")
-                        .append(" ")
-                        .append(alias)
-                        .append(".")
-                        .append(crit.toString())
-                        .toString()
+        return entityManager
+            .createSelect(
+                entityTable,
+                () -> SpeakerSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS),
+                Speaker.class,
+                pageable,
+                criteria
             )
-            .orElse(select); // TODO remove once https://github.com/spring-projects/spring-data-jdbc/issues/907 will be fixed
-        return db.sql(selectWhere).map(this::process);
+            .map(this::process);
     }
 
     @Override
@@ -97,21 +105,61 @@ class SpeakerRepositoryInternalImpl implements SpeakerRepositoryInternal {
 
     @Override
     public Mono<Speaker> findOneWithEagerRelationships(Long id) {
-        return findById(id);
+        return fetchRelations(findById(id).flux()).next();
     }
 
     @Override
     public Flux<Speaker> findAllWithEagerRelationships() {
-        return findAll();
+        return fetchRelations(findAll());
     }
 
     @Override
     public Flux<Speaker> findAllWithEagerRelationships(Pageable page) {
-        return findAllBy(page);
+        return fetchRelations(findAllBy(page));
+    }
+
+    /**
+     * Keyset pagination on (last_name, id): fetches the entities sorted after the given position, with their relations.
+     * @param lastName the last_name of the last entity of the previous page, or null for the first page.
+     * @param id the id of the last entity of the previous page, or null for the first page.
+     * @param limit the maximum number of entities to fetch.
+     * @return the entities following the given position.
+     */
+    @Override
+    public Flux<Speaker> findAllWithEagerRelationshipsAfter(String lastName, Long id, int limit) {
+        Criteria criteria = null;
+        if (lastName != null && id != null) {
+            criteria = where("lastName").greaterThan(lastName).or(where("lastName").is(lastName).and("id").greaterThan(id));
+        }
+        return fetchRelations(findAllBy(PageRequest.of(0, limit, Sort.by("lastName", "id")), criteria));
+    }
+
+    protected Flux<Speaker> fetchRelations(Flux<Speaker> speakers) {
+        return speakers
+            .collectList()
+            .flatMapMany(
+                entities ->
+                    entityManager
+                        .findLinkedEntities(
+                            sessionsLink,
+                            sessionsTable,
+                            SessionSqlHelper.getColumns(sessionsTable, EntityManager.ENTITY_ALIAS),
+                            entities.stream().map(Speaker::getId).collect(Collectors.toList()),
+                            (row, metadata) -> sessionMapper.apply(row, metadata, EntityManager.ENTITY_ALIAS)
+                        )
+                        .flatMapIterable(
+                            sessions -> {
+                                for (Speaker entity : entities) {
+                                    entity.setSessions(new HashSet<>(sessions.getOrDefault(entity.getId(), Collections.emptyList())));
+                                }
+                                return entities;
+                            }
+                        )
+            );
     }
 
     private Speaker process(Row row, RowMetadata metadata) {
-        Speaker entity = speakerMapper.apply(row, "e");
+        Speaker entity = speakerMapper.apply(row, metadata, "e");
         return entity;
     }
 
@@ -123,7 +171,7 @@ class SpeakerRepositoryInternalImpl implements SpeakerRepositoryInternal {
     @Override
     public <S extends Speaker> Mono<S> save(S entity) {
         if (entity.getId() == null) {
-            return insert(entity).flatMap(savedEntity -> updateRelations(savedEntity));
+            return insert(entity).flatMap(savedEntity -> updateRelations(savedEntity)).flatMap(this::incrementVersion);
         } else {
             return update(entity)
                 .map(
@@ -134,7 +182,8 @@ class SpeakerRepositoryInternalImpl implements SpeakerRepositoryInternal {
                         return entity;
                     }
                 )
-                .then(updateRelations(entity));
+                .then(updateRelations(entity))
+                .flatMap(this::incrementVersion);
         }
     }
 
@@ -147,7 +196,8 @@ class SpeakerRepositoryInternalImpl implements SpeakerRepositoryInternal {
     @Override
     public Mono<Void> deleteById(Long entityId) {
         return deleteRelations(entityId)
-            .then(r2dbcEntityTemplate.delete(Speaker.class).matching(query(where("id").is(entityId))).all().then());
+            .then(r2dbcEntityTemplate.delete(Speaker.class).matching(query(where("id").is(entityId))).all().then())
+            .then(entityVersionService.increment(Speaker.class));
     }
 
     protected <S extends Speaker> Mono<S> updateRelations(S entity) {
@@ -160,6 +210,51 @@ class SpeakerRepositoryInternalImpl implements SpeakerRepositoryInternal {
     protected Mono<Void> deleteRelations(Long entityId) {
         return entityManager.deleteFromLinkTable(sessionsLink, entityId);
     }
+
+    // the default implementations of the batch writes don't go through save and deleteById, which increment the version
+
+    @Override
+    public <S extends Speaker> Flux<S> saveAll(Iterable<S> entities) {
+        return Flux.fromIterable(entities).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends Speaker> Flux<S> saveAll(Publisher<S> entityStream) {
+        return Flux.from(entityStream).concatMap(this::save);
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<Long> idPublisher) {
+        return Mono.from(idPublisher).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(Speaker entity) {
+        return deleteById(entity.getId());
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends Speaker> entities) {
+        return Flux.fromIterable(entities).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends Speaker> entityStream) {
+        return Flux.from(entityStream).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return db
+            .sql("DELETE FROM rel_speaker__sessions")
+            .then()
+            .then(r2dbcEntityTemplate.delete(Speaker.class).all())
+            .then(entityVersionService.increment(Speaker.class));
+    }
+
+    private <S extends Speaker> Mono<S> incrementVersion(S entity) {
+        return entityVersionService.increment(Speaker.class).thenReturn(entity);
+    }
 }
 
 class SpeakerSqlHelper {
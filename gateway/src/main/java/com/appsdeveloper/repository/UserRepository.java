@@ -5,15 +5,16 @@ import static org.springframework.data.relational.core.query.Query.query;
 
 import com.appsdeveloper.domain.Authority;
 import com.appsdeveloper.domain.User;
+import com.appsdeveloper.repository.rowmapper.UserRowMapper;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import org.apache.commons.beanutils.BeanComparator;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
@@ -68,18 +69,50 @@ interface UserRepositoryInternal extends DeleteExtended<User> {
     Mono<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
     Flux<User> findAllWithAuthorities(Pageable pageable);
+
+    Flux<Long> findIdsOfNotActivatedUsersCreatedBefore(LocalDateTime dateTime);
+
+    Mono<Integer> deleteNotActivatedUsersByIdIn(List<Long> userIds);
 }
 
 class UserRepositoryInternalImpl implements UserRepositoryInternal {
 
+    private static final Map<String, String> SORTABLE_COLUMNS = Map.of(
+        "id",
+        "id",
+        "login",
+        "login",
+        "firstName",
+        "first_name",
+        "lastName",
+        "last_name",
+        "email",
+        "email",
+        "activated",
+        "activated",
+        "langKey",
+        "lang_key",
+        "createdDate",
+        "created_date",
+        "lastModifiedDate",
+        "last_modified_date"
+    );
+
+    private static final String USER_COLUMNS =
+        "u.id AS u_id, u.login AS u_login, u.password_hash AS u_password, u.first_name AS u_first_name, " +
+        "u.last_name AS u_last_name, u.email AS u_email, u.activated AS u_activated, u.lang_key AS u_lang_key, " +
+        "u.image_url AS u_image_url, u.activation_key AS u_activation_key, u.reset_key AS u_reset_key, " +
+        "u.reset_date AS u_reset_date, u.created_by AS u_created_by, u.created_date AS u_created_date, " +
+        "u.last_modified_by AS u_last_modified_by, u.last_modified_date AS u_last_modified_date";
+
     private final DatabaseClient db;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
-    private final R2dbcConverter r2dbcConverter;
+    private final UserRowMapper userMapper;
 
-    public UserRepositoryInternalImpl(DatabaseClient db, R2dbcEntityTemplate r2dbcEntityTemplate, R2dbcConverter r2dbcConverter) {
+    public UserRepositoryInternalImpl(DatabaseClient db, R2dbcEntityTemplate r2dbcEntityTemplate, UserRowMapper userMapper) {
         this.db = db;
         this.r2dbcEntityTemplate = r2dbcEntityTemplate;
-        this.r2dbcConverter = r2dbcConverter;
+        this.userMapper = userMapper;
     }
 
     @Override
@@ -94,27 +127,71 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
 
     @Override
     public Flux<User> findAllWithAuthorities(Pageable pageable) {
-        String property = pageable.getSort().stream().map(Sort.Order::getProperty).findFirst().get();
-        String direction = String.valueOf(pageable.getSort().stream().map(Sort.Order::getDirection).findFirst().get());
-        long page = pageable.getPageNumber();
-        long size = pageable.getPageSize();
+        StringBuilder sql = new StringBuilder("SELECT ")
+            .append(USER_COLUMNS)
+            .append(" FROM jhi_user u ORDER BY ")
+            .append(createOrderBy(pageable.getSort()));
+        if (pageable.isPaged()) {
+            sql.append(" LIMIT ").append(pageable.getPageSize()).append(" OFFSET ").append(pageable.getOffset());
+        }
 
         return db
-            .sql("SELECT * FROM jhi_user u LEFT JOIN jhi_user_authority ua ON u.id=ua.user_id")
-            .map(
-                (row, metadata) ->
-                    Tuples.of(r2dbcConverter.read(User.class, row, metadata), Optional.ofNullable(row.get("authority_name", String.class)))
-            )
+            .sql(sql.toString())
+            .map((row, metadata) -> userMapper.apply(row, metadata, "u"))
             .all()
-            .groupBy(t -> t.getT1().getLogin())
-            .flatMap(l -> l.collectList().map(t -> updateUserWithAuthorities(t.get(0).getT1(), t)))
-            .sort(
-                Sort.Direction.fromString(direction) == Sort.DEFAULT_DIRECTION
-                    ? new BeanComparator<>(property)
-                    : new BeanComparator<>(property).reversed()
-            )
-            .skip(page * size)
-            .take(size);
+            .collectList()
+            .flatMapMany(this::fetchAuthorities);
+    }
+
+    private Flux<User> fetchAuthorities(List<User> users) {
+        if (users.isEmpty()) {
+            return Flux.empty();
+        }
+        List<Long> userIds = users.stream().map(User::getId).collect(Collectors.toList());
+        return db
+            .sql("SELECT ua.user_id, ua.authority_name FROM jhi_user_authority ua WHERE ua.user_id IN (:userIds)")
+            .bind("userIds", userIds)
+            .map((row, metadata) -> Tuples.of(row.get("user_id", Long.class), row.get("authority_name", String.class)))
+            .all()
+            .collectMultimap(Tuple2::getT1, Tuple2::getT2)
+            .flatMapIterable(
+                authoritiesByUserId -> {
+                    for (User user : users) {
+                        user.setAuthorities(
+                            authoritiesByUserId
+                                .getOrDefault(user.getId(), Collections.emptyList())
+                                .stream()
+                                .map(
+                                    name -> {
+                                        Authority authority = new Authority();
+                                        authority.setName(name);
+                                        return authority;
+                                    }
+                                )
+                                .collect(Collectors.toSet())
+                        );
+                    }
+                    return users;
+                }
+            );
+    }
+
+    private static String createOrderBy(Sort sort) {
+        StringBuilder orderBy = new StringBuilder();
+        boolean sortedById = false;
+        for (Sort.Order order : sort) {
+            String column = SORTABLE_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Sorting users by " + order.getProperty() + " is not supported");
+            }
+            orderBy.append("u.").append(column).append(order.isAscending() ? " ASC" : " DESC").append(", ");
+            sortedById |= "id".equals(column);
+        }
+        if (sortedById) {
+            return orderBy.substring(0, orderBy.length() - 2);
+        }
+        // the id is unique, so it keeps the pages stable when the sorted columns have duplicates
+        return orderBy.append("u.id").toString();
     }
 
     @Override
@@ -126,13 +203,45 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
             .then(r2dbcEntityTemplate.delete(User.class).matching(query(where("id").is(user.getId()))).all().then());
     }
 
+    @Override
+    public Flux<Long> findIdsOfNotActivatedUsersCreatedBefore(LocalDateTime dateTime) {
+        return db
+            .sql(
+                "SELECT u.id FROM jhi_user u WHERE u.activated = FALSE AND u.activation_key IS NOT NULL AND u.created_date < :dateTime ORDER BY u.id"
+            )
+            .bind("dateTime", dateTime)
+            .map((row, metadata) -> row.get("id", Long.class))
+            .all();
+    }
+
+    @Override
+    public Mono<Integer> deleteNotActivatedUsersByIdIn(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Mono.just(0);
+        }
+        // users activated since their ids were read are kept, with their authorities
+        return db
+            .sql(
+                "DELETE FROM jhi_user_authority WHERE user_id IN (SELECT u.id FROM jhi_user u WHERE u.id IN (:userIds) AND u.activated = FALSE)"
+            )
+            .bind("userIds", userIds)
+            .then()
+            .then(db.sql("DELETE FROM jhi_user WHERE id IN (:userIds) AND activated = FALSE").bind("userIds", userIds).fetch().rowsUpdated());
+    }
+
     private Mono<User> findOneWithAuthoritiesBy(String fieldName, Object fieldValue) {
         return db
-            .sql("SELECT * FROM jhi_user u LEFT JOIN jhi_user_authority ua ON u.id=ua.user_id WHERE u." + fieldName + " = :" + fieldName)
+            .sql(
+                "SELECT " +
+                USER_COLUMNS +
+                ", ua.authority_name FROM jhi_user u LEFT JOIN jhi_user_authority ua ON u.id=ua.user_id WHERE u." +
+                fieldName +
+                " = :" +
+                fieldName
+            )
             .bind(fieldName, fieldValue)
             .map(
-                (row, metadata) ->
-                    Tuples.of(r2dbcConverter.read(User.class, row, metadata), Optional.ofNullable(row.get("authority_name", String.class)))
+                (row, metadata) -> Tuples.of(userMapper.apply(row, metadata, "u"), Optional.ofNullable(row.get("authority_name", String.class)))
             )
             .all()
             .collectList()
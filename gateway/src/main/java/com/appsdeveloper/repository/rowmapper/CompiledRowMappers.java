@@ -0,0 +1,98 @@
+package com.appsdeveloper.repository.rowmapper;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Keeps the row mappers compiled for a column prefix and the columns of a result set, so that column lookups and type
+ * conversions are resolved once instead of once per row.
+ * @param <T> the type of the mapped entity.
+ */
+public class CompiledRowMappers<T> {
+
+    private static final int MAX_COMPILED_MAPPERS = 64;
+
+    private final BiFunction<RowMetadata, String, Function<Row, T>> compiler;
+
+    private final Map<Key, Function<Row, T>> mappers = new ConcurrentHashMap<>();
+
+    private volatile LastMapper<T> lastMapper;
+
+    /**
+     * @param compiler creates a row mapper from the metadata of a result set and a column prefix.
+     */
+    public CompiledRowMappers(BiFunction<RowMetadata, String, Function<Row, T>> compiler) {
+        this.compiler = compiler;
+    }
+
+    /**
+     * Get the row mapper for the rows described by the metadata, compiling it on first use.
+     * @param metadata which describes the columns of the rows.
+     * @param prefix the prefix of the entity columns.
+     * @return the compiled row mapper.
+     */
+    public Function<Row, T> get(RowMetadata metadata, String prefix) {
+        LastMapper<T> last = lastMapper;
+        if (last != null && last.metadata == metadata && last.prefix.equals(prefix)) {
+            return last.mapper;
+        }
+        Key key = new Key(prefix, new ArrayList<>(metadata.getColumnNames()));
+        Function<Row, T> mapper = mappers.get(key);
+        if (mapper == null) {
+            mapper = compiler.apply(metadata, prefix);
+            if (mappers.size() < MAX_COMPILED_MAPPERS) {
+                mappers.putIfAbsent(key, mapper);
+            }
+        }
+        lastMapper = new LastMapper<>(metadata, prefix, mapper);
+        return mapper;
+    }
+
+    private static final class Key {
+
+        private final String prefix;
+        private final List<String> columnNames;
+
+        private Key(String prefix, List<String> columnNames) {
+            this.prefix = prefix;
+            this.columnNames = columnNames;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return prefix.equals(other.prefix) && columnNames.equals(other.columnNames);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(prefix, columnNames);
+        }
+    }
+
+    private static final class LastMapper<T> {
+
+        private final RowMetadata metadata;
+        private final String prefix;
+        private final Function<Row, T> mapper;
+
+        private LastMapper(RowMetadata metadata, String prefix, Function<Row, T> mapper) {
+            this.metadata = metadata;
+            this.prefix = prefix;
+            this.mapper = mapper;
+        }
+    }
+}
@@ -3,8 +3,10 @@ package com.appsdeveloper.repository.rowmapper;
 import com.appsdeveloper.domain.Session;
 import com.appsdeveloper.service.ColumnConverter;
 import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
 import java.time.ZonedDateTime;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import org.springframework.stereotype.Service;
 
 /**
@@ -15,6 +17,8 @@ public class SessionRowMapper implements BiFunction<Row, String, Session> {
 
     private final ColumnConverter converter;
 
+    private final CompiledRowMappers<Session> compiledMappers = new CompiledRowMappers<>(this::compile);
+
     public SessionRowMapper(ColumnConverter converter) {
         this.converter = converter;
     }
@@ -33,4 +37,30 @@ public class SessionRowMapper implements BiFunction<Row, String, Session> {
         entity.setEndDateTime(converter.fromRow(row, prefix + "_end_date_time", ZonedDateTime.class));
         return entity;
     }
+
+    /**
+     * Take a {@link Row} described by its {@link RowMetadata} and a column prefix, and extract all the fields with a
+     * row mapper compiled once for these columns.
+     * @return the {@link Session} stored in the database.
+     */
+    public Session apply(Row row, RowMetadata metadata, String prefix) {
+        return compiledMappers.get(metadata, prefix).apply(row);
+    }
+
+    private Function<Row, Session> compile(RowMetadata metadata, String prefix) {
+        Function<Row, Long> id = converter.columnReader(metadata, prefix + "_id", Long.class);
+        Function<Row, String> title = converter.columnReader(metadata, prefix + "_title", String.class);
+        Function<Row, String> description = converter.columnReader(metadata, prefix + "_description", String.class);
+        Function<Row, ZonedDateTime> startDateTime = converter.columnReader(metadata, prefix + "_start_date_time", ZonedDateTime.class);
+        Function<Row, ZonedDateTime> endDateTime = converter.columnReader(metadata, prefix + "_end_date_time", ZonedDateTime.class);
+        return row -> {
+            Session entity = new Session();
+            entity.setId(id.apply(row));
+            entity.setTitle(title.apply(row));
+            entity.setDescription(description.apply(row));
+            entity.setStartDateTime(startDateTime.apply(row));
+            entity.setEndDateTime(endDateTime.apply(row));
+            return entity;
+        };
+    }
 }
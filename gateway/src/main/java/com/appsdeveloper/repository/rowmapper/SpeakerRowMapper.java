@@ -3,7 +3,9 @@ package com.appsdeveloper.repository.rowmapper;
 import com.appsdeveloper.domain.Speaker;
 import com.appsdeveloper.service.ColumnConverter;
 import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import org.springframework.stereotype.Service;
 
 /**
@@ -14,6 +16,8 @@ public class SpeakerRowMapper implements BiFunction<Row, String, Speaker> {
 
     private final ColumnConverter converter;
 
+    private final CompiledRowMappers<Speaker> compiledMappers = new CompiledRowMappers<>(this::compile);
+
     public SpeakerRowMapper(ColumnConverter converter) {
         this.converter = converter;
     }
@@ -33,4 +37,32 @@ public class SpeakerRowMapper implements BiFunction<Row, String, Speaker> {
         entity.setBio(converter.fromRow(row, prefix + "_bio", String.class));
         return entity;
     }
+
+    /**
+     * Take a {@link Row} described by its {@link RowMetadata} and a column prefix, and extract all the fields with a
+     * row mapper compiled once for these columns.
+     * @return the {@link Speaker} stored in the database.
+     */
+    public Speaker apply(Row row, RowMetadata metadata, String prefix) {
+        return compiledMappers.get(metadata, prefix).apply(row);
+    }
+
+    private Function<Row, Speaker> compile(RowMetadata metadata, String prefix) {
+        Function<Row, Long> id = converter.columnReader(metadata, prefix + "_id", Long.class);
+        Function<Row, String> firstName = converter.columnReader(metadata, prefix + "_first_name", String.class);
+        Function<Row, String> lastName = converter.columnReader(metadata, prefix + "_last_name", String.class);
+        Function<Row, String> email = converter.columnReader(metadata, prefix + "_email", String.class);
+        Function<Row, String> twitter = converter.columnReader(metadata, prefix + "_twitter", String.class);
+        Function<Row, String> bio = converter.columnReader(metadata, prefix + "_bio", String.class);
+        return row -> {
+            Speaker entity = new Speaker();
+            entity.setId(id.apply(row));
+            entity.setFirstName(firstName.apply(row));
+            entity.setLastName(lastName.apply(row));
+            entity.setEmail(email.apply(row));
+            entity.setTwitter(twitter.apply(row));
+            entity.setBio(bio.apply(row));
+            return entity;
+        };
+    }
 }
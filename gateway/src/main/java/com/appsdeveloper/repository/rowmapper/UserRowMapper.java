@@ -3,8 +3,10 @@ package com.appsdeveloper.repository.rowmapper;
 import com.appsdeveloper.domain.User;
 import com.appsdeveloper.service.ColumnConverter;
 import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
 import java.time.Instant;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import org.springframework.stereotype.Service;
 
 /**
@@ -15,6 +17,8 @@ public class UserRowMapper implements BiFunction<Row, String, User> {
 
     private final ColumnConverter converter;
 
+    private final CompiledRowMappers<User> compiledMappers = new CompiledRowMappers<>(this::compile);
+
     public UserRowMapper(ColumnConverter converter) {
         this.converter = converter;
     }
@@ -38,6 +42,58 @@ public class UserRowMapper implements BiFunction<Row, String, User> {
         entity.setActivationKey(converter.fromRow(row, prefix + "_activation_key", String.class));
         entity.setResetKey(converter.fromRow(row, prefix + "_reset_key", String.class));
         entity.setResetDate(converter.fromRow(row, prefix + "_reset_date", Instant.class));
+        entity.setCreatedBy(converter.fromRow(row, prefix + "_created_by", String.class));
+        entity.setCreatedDate(converter.fromRow(row, prefix + "_created_date", Instant.class));
+        entity.setLastModifiedBy(converter.fromRow(row, prefix + "_last_modified_by", String.class));
+        entity.setLastModifiedDate(converter.fromRow(row, prefix + "_last_modified_date", Instant.class));
         return entity;
     }
+
+    /**
+     * Take a {@link Row} described by its {@link RowMetadata} and a column prefix, and extract all the fields with a
+     * row mapper compiled once for these columns.
+     * @return the {@link User} stored in the database.
+     */
+    public User apply(Row row, RowMetadata metadata, String prefix) {
+        return compiledMappers.get(metadata, prefix).apply(row);
+    }
+
+    private Function<Row, User> compile(RowMetadata metadata, String prefix) {
+        Function<Row, Long> id = converter.columnReader(metadata, prefix + "_id", Long.class);
+        Function<Row, String> login = converter.columnReader(metadata, prefix + "_login", String.class);
+        Function<Row, String> password = converter.columnReader(metadata, prefix + "_password", String.class);
+        Function<Row, String> firstName = converter.columnReader(metadata, prefix + "_first_name", String.class);
+        Function<Row, String> lastName = converter.columnReader(metadata, prefix + "_last_name", String.class);
+        Function<Row, String> email = converter.columnReader(metadata, prefix + "_email", String.class);
+        Function<Row, Boolean> activated = converter.columnReader(metadata, prefix + "_activated", Boolean.class);
+        Function<Row, String> langKey = converter.columnReader(metadata, prefix + "_lang_key", String.class);
+        Function<Row, String> imageUrl = converter.columnReader(metadata, prefix + "_image_url", String.class);
+        Function<Row, String> activationKey = converter.columnReader(metadata, prefix + "_activation_key", String.class);
+        Function<Row, String> resetKey = converter.columnReader(metadata, prefix + "_reset_key", String.class);
+        Function<Row, Instant> resetDate = converter.columnReader(metadata, prefix + "_reset_date", Instant.class);
+        Function<Row, String> createdBy = converter.columnReader(metadata, prefix + "_created_by", String.class);
+        Function<Row, Instant> createdDate = converter.columnReader(metadata, prefix + "_created_date", Instant.class);
+        Function<Row, String> lastModifiedBy = converter.columnReader(metadata, prefix + "_last_modified_by", String.class);
+        Function<Row, Instant> lastModifiedDate = converter.columnReader(metadata, prefix + "_last_modified_date", Instant.class);
+        return row -> {
+            User entity = new User();
+            entity.setId(id.apply(row));
+            entity.setLogin(login.apply(row));
+            entity.setPassword(password.apply(row));
+            entity.setFirstName(firstName.apply(row));
+            entity.setLastName(lastName.apply(row));
+            entity.setEmail(email.apply(row));
+            entity.setActivated(Boolean.TRUE.equals(activated.apply(row)));
+            entity.setLangKey(langKey.apply(row));
+            entity.setImageUrl(imageUrl.apply(row));
+            entity.setActivationKey(activationKey.apply(row));
+            entity.setResetKey(resetKey.apply(row));
+            entity.setResetDate(resetDate.apply(row));
+            entity.setCreatedBy(createdBy.apply(row));
+            entity.setCreatedDate(createdDate.apply(row));
+            entity.setLastModifiedBy(lastModifiedBy.apply(row));
+            entity.setLastModifiedDate(lastModifiedDate.apply(row));
+            return entity;
+        };
+    }
 }
@@ -1,7 +1,7 @@
 package com.appsdeveloper.security;
 
 import com.appsdeveloper.domain.User;
-import com.appsdeveloper.repository.UserRepository;
+import com.appsdeveloper.service.UserCache;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
@@ -24,10 +24,12 @@ public class DomainUserDetailsService implements ReactiveUserDetailsService {
 
     private final Logger log = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
-    private final UserRepository userRepository;
+    private static final EmailValidator EMAIL_VALIDATOR = new EmailValidator();
 
-    public DomainUserDetailsService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    private final UserCache userCache;
+
+    public DomainUserDetailsService(UserCache userCache) {
+        this.userCache = userCache;
     }
 
     @Override
@@ -35,16 +37,16 @@ public class DomainUserDetailsService implements ReactiveUserDetailsService {
     public Mono<UserDetails> findByUsername(final String login) {
         log.debug("Authenticating {}", login);
 
-        if (new EmailValidator().isValid(login, null)) {
-            return userRepository
-                .findOneWithAuthoritiesByEmailIgnoreCase(login)
+        if (EMAIL_VALIDATOR.isValid(login, null)) {
+            return userCache
+                .getByEmail(login)
                 .switchIfEmpty(Mono.error(new UsernameNotFoundException("User with email " + login + " was not found in the database")))
                 .map(user -> createSpringSecurityUser(login, user));
         }
 
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
-        return userRepository
-            .findOneWithAuthoritiesByLogin(lowercaseLogin)
+        return userCache
+            .getByLogin(lowercaseLogin)
             .switchIfEmpty(Mono.error(new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database")))
             .map(user -> createSpringSecurityUser(lowercaseLogin, user));
     }
@@ -0,0 +1,13 @@
+package com.appsdeveloper.security;
+
+/**
+ * This exception is thrown when a password can't be hashed or checked because the password hashing queue is full.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException(Throwable cause) {
+        super("Too many password hashing requests", cause);
+    }
+}
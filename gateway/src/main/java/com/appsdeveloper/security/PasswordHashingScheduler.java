@@ -0,0 +1,129 @@
+package com.appsdeveloper.security;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Dedicated {@link Scheduler} for the BCrypt password hashing and checks.
+ * <p>
+ * A hash takes tens of milliseconds of CPU, so it must not run on the Netty event loops, and a login burst must not
+ * starve the shared {@link Schedulers#boundedElastic()} either. The hashes run on a fixed number of threads with a
+ * bounded queue: once the queue is full, new requests fail fast with a {@link PasswordHashingRejectedException}
+ * instead of waiting.
+ */
+@Component
+public class PasswordHashingScheduler implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+
+    private final Scheduler scheduler;
+
+    private final Timer queueWait;
+
+    private final Timer duration;
+
+    private final Counter rejections;
+
+    public PasswordHashingScheduler(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.PasswordHashing properties = applicationProperties.getPasswordHashing();
+        this.queueWait = Timer
+            .builder("password.hashing.queue.wait")
+            .description("The time spent by the password hashing requests in the queue")
+            .register(meterRegistry);
+        this.duration = Timer
+            .builder("password.hashing.duration")
+            .description("The time spent hashing or checking passwords")
+            .register(meterRegistry);
+        this.rejections = Counter
+            .builder("password.hashing.rejected")
+            .description("The number of password hashing requests rejected because the queue was full")
+            .register(meterRegistry);
+        this.executor = new TimedThreadPoolExecutor(
+            properties.getThreads(),
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+            new CustomizableThreadFactory("password-hashing-")
+        );
+        Gauge
+            .builder("password.hashing.queue.size", executor.getQueue(), BlockingQueue::size)
+            .description("The number of password hashing requests waiting in the queue")
+            .register(meterRegistry);
+        this.scheduler = Schedulers.fromExecutorService(executor, "password-hashing");
+    }
+
+    /**
+     * Get the scheduler, for the components which only accept a {@link Scheduler}.
+     * <p>
+     * A full queue makes the scheduled tasks fail with a {@link RejectedExecutionException}, see
+     * {@link #translateRejection(Throwable)}.
+     *
+     * @return the password hashing scheduler.
+     */
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Run a password hash or check on the password hashing threads.
+     *
+     * @param task the task hashing or checking a password.
+     * @param <T> the type of the result.
+     * @return a {@link Mono} emitting the result, or failing with a {@link PasswordHashingRejectedException} if the queue is full.
+     */
+    public <T> Mono<T> schedule(Callable<T> task) {
+        return Mono.fromCallable(task).subscribeOn(scheduler).onErrorMap(RejectedExecutionException.class, this::translateRejection);
+    }
+
+    /**
+     * Translate the rejection of a task by this scheduler to a {@link PasswordHashingRejectedException}.
+     *
+     * @param e the rejection.
+     * @return the exception to signal.
+     */
+    public PasswordHashingRejectedException translateRejection(Throwable e) {
+        rejections.increment();
+        return new PasswordHashingRejectedException(e);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    private class TimedThreadPoolExecutor extends ThreadPoolExecutor {
+
+        TimedThreadPoolExecutor(int threads, BlockingQueue<Runnable> queue, CustomizableThreadFactory threadFactory) {
+            super(threads, threads, 0L, TimeUnit.MILLISECONDS, queue, threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            long queuedAt = System.nanoTime();
+            super.execute(
+                () -> {
+                    long startedAt = System.nanoTime();
+                    queueWait.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                    try {
+                        command.run();
+                    } finally {
+                        duration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    }
+                }
+            );
+        }
+    }
+}
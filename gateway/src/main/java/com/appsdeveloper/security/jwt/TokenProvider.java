@@ -34,7 +34,10 @@ public class TokenProvider {
 
     private final long tokenValidityInMillisecondsForRememberMe;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties) {
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    public TokenProvider(JHipsterProperties jHipsterProperties, VerifiedTokenCache verifiedTokenCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getSecret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -76,22 +79,19 @@ public class TokenProvider {
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
-
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
-
-        User principal = new User(claims.getSubject(), "", authorities);
-
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        Authentication authentication = verifiedTokenCache.get(token);
+        if (authentication != null) {
+            return authentication;
+        }
+        return verify(token);
     }
 
     public boolean validateToken(String authToken) {
+        if (verifiedTokenCache.get(authToken) != null) {
+            return true;
+        }
         try {
-            jwtParser.parseClaimsJws(authToken);
+            verify(authToken);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             log.info("Invalid JWT token.");
@@ -99,4 +99,20 @@ public class TokenProvider {
         }
         return false;
     }
+
+    private Authentication verify(String token) {
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+
+        Collection<? extends GrantedAuthority> authorities = Arrays
+            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
+            .filter(auth -> !auth.trim().isEmpty())
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toList());
+
+        User principal = new User(claims.getSubject(), "", authorities);
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        verifiedTokenCache.put(token, claims.getExpiration(), authentication);
+        return authentication;
+    }
 }
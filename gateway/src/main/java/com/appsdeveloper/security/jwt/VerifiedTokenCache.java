@@ -0,0 +1,161 @@
+package com.appsdeveloper.security.jwt;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of already verified JWTs, so that the signature check and the claims parsing run once per token
+ * instead of once per filter.
+ * <p>
+ * Entries are keyed by a SHA-256 digest of the token and are dropped as soon as the token expires.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "jwt-tokens";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedTokenCache(ApplicationProperties applicationProperties) {
+        this.maxSize = applicationProperties.getTokenCache().getMaxSize();
+    }
+
+    /**
+     * Get the {@link Authentication} built from a previously verified token.
+     *
+     * @param token the raw JWT.
+     * @return the cached authentication, or {@code null} if the token is unknown or expired.
+     */
+    public Authentication get(String token) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null || !token.equals(entry.authentication.getCredentials())) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.authentication;
+    }
+
+    /**
+     * Store the {@link Authentication} built from a verified token until the token expires.
+     *
+     * @param token the raw JWT, which must have been verified.
+     * @param expiration the expiration of the token, tokens without expiration are not cached.
+     * @param authentication the authentication built from the token claims.
+     */
+    public void put(String token, Date expiration, Authentication authentication) {
+        if (maxSize <= 0 || expiration == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (expiration.getTime() <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(digest(token), new Entry(authentication, expiration.getTime()));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        entries
+            .entrySet()
+            .removeIf(
+                e -> {
+                    boolean expired = e.getValue().expiresAt <= now;
+                    if (expired) {
+                        evictions.increment();
+                    }
+                    return expired;
+                }
+            );
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter
+            .builder("cache.gets", hits, LongAdder::doubleValue)
+            .tags("cache", CACHE_NAME, "result", "hit")
+            .description("The number of times a verified token was found in the cache")
+            .register(registry);
+        FunctionCounter
+            .builder("cache.gets", misses, LongAdder::doubleValue)
+            .tags("cache", CACHE_NAME, "result", "miss")
+            .description("The number of times a token had to be verified")
+            .register(registry);
+        FunctionCounter
+            .builder("cache.evictions", evictions, LongAdder::doubleValue)
+            .tag("cache", CACHE_NAME)
+            .description("The number of verified tokens evicted from the cache")
+            .register(registry);
+        Gauge
+            .builder("cache.size", entries, Map::size)
+            .tag("cache", CACHE_NAME)
+            .description("The number of verified tokens in the cache")
+            .register(registry);
+    }
+
+    private static final class Entry {
+
+        private final Authentication authentication;
+
+        private final long expiresAt;
+
+        private Entry(Authentication authentication, long expiresAt) {
+            this.authentication = authentication;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
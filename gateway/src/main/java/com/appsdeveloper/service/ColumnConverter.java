@@ -1,6 +1,9 @@
 package com.appsdeveloper.service;
 
+import io.r2dbc.spi.ColumnMetadata;
 import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.function.Function;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
@@ -63,4 +66,64 @@ public class ColumnConverter {
             return convert(obj, target);
         }
     }
+
+    /**
+     * Creates a reader for a column of the rows described by the {@link RowMetadata}, so that the column index and the
+     * conversion are resolved once per result set instead of once per row.
+     * <p>
+     * Columns which the driver already returns as the target type are read directly. For the others, the driver is tried
+     * once, and if it can't produce the target type, the reader switches to the {@link ConversionService} for all the
+     * following rows, instead of throwing and catching an exception per row.
+     * @param metadata which describes the columns of the rows.
+     * @param columnName the name of the column to read.
+     * @param target class.
+     * @param <T> the parameter for the intended type.
+     * @return a function reading the converted column value from a row.
+     */
+    public <T> Function<Row, T> columnReader(RowMetadata metadata, String columnName, Class<T> target) {
+        int index = indexOf(metadata, columnName);
+        if (index < 0) {
+            return row -> fromRow(row, columnName, target);
+        }
+        Class<?> javaType = metadata.getColumnMetadata(index).getJavaType();
+        if (javaType != null && ClassUtils.isAssignable(target, javaType)) {
+            return row -> row.get(index, target);
+        }
+        return new ConvertingColumnReader<>(index, target);
+    }
+
+    private static int indexOf(RowMetadata metadata, String columnName) {
+        int index = 0;
+        for (ColumnMetadata column : metadata.getColumnMetadatas()) {
+            if (column.getName().equalsIgnoreCase(columnName)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    private final class ConvertingColumnReader<T> implements Function<Row, T> {
+
+        private final int index;
+        private final Class<T> target;
+        private volatile boolean driverUnsupported;
+
+        private ConvertingColumnReader(int index, Class<T> target) {
+            this.index = index;
+            this.target = target;
+        }
+
+        @Override
+        public T apply(Row row) {
+            if (!driverUnsupported) {
+                try {
+                    return row.get(index, target);
+                } catch (Exception e) {
+                    driverUnsupported = true;
+                }
+            }
+            return convert(row.get(index), target);
+        }
+    }
 }
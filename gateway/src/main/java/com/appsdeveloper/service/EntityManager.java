@@ -1,10 +1,22 @@
 package com.appsdeveloper.service;
 
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -15,8 +27,14 @@ import org.springframework.data.r2dbc.mapping.OutboundRow;
 import org.springframework.data.r2dbc.query.UpdateMapper;
 import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
 import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.CriteriaDefinition;
+import org.springframework.data.relational.core.sql.Column;
+import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
+import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.Functions;
 import org.springframework.data.relational.core.sql.OrderByField;
+import org.springframework.data.relational.core.sql.SQL;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
@@ -24,11 +42,14 @@ import org.springframework.data.relational.core.sql.SelectBuilder.SelectOrdered;
 import org.springframework.data.relational.core.sql.SqlIdentifier;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.core.sql.render.SqlRenderer;
-import org.springframework.r2dbc.core.Parameter;
+import org.springframework.data.util.Pair;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 /**
  * Helper class to create SQL selects based on the entity, paging parameters and criteria.
@@ -40,6 +61,11 @@ public class EntityManager {
     public static final String ENTITY_ALIAS = "e";
     public static final String ALIAS_PREFIX = "e_";
 
+    private static final String LINK_ALIAS = "l";
+    private static final String LINK_ID_ALIAS = "link_id";
+    private static final String PARAMETER_PREFIX = "p";
+    private static final int MAX_CACHED_SELECTS = 256;
+
     public static class LinkTable {
 
         final String tableName;
@@ -56,6 +82,45 @@ public class EntityManager {
         }
     }
 
+    /**
+     * Identifies the rendered SQL of a select: everything which changes the SQL text, but none of the bound values.
+     */
+    private static final class SelectShape {
+
+        private final Class<?> entityType;
+        private final Sort sort;
+        private final boolean paged;
+        private final String criteria;
+
+        private SelectShape(Class<?> entityType, Sort sort, boolean paged, String criteria) {
+            this.entityType = entityType;
+            this.sort = sort;
+            this.paged = paged;
+            this.criteria = criteria;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SelectShape)) {
+                return false;
+            }
+            SelectShape other = (SelectShape) o;
+            return (
+                entityType.equals(other.entityType) && sort.equals(other.sort) && paged == other.paged && criteria.equals(other.criteria)
+            );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityType, sort, paged, criteria);
+        }
+    }
+
+    private final Map<SelectShape, String> selectCache = new ConcurrentHashMap<>();
+
     private final SqlRenderer sqlRenderer;
     private final UpdateMapper updateMapper;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
@@ -130,6 +195,217 @@ public class EntityManager {
         }
     }
 
+    /**
+     * Creates an SQL select statement for the entity, with the criteria values and the pagination as bind parameters.
+     * The SQL is rendered once per entity type, sort, pagination and criteria shape, and then reused from a cache,
+     * so that only the parameters are bound per call.
+     * @param table the entity table, aliased with {@link #ENTITY_ALIAS}.
+     * @param columns provides the selected columns, only called when the SQL is not cached yet.
+     * @param entityType the entity type which holds the table name.
+     * @param pageable page parameter, or null, if everything needs to be returned
+     * @param criteria the criteria to filter the entities, or null.
+     * @return the sql select statement, with its parameters bound.
+     */
+    public DatabaseClient.GenericExecuteSpec createSelect(
+        Table table,
+        Supplier<List<Expression>> columns,
+        Class<?> entityType,
+        Pageable pageable,
+        Criteria criteria
+    ) {
+        boolean paged = pageable != null && pageable.isPaged();
+        Sort sort = pageable != null ? pageable.getSort() : Sort.unsorted();
+        List<CriteriaDefinition> criteriaChain = criteria != null ? flatten(criteria) : Collections.emptyList();
+        StringBuilder criteriaShape = new StringBuilder();
+        List<Object> parameters = new ArrayList<>();
+        collectParameters(criteriaChain, criteriaShape, parameters);
+
+        SelectShape shape = new SelectShape(entityType, sort, paged, criteriaShape.toString());
+        String sql = selectCache.get(shape);
+        if (sql == null) {
+            sql = renderSelect(table, columns.get(), entityType, sort, paged, criteriaChain);
+            if (selectCache.size() < MAX_CACHED_SELECTS) {
+                selectCache.putIfAbsent(shape, sql);
+            }
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = r2dbcEntityTemplate.getDatabaseClient().sql(sql);
+        for (int i = 0; i < parameters.size(); i++) {
+            spec = spec.bind(PARAMETER_PREFIX + i, toParameterValue(parameters.get(i)));
+        }
+        if (paged) {
+            spec = spec.bind("limit", pageable.getPageSize()).bind("offset", pageable.getOffset());
+        }
+        return spec;
+    }
+
+    /**
+     * Applies the custom write conversions to a criteria value, as it's bound directly to the statement.
+     */
+    private Object toParameterValue(Object value) {
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).stream().map(this::toParameterValue).collect(Collectors.toList());
+        }
+        R2dbcConverter converter = r2dbcEntityTemplate.getConverter();
+        Class<?> targetType = converter.getTargetType(value.getClass());
+        return targetType.isInstance(value) ? value : converter.getConversionService().convert(value, targetType);
+    }
+
+    private String renderSelect(
+        Table table,
+        List<Expression> columns,
+        Class<?> entityType,
+        Sort sort,
+        boolean paged,
+        List<CriteriaDefinition> criteriaChain
+    ) {
+        SelectFromAndJoin selectFrom = Select.builder().select(columns).from(table);
+        SelectOrdered select = selectFrom;
+        if (!criteriaChain.isEmpty()) {
+            select = selectFrom.where(createCondition(criteriaChain, table, getPersistentEntity(entityType), new AtomicInteger()));
+        }
+        String sql = createSelectImpl(select, entityType, sort);
+        return paged ? sql + " LIMIT :limit OFFSET :offset" : sql;
+    }
+
+    /**
+     * Returns the criteria of a chain in the order they were added, without the empty ones.
+     */
+    private static List<CriteriaDefinition> flatten(CriteriaDefinition criteria) {
+        LinkedList<CriteriaDefinition> chain = new LinkedList<>();
+        CriteriaDefinition current = criteria;
+        while (current != null) {
+            if (current.isGroup() || !current.isEmpty()) {
+                chain.addFirst(current);
+            }
+            current = current.hasPrevious() ? current.getPrevious() : null;
+        }
+        return chain;
+    }
+
+    private static void collectParameters(List<CriteriaDefinition> criteriaChain, StringBuilder shape, List<Object> parameters) {
+        for (CriteriaDefinition criteria : criteriaChain) {
+            shape.append(criteria.getCombinator()).append(' ');
+            if (criteria.isGroup()) {
+                shape.append('(');
+                for (CriteriaDefinition group : criteria.getGroup()) {
+                    collectParameters(flatten(group), shape, parameters);
+                }
+                shape.append(')');
+                continue;
+            }
+            shape.append(criteria.getColumn().getReference()).append(' ').append(criteria.getComparator());
+            shape.append(criteria.isIgnoreCase() ? " IGNORE CASE " : " ");
+            switch (criteria.getComparator()) {
+                case IS_NULL:
+                case IS_NOT_NULL:
+                case IS_TRUE:
+                case IS_FALSE:
+                    break;
+                case BETWEEN:
+                case NOT_BETWEEN:
+                    Pair<?, ?> range = (Pair<?, ?>) criteria.getValue();
+                    parameters.add(range.getFirst());
+                    parameters.add(range.getSecond());
+                    break;
+                default:
+                    parameters.add(criteria.getValue());
+            }
+        }
+    }
+
+    private static Condition createCondition(
+        List<CriteriaDefinition> criteriaChain,
+        Table table,
+        RelationalPersistentEntity<?> entity,
+        AtomicInteger parameterIndex
+    ) {
+        Condition condition = null;
+        for (CriteriaDefinition criteria : criteriaChain) {
+            Condition current;
+            if (criteria.isGroup()) {
+                Condition group = null;
+                for (CriteriaDefinition groupCriteria : criteria.getGroup()) {
+                    group = combine(group, groupCriteria, createCondition(flatten(groupCriteria), table, entity, parameterIndex));
+                }
+                current = Conditions.nest(group);
+            } else {
+                current = createCondition(criteria, table, entity, parameterIndex);
+            }
+            condition = combine(condition, criteria, current);
+        }
+        return condition;
+    }
+
+    private static Condition combine(Condition previous, CriteriaDefinition criteria, Condition current) {
+        if (previous == null) {
+            return current;
+        }
+        return criteria.getCombinator() == CriteriaDefinition.Combinator.OR ? previous.or(current) : previous.and(current);
+    }
+
+    private static Condition createCondition(
+        CriteriaDefinition criteria,
+        Table table,
+        RelationalPersistentEntity<?> entity,
+        AtomicInteger parameterIndex
+    ) {
+        String columnName = criteria.getColumn().getReference();
+        if (entity != null && entity.getPersistentProperty(columnName) != null) {
+            columnName = entity.getRequiredPersistentProperty(columnName).getColumnName().getReference();
+        }
+        Expression column = table.column(columnName);
+        switch (criteria.getComparator()) {
+            case IS_NULL:
+                return Conditions.isNull(column);
+            case IS_NOT_NULL:
+                return Conditions.isNull(column).not();
+            case IS_TRUE:
+                return Conditions.isEqual(column, SQL.literalOf(true));
+            case IS_FALSE:
+                return Conditions.isEqual(column, SQL.literalOf(false));
+            case BETWEEN:
+                return Conditions.between(column, nextBindMarker(parameterIndex), nextBindMarker(parameterIndex));
+            case NOT_BETWEEN:
+                return Conditions.notBetween(column, nextBindMarker(parameterIndex), nextBindMarker(parameterIndex));
+            case IN:
+                return Conditions.in(column, nextBindMarker(parameterIndex));
+            case NOT_IN:
+                return Conditions.notIn(column, nextBindMarker(parameterIndex));
+            default:
+                break;
+        }
+        Expression value = nextBindMarker(parameterIndex);
+        if (criteria.isIgnoreCase()) {
+            column = Functions.upper(column);
+            value = Functions.upper(value);
+        }
+        switch (criteria.getComparator()) {
+            case EQ:
+                return Conditions.isEqual(column, value);
+            case NEQ:
+                return Conditions.isNotEqual(column, value);
+            case LT:
+                return Conditions.isLess(column, value);
+            case LTE:
+                return Conditions.isLessOrEqualTo(column, value);
+            case GT:
+                return Conditions.isGreater(column, value);
+            case GTE:
+                return Conditions.isGreaterOrEqualTo(column, value);
+            case LIKE:
+                return Conditions.like(column, value);
+            case NOT_LIKE:
+                return Conditions.notLike(column, value);
+            default:
+                throw new UnsupportedOperationException("Comparator " + criteria.getComparator() + " is not supported");
+        }
+    }
+
+    private static Expression nextBindMarker(AtomicInteger parameterIndex) {
+        return SQL.bindMarker(":" + PARAMETER_PREFIX + parameterIndex.getAndIncrement());
+    }
+
     private String createSelectImpl(SelectOrdered selectFrom, Class<?> entityType, Sort sortParameter) {
         if (sortParameter != null && sortParameter.isSorted()) {
             RelationalPersistentEntity<?> entity = getPersistentEntity(entityType);
@@ -186,37 +462,107 @@ public class EntityManager {
 
     /**
      * Updates the table, which links the entity with the referred entities.
+     * Only the links which are missing are inserted, in a single multi-row statement, and only the links which are no longer
+     * referred are deleted, so the number of statements does not depend on the number of referred entities.
      * @param table describes the link table, it contains a table name, the column name for the id, and for the referred entity id.
      * @param entityId the id of the entity, for which the links are created.
      * @param referencedIds the id of the referred entities.
      * @return the number of inserted rows.
      */
     public Mono<Integer> updateLinkTable(LinkTable table, Long entityId, Stream<Long> referencedIds) {
-        return deleteFromLinkTable(table, entityId)
-            .then(
-                Flux
-                    .fromStream(referencedIds)
-                    .flatMap(
-                        (Long referenceId) -> {
-                            StatementMapper.InsertSpec insert = r2dbcEntityTemplate
-                                .getDataAccessStrategy()
-                                .getStatementMapper()
-                                .createInsert(table.tableName)
-                                .withColumn(table.idColumn, Parameter.from(entityId))
-                                .withColumn(table.referenceColumn, Parameter.from(referenceId));
-
-                            return r2dbcEntityTemplate
-                                .getDatabaseClient()
-                                .sql(statementMapper.getMappedObject(insert))
-                                .fetch()
-                                .rowsUpdated();
-                        }
-                    )
-                    .collectList()
-                    .map((List<Integer> updates) -> updates.stream().reduce(Integer::sum).orElse(0))
+        Assert.notNull(entityId, "entityId is null");
+        Set<Long> newIds = referencedIds.collect(Collectors.toCollection(LinkedHashSet::new));
+        StatementMapper.SelectSpec selectSpec = statementMapper
+            .createSelect(table.tableName)
+            .withProjection(table.referenceColumn)
+            .withCriteria(Criteria.where(table.idColumn).is(entityId));
+        return r2dbcEntityTemplate
+            .getDatabaseClient()
+            .sql(statementMapper.getMappedObject(selectSpec))
+            .map((row, metadata) -> row.get(table.referenceColumn, Long.class))
+            .all()
+            .collect(Collectors.toSet())
+            .flatMap(
+                (Set<Long> existingIds) -> {
+                    List<Long> removedIds = existingIds.stream().filter(id -> !newIds.contains(id)).collect(Collectors.toList());
+                    List<Long> addedIds = newIds.stream().filter(id -> !existingIds.contains(id)).collect(Collectors.toList());
+                    return deleteFromLinkTable(table, entityId, removedIds).then(insertIntoLinkTable(table, entityId, addedIds));
+                }
             );
     }
 
+    private Mono<Integer> insertIntoLinkTable(LinkTable table, Long entityId, List<Long> referencedIds) {
+        if (referencedIds.isEmpty()) {
+            return Mono.just(0);
+        }
+        StringBuilder insert = new StringBuilder("INSERT INTO ")
+            .append(table.tableName)
+            .append(" (")
+            .append(table.idColumn)
+            .append(", ")
+            .append(table.referenceColumn)
+            .append(") VALUES ");
+        for (int i = 0; i < referencedIds.size(); i++) {
+            insert.append(i == 0 ? "" : ", ").append("(:entityId, :referenceId").append(i).append(")");
+        }
+        DatabaseClient.GenericExecuteSpec spec = r2dbcEntityTemplate.getDatabaseClient().sql(insert.toString()).bind("entityId", entityId);
+        for (int i = 0; i < referencedIds.size(); i++) {
+            spec = spec.bind("referenceId" + i, referencedIds.get(i));
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    private Mono<Void> deleteFromLinkTable(LinkTable table, Long entityId, List<Long> referencedIds) {
+        if (referencedIds.isEmpty()) {
+            return Mono.empty();
+        }
+        StatementMapper.DeleteSpec deleteSpec = statementMapper
+            .createDelete(table.tableName)
+            .withCriteria(Criteria.where(table.idColumn).is(entityId).and(table.referenceColumn).in(referencedIds));
+        return r2dbcEntityTemplate.getDatabaseClient().sql(statementMapper.getMappedObject(deleteSpec)).then();
+    }
+
+    /**
+     * Fetches the entities referred through the link table by any of the given entities, with a single join query.
+     * @param <T> the type of the referred entities.
+     * @param table describes the link table, it contains a table name, the column name for the id, and for the referred entity id.
+     * @param referredTable the table of the referred entities, aliased with {@link #ENTITY_ALIAS}, with an {@code id} primary key.
+     * @param columns the columns of the referred entities, aliased with the {@link #ENTITY_ALIAS} prefix.
+     * @param entityIds the id of the entities, for which the links are fetched.
+     * @param rowMapper creates a referred entity from a row and its metadata, with columns prefixed by {@link #ENTITY_ALIAS}.
+     * @return the referred entities, grouped by the id of the entity referring them.
+     */
+    public <T> Mono<Map<Long, Collection<T>>> findLinkedEntities(
+        LinkTable table,
+        Table referredTable,
+        List<Expression> columns,
+        Collection<Long> entityIds,
+        BiFunction<Row, RowMetadata, T> rowMapper
+    ) {
+        if (entityIds.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        Table linkTable = Table.aliased(table.tableName, LINK_ALIAS);
+        List<Expression> selectedColumns = new ArrayList<>(columns);
+        selectedColumns.add(Column.aliased(table.idColumn, linkTable, LINK_ID_ALIAS));
+        Select select = Select
+            .builder()
+            .select(selectedColumns)
+            .from(referredTable)
+            .join(linkTable)
+            .on(linkTable.column(table.referenceColumn))
+            .equals(referredTable.column("id"))
+            .where(Conditions.in(linkTable.column(table.idColumn), SQL.bindMarker(":entityIds")))
+            .build();
+        return r2dbcEntityTemplate
+            .getDatabaseClient()
+            .sql(createSelect(select))
+            .bind("entityIds", entityIds)
+            .map((row, metadata) -> Tuples.of(row.get(LINK_ID_ALIAS, Long.class), rowMapper.apply(row, metadata)))
+            .all()
+            .collectMultimap(Tuple2::getT1, Tuple2::getT2);
+    }
+
     public Mono<Void> deleteFromLinkTable(LinkTable table, Long entityId) {
         Assert.notNull(entityId, "entityId is null");
         StatementMapper.DeleteSpec deleteSpec = r2dbcEntityTemplate
@@ -0,0 +1,150 @@
+package com.appsdeveloper.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * Version counters of the entity types, used to build the ETags of the REST resources.
+ * <p>
+ * The counters are kept in the {@code entity_version} table, so that all the gateway instances agree on them, and in
+ * memory, so that the conditional GETs are answered without querying the database. They are incremented in the
+ * transaction writing the entities, and in memory once it is committed, so a version is never paired with data which
+ * is not visible yet. The writes of the other instances are read every {@code application.entity-version.refresh-millis}.
+ */
+@Service
+public class EntityVersionService {
+
+    private final Logger log = LoggerFactory.getLogger(EntityVersionService.class);
+
+    private final DatabaseClient db;
+
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    public EntityVersionService(DatabaseClient db) {
+        this.db = db;
+    }
+
+    /**
+     * Build a strong ETag from the current versions of the entity types.
+     *
+     * @param resource the resource name, e.g. the request path.
+     * @param entityTypes the entity types which the resource representation depends on.
+     * @return the quoted ETag, read from the database only the first time an entity type is requested.
+     */
+    public Mono<String> getETag(String resource, Class<?>... entityTypes) {
+        List<String> names = Arrays.stream(entityTypes).map(EntityVersionService::name).collect(Collectors.toList());
+        if (versions.keySet().containsAll(names)) {
+            return Mono.just(buildETag(resource, names));
+        }
+        return getVersions(names)
+            .map(
+                loaded -> {
+                    names.forEach(name -> merge(name, loaded.getOrDefault(name, 0L)));
+                    return buildETag(resource, names);
+                }
+            );
+    }
+
+    /**
+     * Increment the version of an entity type, in the current transaction if any.
+     *
+     * @param entityType the written entity type.
+     * @return a {@link Mono} completing once the version is incremented.
+     */
+    public Mono<Void> increment(Class<?> entityType) {
+        String name = name(entityType);
+        return db
+            .sql("UPDATE entity_version SET version = version + 1 WHERE entity_type = :entityType")
+            .bind("entityType", name)
+            .then()
+            .then(getVersions(List.of(name)))
+            .flatMap(updated -> afterCommit(() -> updated.forEach(this::merge)));
+    }
+
+    /**
+     * Read the versions incremented by the other gateway instances.
+     *
+     * @return a {@link Mono} completing once the versions are read.
+     */
+    public Mono<Void> refresh() {
+        if (versions.isEmpty()) {
+            return Mono.empty();
+        }
+        return getVersions(new ArrayList<>(versions.keySet())).doOnNext(loaded -> loaded.forEach(this::merge)).then();
+    }
+
+    @Scheduled(fixedDelayString = "${application.entity-version.refresh-millis:1000}")
+    public void scheduleRefresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            log.debug("Entity versions are still being refreshed, skipping this run");
+            return;
+        }
+        refresh()
+            .doFinally(signal -> refreshing.set(false))
+            .subscribe(null, e -> log.warn("Could not refresh the entity versions: {}", e.getMessage()));
+    }
+
+    private String buildETag(String resource, List<String> names) {
+        StringBuilder eTag = new StringBuilder("\"").append(resource);
+        for (String name : names) {
+            eTag.append('-').append(Long.toString(versions.getOrDefault(name, 0L), Character.MAX_RADIX));
+        }
+        return eTag.append('"').toString();
+    }
+
+    private void merge(String name, long version) {
+        versions.merge(name, version, Math::max);
+    }
+
+    private Mono<Void> afterCommit(Runnable action) {
+        return TransactionSynchronizationManager
+            .forCurrentTransaction()
+            .flatMap(
+                synchronizationManager -> {
+                    if (!synchronizationManager.isSynchronizationActive()) {
+                        return Mono.<Void>fromRunnable(action);
+                    }
+                    synchronizationManager.registerSynchronization(
+                        new TransactionSynchronization() {
+                            @Override
+                            public Mono<Void> afterCommit() {
+                                return Mono.fromRunnable(action);
+                            }
+                        }
+                    );
+                    return Mono.<Void>empty();
+                }
+            )
+            .onErrorResume(NoTransactionException.class, e -> Mono.fromRunnable(action));
+    }
+
+    private Mono<Map<String, Long>> getVersions(List<String> names) {
+        return db
+            .sql("SELECT entity_type, version FROM entity_version WHERE entity_type IN (:entityTypes)")
+            .bind("entityTypes", names)
+            .map((row, metadata) -> Map.entry(row.get("entity_type", String.class), row.get("version", Long.class)))
+            .all()
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private static String name(Class<?> entityType) {
+        return entityType.getSimpleName().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,243 @@
+package com.appsdeveloper.service;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Outbox of the emails, sent in batches by a dedicated thread.
+ * <p>
+ * The messages are queued in a bounded queue, so a bulk operation can't flood the shared task executor: once the queue
+ * is full, new messages are dropped and counted. The dispatcher prepares the messages, then sends up to a batch of them
+ * through a single SMTP connection. The messages which failed are retried with an exponential backoff and a random
+ * jitter, until the maximum number of attempts is reached.
+ */
+@Component
+public class MailOutbox implements InitializingBean, DisposableBean {
+
+    private static final long IDLE_POLL_MILLIS = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(MailOutbox.class);
+
+    private final JavaMailSender javaMailSender;
+
+    private final BlockingQueue<Message> queue;
+
+    private final DelayQueue<Message> retries = new DelayQueue<>();
+
+    private final int batchSize;
+
+    private final int maxAttempts;
+
+    private final long retryBackoffMillis;
+
+    private final Timer sendLatency;
+
+    private final Counter sent;
+
+    private final Counter failed;
+
+    private final Counter rejected;
+
+    private final Counter retried;
+
+    private volatile boolean running;
+
+    private Thread dispatcher;
+
+    public MailOutbox(JavaMailSender javaMailSender, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.MailOutbox properties = applicationProperties.getMailOutbox();
+        this.javaMailSender = javaMailSender;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.batchSize = properties.getBatchSize();
+        this.maxAttempts = properties.getMaxAttempts();
+        this.retryBackoffMillis = properties.getRetryBackoffMillis();
+        this.sendLatency = Timer
+            .builder("mail.outbox.send")
+            .description("The time spent sending a batch of emails to the SMTP server")
+            .register(meterRegistry);
+        this.sent = Counter.builder("mail.outbox.sent").description("The number of emails sent").register(meterRegistry);
+        this.failed = Counter
+            .builder("mail.outbox.failed")
+            .description("The number of emails given up after the last attempt")
+            .register(meterRegistry);
+        this.rejected = Counter
+            .builder("mail.outbox.rejected")
+            .description("The number of emails dropped because the outbox was full")
+            .register(meterRegistry);
+        this.retried = Counter.builder("mail.outbox.retried").description("The number of email sending retries").register(meterRegistry);
+        Gauge
+            .builder("mail.outbox.queue.size", this, outbox -> outbox.queue.size() + outbox.retries.size())
+            .description("The number of emails waiting to be sent")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue an email.
+     *
+     * @param preparator prepares the email, it is called by the dispatcher thread.
+     * @return {@code true} if the email was queued, {@code false} if it was dropped because the outbox is full.
+     */
+    public boolean submit(MimeMessagePreparator preparator) {
+        if (queue.offer(new Message(preparator))) {
+            return true;
+        }
+        rejected.increment();
+        log.warn("Email dropped, the mail outbox is full");
+        return false;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        dispatcher = new Thread(this::dispatch, "mail-outbox");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        dispatcher.interrupt();
+        dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void dispatch() {
+        List<Message> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Message first = retries.poll();
+                if (first == null) {
+                    first = queue.poll(nextPollMillis(), TimeUnit.MILLISECONDS);
+                }
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                retries.drainTo(batch, batchSize - batch.size());
+                queue.drainTo(batch, batchSize - batch.size());
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in the mail outbox", e);
+            } finally {
+                batch.clear();
+            }
+        }
+        // best effort for the emails queued before the shutdown, without retries
+        queue.drainTo(batch);
+        for (int i = 0; i < batch.size(); i += batchSize) {
+            send(batch.subList(i, Math.min(i + batchSize, batch.size())));
+        }
+    }
+
+    private long nextPollMillis() {
+        Message next = retries.peek();
+        return next == null ? IDLE_POLL_MILLIS : Math.max(1, Math.min(IDLE_POLL_MILLIS, next.getDelay(TimeUnit.MILLISECONDS)));
+    }
+
+    private void send(List<Message> batch) {
+        Map<MimeMessage, Message> messages = new IdentityHashMap<>();
+        for (Message message : batch) {
+            try {
+                MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+                message.preparator.prepare(mimeMessage);
+                messages.put(mimeMessage, message);
+            } catch (Exception e) {
+                failed.increment();
+                log.warn("Email could not be prepared", e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<Object, Exception> failures = Collections.emptyMap();
+        try {
+            javaMailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                failures = allFailed(messages, e);
+            }
+        } catch (MailException e) {
+            failures = allFailed(messages, e);
+        } finally {
+            sendLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        sent.increment(messages.size() - failures.size());
+        failures.forEach((mimeMessage, e) -> retry(messages.get(mimeMessage), e));
+    }
+
+    private static Map<Object, Exception> allFailed(Map<MimeMessage, Message> messages, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        messages.keySet().forEach(mimeMessage -> failures.put(mimeMessage, e));
+        return failures;
+    }
+
+    private void retry(Message message, Exception e) {
+        if (message == null) {
+            return;
+        }
+        if (!running || message.attempts >= maxAttempts) {
+            failed.increment();
+            log.warn("Email could not be sent after {} attempts", message.attempts, e);
+            return;
+        }
+        // exponential backoff with a random jitter, so the retries of a batch don't hit the server at the same time
+        long backoff = retryBackoffMillis << Math.min(message.attempts - 1, 16);
+        message.retryAt = System.currentTimeMillis() + ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1);
+        message.attempts++;
+        retried.increment();
+        log.debug("Email could not be sent, retrying: {}", e.getMessage());
+        retries.add(message);
+    }
+
+    private static final class Message implements Delayed {
+
+        private final MimeMessagePreparator preparator;
+
+        private int attempts = 1;
+
+        private long retryAt;
+
+        private Message(MimeMessagePreparator preparator) {
+            this.preparator = preparator;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(retryAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
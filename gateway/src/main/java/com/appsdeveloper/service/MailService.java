@@ -3,15 +3,10 @@ package com.appsdeveloper.service;
 import com.appsdeveloper.domain.User;
 import java.nio.charset.StandardCharsets;
 import java.util.Locale;
-import javax.mail.MessagingException;
-import javax.mail.internet.MimeMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring5.SpringTemplateEngine;
@@ -20,7 +15,9 @@ import tech.jhipster.config.JHipsterProperties;
 /**
  * Service for sending emails.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * The emails are queued in the {@link MailOutbox}, which renders and sends them asynchronously. When the outbox is
+ * full, the emails are dropped, logged and counted by the outbox: the request which sent them has already written its
+ * data, so it doesn't fail.
  */
 @Service
 public class MailService {
@@ -33,7 +30,7 @@ public class MailService {
 
     private final JHipsterProperties jHipsterProperties;
 
-    private final JavaMailSender javaMailSender;
+    private final MailOutbox mailOutbox;
 
     private final MessageSource messageSource;
 
@@ -41,17 +38,16 @@ public class MailService {
 
     public MailService(
         JHipsterProperties jHipsterProperties,
-        JavaMailSender javaMailSender,
+        MailOutbox mailOutbox,
         MessageSource messageSource,
         SpringTemplateEngine templateEngine
     ) {
         this.jHipsterProperties = jHipsterProperties;
-        this.javaMailSender = javaMailSender;
+        this.mailOutbox = mailOutbox;
         this.messageSource = messageSource;
         this.templateEngine = templateEngine;
     }
 
-    @Async
     public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
         log.debug(
             "Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
@@ -61,50 +57,50 @@ public class MailService {
             subject,
             content
         );
-
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            log.debug("Sent email to User '{}'", to);
-        } catch (MailException | MessagingException e) {
-            log.warn("Email could not be sent to user '{}'", to, e);
-        }
+        mailOutbox.submit(
+            mimeMessage -> {
+                // Prepare message using a Spring helper
+                MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
+                message.setTo(to);
+                message.setFrom(jHipsterProperties.getMail().getFrom());
+                message.setSubject(subject);
+                message.setText(content, isHtml);
+            }
+        );
     }
 
-    @Async
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
         if (user.getEmail() == null) {
             log.debug("Email doesn't exist for user '{}'", user.getLogin());
             return;
         }
+        String to = user.getEmail();
         Locale locale = Locale.forLanguageTag(user.getLangKey());
         Context context = new Context(locale);
         context.setVariable(USER, user);
         context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmail(user.getEmail(), subject, content, false, true);
+        mailOutbox.submit(
+            mimeMessage -> {
+                // The template is rendered by the outbox, the parsed templates are cached by the template engine
+                MimeMessageHelper message = new MimeMessageHelper(mimeMessage, false, StandardCharsets.UTF_8.name());
+                message.setTo(to);
+                message.setFrom(jHipsterProperties.getMail().getFrom());
+                message.setSubject(messageSource.getMessage(titleKey, null, locale));
+                message.setText(templateEngine.process(templateName, context), true);
+            }
+        );
     }
 
-    @Async
     public void sendActivationEmail(User user) {
         log.debug("Sending activation email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
     }
 
-    @Async
     public void sendCreationEmail(User user) {
         log.debug("Sending creation email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
     }
 
-    @Async
     public void sendPasswordResetMail(User user) {
         log.debug("Sending password reset email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
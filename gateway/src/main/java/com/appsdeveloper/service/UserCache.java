@@ -0,0 +1,266 @@
+package com.appsdeveloper.service;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import com.appsdeveloper.domain.Authority;
+import com.appsdeveloper.domain.User;
+import com.appsdeveloper.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounded cache of the users with their authorities, keyed by lowercase login and email, so that the authentication
+ * and the account requests don't query the user and authority tables every time.
+ * <p>
+ * Concurrent misses on the same key share a single query. Each caller gets its own copy of the cached user, and the
+ * cache must be invalidated with {@link #invalidate(User)} whenever a user is written. The invalidation is local to this instance,
+ * so entries also expire after a configurable time.
+ */
+@Component
+public class UserCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "users";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final UserRepository userRepository;
+
+    private final int maxSize;
+
+    private final long timeToLiveMillis;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public UserCache(UserRepository userRepository, ApplicationProperties applicationProperties) {
+        this.userRepository = userRepository;
+        this.maxSize = applicationProperties.getUserCache().getMaxSize();
+        this.timeToLiveMillis = applicationProperties.getUserCache().getTimeToLiveSeconds() * 1000L;
+    }
+
+    /**
+     * Get the user with its authorities by login.
+     *
+     * @param login the login, in any case.
+     * @return the user, or an empty {@link Mono} if there is no user with this login.
+     */
+    public Mono<User> getByLogin(String login) {
+        String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
+        return get("login:" + lowercaseLogin, () -> userRepository.findOneWithAuthoritiesByLogin(lowercaseLogin));
+    }
+
+    /**
+     * Get the user with its authorities by email.
+     *
+     * @param email the email, in any case.
+     * @return the user, or an empty {@link Mono} if there is no user with this email.
+     */
+    public Mono<User> getByEmail(String email) {
+        return get("email:" + email.toLowerCase(Locale.ENGLISH), () -> userRepository.findOneWithAuthoritiesByEmailIgnoreCase(email));
+    }
+
+    /**
+     * Invalidate the cached user, under its current and previous login and email, now and once the current transaction
+     * is committed.
+     *
+     * @param user the written user.
+     * @return a {@link Mono} completing once the user is invalidated, or registered for the commit.
+     */
+    public Mono<Void> invalidate(User user) {
+        invalidateNow(user);
+        return TransactionSynchronizationManager
+            .forCurrentTransaction()
+            .flatMap(
+                synchronizationManager -> {
+                    if (synchronizationManager.isSynchronizationActive()) {
+                        synchronizationManager.registerSynchronization(
+                            new TransactionSynchronization() {
+                                @Override
+                                public Mono<Void> afterCommit() {
+                                    return Mono.fromRunnable(() -> invalidateNow(user));
+                                }
+                            }
+                        );
+                    }
+                    return Mono.<Void>empty();
+                }
+            )
+            .onErrorResume(NoTransactionException.class, e -> Mono.empty());
+    }
+
+    /**
+     * Invalidate the cached users with the given ids, e.g. after a bulk delete.
+     *
+     * @param userIds the ids of the written users.
+     */
+    public void invalidateAll(Collection<Long> userIds) {
+        generation.incrementAndGet();
+        entries.values().removeIf(entry -> entry.value != null && userIds.contains(entry.value.getId()));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Mono<User> get(String key, Supplier<Mono<User>> loader) {
+        if (maxSize <= 0) {
+            return loader.get();
+        }
+        long now = System.currentTimeMillis();
+        Entry loading = new Entry(generation.get(), now + timeToLiveMillis);
+        loading.user =
+            Mono
+                .defer(loader)
+                .doOnNext(
+                    user -> {
+                        loading.value = user;
+                        if (loading.generation != generation.get()) {
+                            // a user was written while loading, the result may be stale
+                            entries.remove(key, loading);
+                        }
+                    }
+                )
+                .doOnSuccess(
+                    user -> {
+                        if (user == null) {
+                            entries.remove(key, loading);
+                        }
+                    }
+                )
+                .doOnError(e -> entries.remove(key, loading))
+                .cache();
+        Entry entry = entries.compute(key, (k, current) -> current != null && current.expiresAt > now ? current : loading);
+        if (entry != loading) {
+            hits.increment();
+            return entry.user.map(UserCache::copy);
+        }
+        misses.increment();
+        if (entries.size() > maxSize) {
+            evict(now);
+        }
+        return entry.user.map(UserCache::copy);
+    }
+
+    private static User copy(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setLogin(user.getLogin());
+        copy.setPassword(user.getPassword());
+        copy.setFirstName(user.getFirstName());
+        copy.setLastName(user.getLastName());
+        copy.setEmail(user.getEmail());
+        copy.setActivated(user.isActivated());
+        copy.setLangKey(user.getLangKey());
+        copy.setImageUrl(user.getImageUrl());
+        copy.setActivationKey(user.getActivationKey());
+        copy.setResetKey(user.getResetKey());
+        copy.setResetDate(user.getResetDate());
+        copy.setCreatedBy(user.getCreatedBy());
+        copy.setCreatedDate(user.getCreatedDate());
+        copy.setLastModifiedBy(user.getLastModifiedBy());
+        copy.setLastModifiedDate(user.getLastModifiedDate());
+        Set<Authority> authorities = new HashSet<>();
+        for (Authority authority : user.getAuthorities()) {
+            Authority authorityCopy = new Authority();
+            authorityCopy.setName(authority.getName());
+            authorities.add(authorityCopy);
+        }
+        copy.setAuthorities(authorities);
+        return copy;
+    }
+
+    private void invalidateNow(User user) {
+        generation.incrementAndGet();
+        if (user.getLogin() != null) {
+            entries.remove("login:" + user.getLogin().toLowerCase(Locale.ENGLISH));
+        }
+        if (user.getEmail() != null) {
+            entries.remove("email:" + user.getEmail().toLowerCase(Locale.ENGLISH));
+        }
+        if (user.getId() != null) {
+            entries.values().removeIf(entry -> entry.value != null && Objects.equals(entry.value.getId(), user.getId()));
+        }
+    }
+
+    private void evict(long now) {
+        entries
+            .entrySet()
+            .removeIf(
+                e -> {
+                    boolean expired = e.getValue().expiresAt <= now;
+                    if (expired) {
+                        evictions.increment();
+                    }
+                    return expired;
+                }
+            );
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() > maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter
+            .builder("cache.gets", hits, LongAdder::doubleValue)
+            .tags("cache", CACHE_NAME, "result", "hit")
+            .description("The number of times a user was found in the cache, or was already being loaded")
+            .register(registry);
+        FunctionCounter
+            .builder("cache.gets", misses, LongAdder::doubleValue)
+            .tags("cache", CACHE_NAME, "result", "miss")
+            .description("The number of times a user had to be loaded from the database")
+            .register(registry);
+        FunctionCounter
+            .builder("cache.evictions", evictions, LongAdder::doubleValue)
+            .tag("cache", CACHE_NAME)
+            .description("The number of users evicted from the cache")
+            .register(registry);
+        Gauge
+            .builder("cache.size", entries, Map::size)
+            .tag("cache", CACHE_NAME)
+            .description("The number of users in the cache")
+            .register(registry);
+    }
+
+    private static final class Entry {
+
+        private final long generation;
+
+        private final long expiresAt;
+
+        private Mono<User> user;
+
+        private volatile User value;
+
+        private Entry(long generation, long expiresAt) {
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
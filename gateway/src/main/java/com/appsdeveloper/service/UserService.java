@@ -1,19 +1,25 @@
 package com.appsdeveloper.service;
 
+import com.appsdeveloper.config.ApplicationProperties;
 import com.appsdeveloper.config.Constants;
 import com.appsdeveloper.domain.Authority;
 import com.appsdeveloper.domain.User;
 import com.appsdeveloper.repository.AuthorityRepository;
 import com.appsdeveloper.repository.UserRepository;
 import com.appsdeveloper.security.AuthoritiesConstants;
+import com.appsdeveloper.security.PasswordHashingScheduler;
 import com.appsdeveloper.security.SecurityUtils;
 import com.appsdeveloper.service.dto.AdminUserDTO;
 import com.appsdeveloper.service.dto.UserDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
@@ -21,6 +27,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
@@ -40,10 +47,51 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final PasswordHashingScheduler passwordHashingScheduler;
+
+    private final UserCache userCache;
+
+    private final TransactionalOperator transactionalOperator;
+
+    private final ApplicationProperties.UserPurge userPurge;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer purgeTimer;
+
+    private final Counter purgedUsers;
+
+    private final Counter purgedBatches;
+
+    private final AtomicBoolean purgeRunning = new AtomicBoolean();
+
+    public UserService(
+        UserRepository userRepository,
+        PasswordEncoder passwordEncoder,
+        AuthorityRepository authorityRepository,
+        PasswordHashingScheduler passwordHashingScheduler,
+        UserCache userCache,
+        TransactionalOperator transactionalOperator,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
+        this.passwordHashingScheduler = passwordHashingScheduler;
+        this.userCache = userCache;
+        this.transactionalOperator = transactionalOperator;
+        this.userPurge = applicationProperties.getUserPurge();
+        this.meterRegistry = meterRegistry;
+        this.purgeTimer =
+            Timer.builder("users.purge").description("The time taken to delete the not activated users").register(meterRegistry);
+        this.purgedUsers =
+            Counter.builder("users.purge.deleted").description("The number of deleted not activated users").register(meterRegistry);
+        this.purgedBatches =
+            Counter
+                .builder("users.purge.batches")
+                .description("The number of batches of not activated users deleted")
+                .register(meterRegistry);
     }
 
     @Transactional
@@ -68,14 +116,18 @@ public class UserService {
         return userRepository
             .findOneByResetKey(key)
             .filter(user -> user.getResetDate().isAfter(Instant.now().minusSeconds(86400)))
-            .publishOn(Schedulers.boundedElastic())
-            .map(
-                user -> {
-                    user.setPassword(passwordEncoder.encode(newPassword));
-                    user.setResetKey(null);
-                    user.setResetDate(null);
-                    return user;
-                }
+            .flatMap(
+                user ->
+                    passwordHashingScheduler
+                        .schedule(() -> passwordEncoder.encode(newPassword))
+                        .map(
+                            encryptedPassword -> {
+                                user.setPassword(encryptedPassword);
+                                user.setResetKey(null);
+                                user.setResetDate(null);
+                                return user;
+                            }
+                        )
             )
             .flatMap(this::saveUser);
     }
@@ -103,7 +155,7 @@ public class UserService {
             .flatMap(
                 existingUser -> {
                     if (!existingUser.isActivated()) {
-                        return userRepository.delete(existingUser);
+                        return deleteUser(existingUser);
                     } else {
                         return Mono.error(new UsernameAlreadyUsedException());
                     }
@@ -113,15 +165,14 @@ public class UserService {
             .flatMap(
                 existingUser -> {
                     if (!existingUser.isActivated()) {
-                        return userRepository.delete(existingUser);
+                        return deleteUser(existingUser);
                     } else {
                         return Mono.error(new EmailAlreadyUsedException());
                     }
                 }
             )
-            .publishOn(Schedulers.boundedElastic())
             .then(
-                Mono.fromCallable(
+                passwordHashingScheduler.schedule(
                     () -> {
                         User newUser = new User();
                         String encryptedPassword = passwordEncoder.encode(password);
@@ -176,16 +227,14 @@ public class UserService {
             .fromIterable(userDTO.getAuthorities() != null ? userDTO.getAuthorities() : new HashSet<>())
             .flatMap(authorityRepository::findById)
             .doOnNext(authority -> user.getAuthorities().add(authority))
-            .then(Mono.just(user))
-            .publishOn(Schedulers.boundedElastic())
+            .then(passwordHashingScheduler.schedule(() -> passwordEncoder.encode(RandomUtil.generatePassword())))
             .map(
-                newUser -> {
-                    String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
-                    newUser.setPassword(encryptedPassword);
-                    newUser.setResetKey(RandomUtil.generateResetKey());
-                    newUser.setResetDate(Instant.now());
-                    newUser.setActivated(true);
-                    return newUser;
+                encryptedPassword -> {
+                    user.setPassword(encryptedPassword);
+                    user.setResetKey(RandomUtil.generateResetKey());
+                    user.setResetDate(Instant.now());
+                    user.setActivated(true);
+                    return user;
                 }
             )
             .flatMap(this::saveUser)
@@ -232,7 +281,7 @@ public class UserService {
     public Mono<Void> deleteUser(String login) {
         return userRepository
             .findOneByLogin(login)
-            .flatMap(user -> userRepository.delete(user).thenReturn(user))
+            .flatMap(user -> deleteUser(user).thenReturn(user))
             .doOnNext(user -> log.debug("Deleted User: {}", user))
             .then();
     }
@@ -288,7 +337,8 @@ public class UserService {
                                 Flux
                                     .fromIterable(user.getAuthorities())
                                     .flatMap(authority -> userRepository.saveUserAuthority(savedUser.getId(), authority.getName()))
-                                    .then(Mono.just(savedUser))
+                                    .then(userCache.invalidate(savedUser))
+                                    .thenReturn(savedUser)
                         );
                 }
             );
@@ -299,17 +349,19 @@ public class UserService {
         return SecurityUtils
             .getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
-            .publishOn(Schedulers.boundedElastic())
-            .map(
-                user -> {
-                    String currentEncryptedPassword = user.getPassword();
-                    if (!passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword)) {
-                        throw new InvalidPasswordException();
-                    }
-                    String encryptedPassword = passwordEncoder.encode(newPassword);
-                    user.setPassword(encryptedPassword);
-                    return user;
-                }
+            .flatMap(
+                user ->
+                    passwordHashingScheduler.schedule(
+                        () -> {
+                            String currentEncryptedPassword = user.getPassword();
+                            if (!passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword)) {
+                                throw new InvalidPasswordException();
+                            }
+                            String encryptedPassword = passwordEncoder.encode(newPassword);
+                            user.setPassword(encryptedPassword);
+                            return user;
+                        }
+                    )
             )
             .flatMap(this::saveUser)
             .doOnNext(user -> log.debug("Changed password for User: {}", user))
@@ -333,32 +385,72 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public Mono<User> getUserWithAuthoritiesByLogin(String login) {
-        return userRepository.findOneWithAuthoritiesByLogin(login);
+        return userCache.getByLogin(login);
     }
 
     @Transactional(readOnly = true)
     public Mono<User> getUserWithAuthorities() {
-        return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin);
+        return SecurityUtils.getCurrentUserLogin().flatMap(userCache::getByLogin);
     }
 
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
+     * This is scheduled to get fired everyday, at 01:00 (am). The users are deleted in the background, so the scheduling
+     * thread is released at once, and a run is skipped while the previous one is still deleting.
      */
     @Scheduled(cron = "0 0 1 * * ?")
     public void removeNotActivatedUsers() {
-        removeNotActivatedUsersReactively().blockLast();
+        if (!purgeRunning.compareAndSet(false, true)) {
+            log.warn("Not activated users are still being deleted, skipping this run");
+            return;
+        }
+        removeNotActivatedUsersReactively()
+            .subscribeOn(Schedulers.boundedElastic())
+            .doFinally(signal -> purgeRunning.set(false))
+            .subscribe(
+                deleted -> log.info("Deleted {} not activated users", deleted),
+                e -> log.error("Could not delete the not activated users", e)
+            );
     }
 
-    @Transactional
-    public Flux<User> removeNotActivatedUsersReactively() {
-        return userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(
-                LocalDateTime.ofInstant(Instant.now().minus(3, ChronoUnit.DAYS), ZoneOffset.UTC)
-            )
-            .flatMap(user -> userRepository.delete(user).thenReturn(user))
-            .doOnNext(user -> log.debug("Deleted User: {}", user));
+    /**
+     * Delete the users not activated for 3 days, by batches of ids, each batch in its own transaction.
+     *
+     * @return the number of deleted users.
+     */
+    public Mono<Long> removeNotActivatedUsersReactively() {
+        return Mono.defer(
+            () -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                return userRepository
+                    .findIdsOfNotActivatedUsersCreatedBefore(
+                        LocalDateTime.ofInstant(Instant.now().minus(3, ChronoUnit.DAYS), ZoneOffset.UTC)
+                    )
+                    .buffer(userPurge.getBatchSize())
+                    .flatMap(this::deleteNotActivatedUsers, userPurge.getConcurrency())
+                    .reduce(0L, Long::sum)
+                    .doFinally(signal -> sample.stop(purgeTimer));
+            }
+        );
+    }
+
+    private Mono<Long> deleteNotActivatedUsers(List<Long> userIds) {
+        return transactionalOperator
+            .transactional(userRepository.deleteNotActivatedUsersByIdIn(userIds))
+            .map(
+                deleted -> {
+                    userCache.invalidateAll(userIds);
+                    purgedUsers.increment(deleted);
+                    purgedBatches.increment();
+                    log.debug("Deleted a batch of {} not activated users", deleted);
+                    return deleted.longValue();
+                }
+            );
+    }
+
+    private Mono<Void> deleteUser(User user) {
+        return userRepository.delete(user).then(userCache.invalidate(user));
     }
 
     /**
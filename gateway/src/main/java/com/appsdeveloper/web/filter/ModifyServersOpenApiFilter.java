@@ -1,15 +1,22 @@
 package com.appsdeveloper.web.filter;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Objects;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -22,8 +29,8 @@ import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DataBufferUtils;
-import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
 import org.springframework.stereotype.Component;
@@ -31,11 +38,28 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+/**
+ * Adds the gateway route of a microservice to the {@code servers} of its OpenAPI docs.
+ * <p>
+ * The document is copied token by token from the upstream response, so only the {@code servers} field is replaced,
+ * and the rewritten documents of the successful responses are kept in the {@link OpenApiDocsCache}.
+ */
 @Component
 public class ModifyServersOpenApiFilter implements GlobalFilter, Ordered {
 
     private static final Logger log = LoggerFactory.getLogger(ModifyServersOpenApiFilter.class);
 
+    private static final String SERVERS_FIELD = "servers";
+
+    private final JsonFactory jsonFactory;
+
+    private final OpenApiDocsCache openApiDocsCache;
+
+    public ModifyServersOpenApiFilter(ObjectMapper objectMapper, OpenApiDocsCache openApiDocsCache) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.openApiDocsCache = openApiDocsCache;
+    }
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         String path = exchange.getRequest().getURI().getPath();
@@ -69,7 +93,8 @@ public class ModifyServersOpenApiFilter implements GlobalFilter, Ordered {
         private final String path;
         private final ServerHttpResponse originalResponse;
         private final DataBufferFactory bufferFactory;
-        private String rewritedBody = "";
+        private byte[] rewritedBody;
+        private boolean rewritedBodyZipped;
 
         private ModifyServersOpenApiInterceptor(String path, ServerHttpResponse originalResponse, DataBufferFactory bufferFactory) {
             super(originalResponse);
@@ -79,68 +104,116 @@ public class ModifyServersOpenApiFilter implements GlobalFilter, Ordered {
         }
 
         public String getRewritedBody() {
-            return rewritedBody;
+            if (rewritedBody == null) {
+                return "";
+            }
+            if (!rewritedBodyZipped) {
+                return new String(rewritedBody, StandardCharsets.UTF_8);
+            }
+            try (GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(rewritedBody))) {
+                return new String(gzipInputStream.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
 
         @Override
         public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
-            rewritedBody = "";
+            rewritedBody = null;
             if (body instanceof Flux) {
-                Flux<? extends DataBuffer> fluxBody = (Flux<? extends DataBuffer>) body;
-
-                return super.writeWith(fluxBody.buffer().map(dataBuffers -> rewriteBodyWithServers(dataBuffers)));
+                return super.writeWith(DataBufferUtils.join(body).map(this::rewriteBodyWithServers));
             }
             // when body is not a flux
             return super.writeWith(body);
         }
 
-        private DataBuffer rewriteBodyWithServers(List<? extends DataBuffer> dataBuffers) {
-            DataBufferFactory dataBufferFactory = new DefaultDataBufferFactory();
-            DataBuffer join = dataBufferFactory.join(dataBuffers);
-            byte[] content = new byte[join.readableByteCount()];
-            join.read(content);
-
-            // release memory
-            DataBufferUtils.release(join);
-            String strBody = contentToString(content);
+        private DataBuffer rewriteBodyWithServers(DataBuffer upstreamBody) {
+            boolean zipped = isZippedResponse();
+            // an error response of the microservice must not be served again once it is back
+            boolean cacheable = originalResponse.getStatusCode() == HttpStatus.OK;
+            String key = cacheable ? OpenApiDocsCache.key(path, zipped, upstreamVersion(upstreamBody)) : null;
+            byte[] body = cacheable ? openApiDocsCache.get(key) : null;
+            if (body == null) {
+                int readPosition = upstreamBody.readPosition();
+                try {
+                    body = rewriteServers(upstreamBody.asInputStream(), zipped);
+                } catch (IOException e) {
+                    log.error("Error when modify servers from api-doc of {}: {}", path, e.getMessage());
+                    upstreamBody.readPosition(readPosition);
+                    return upstreamBody;
+                }
+                if (cacheable) {
+                    openApiDocsCache.put(key, body);
+                }
+            }
+            DataBufferUtils.release(upstreamBody);
+            rewritedBody = body;
+            rewritedBodyZipped = zipped;
+            originalResponse.getHeaders().setContentLength(body.length);
+            return bufferFactory.wrap(body);
+        }
 
+        /**
+         * Identify the upstream document by its ETag, or else by a digest of its content, which is still cheaper than
+         * parsing it.
+         */
+        private String upstreamVersion(DataBuffer upstreamBody) {
+            String eTag = originalResponse.getHeaders().getETag();
+            if (eTag != null) {
+                return eTag;
+            }
             try {
-                // create custom server
-                ObjectMapper mapper = new ObjectMapper();
-                JsonNode jsonBody = mapper.readTree(strBody);
-                ObjectNode serversToJson = mapper.createObjectNode();
-                serversToJson.set("url", mapper.valueToTree(path.replace("/v3/api-docs", "")));
-                serversToJson.set("description", mapper.valueToTree("added by global filter"));
-
-                // add custom server
-                ArrayNode servers = mapper.createArrayNode();
-                servers.add(serversToJson);
-                ((ObjectNode) jsonBody).set("servers", servers);
-
-                rewritedBody = jsonBody.toString();
-                return rewritedBodyToDataBuffer();
-            } catch (JsonProcessingException e) {
-                log.error("Error when modify servers from api-doc of {}: {}", path, e.getMessage());
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                digest.update(upstreamBody.asByteBuffer());
+                return Base64.getEncoder().encodeToString(digest.digest());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
             }
-            return join;
         }
 
-        private DataBuffer rewritedBodyToDataBuffer() {
-            if (isZippedResponse()) {
-                byte[] zippedBody = zipContent(rewritedBody);
-                originalResponse.getHeaders().setContentLength(zippedBody.length);
-                return bufferFactory.wrap(zippedBody);
+        private byte[] rewriteServers(InputStream upstreamBody, boolean zipped) throws IOException {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            try (
+                InputStream in = zipped ? new GZIPInputStream(upstreamBody) : upstreamBody;
+                OutputStream out = zipped ? new GZIPOutputStream(byteArrayOutputStream) : byteArrayOutputStream;
+                JsonParser parser = jsonFactory.createParser(in);
+                JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)
+            ) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "The api-doc is not a JSON object");
+                }
+                generator.writeStartObject();
+                boolean serversWritten = false;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+                    parser.nextToken();
+                    if (SERVERS_FIELD.equals(fieldName)) {
+                        parser.skipChildren();
+                        if (!serversWritten) {
+                            writeServers(generator);
+                            serversWritten = true;
+                        }
+                    } else {
+                        generator.writeFieldName(fieldName);
+                        generator.copyCurrentStructure(parser);
+                    }
+                }
+                if (!serversWritten) {
+                    writeServers(generator);
+                }
+                generator.writeEndObject();
             }
-            originalResponse.getHeaders().setContentLength(rewritedBody.getBytes().length);
-            return bufferFactory.wrap(rewritedBody.getBytes());
+            return byteArrayOutputStream.toByteArray();
         }
 
-        private String contentToString(byte[] content) {
-            if (isZippedResponse()) {
-                byte[] unzippedContent = unzipContent(content);
-                return new String(unzippedContent, StandardCharsets.UTF_8);
-            }
-            return new String(content, StandardCharsets.UTF_8);
+        private void writeServers(JsonGenerator generator) throws IOException {
+            // add custom server
+            generator.writeArrayFieldStart(SERVERS_FIELD);
+            generator.writeStartObject();
+            generator.writeStringField("url", path.replace("/v3/api-docs", ""));
+            generator.writeStringField("description", "added by global filter");
+            generator.writeEndObject();
+            generator.writeEndArray();
         }
 
         private boolean isZippedResponse() {
@@ -150,31 +223,5 @@ public class ModifyServersOpenApiFilter implements GlobalFilter, Ordered {
                 Objects.requireNonNull(originalResponse.getHeaders().get(HttpHeaders.CONTENT_ENCODING)).contains("gzip")
             );
         }
-
-        private byte[] unzipContent(byte[] content) {
-            try {
-                GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(content));
-                byte[] unzippedContent = gzipInputStream.readAllBytes();
-                gzipInputStream.close();
-                return unzippedContent;
-            } catch (IOException e) {
-                log.error("Error when unzip content during modify servers from api-doc of {}: {}", path, e.getMessage());
-            }
-            return content;
-        }
-
-        private byte[] zipContent(String content) {
-            try {
-                ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(content.length());
-                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream);
-                gzipOutputStream.write(content.getBytes(StandardCharsets.UTF_8));
-                gzipOutputStream.flush();
-                gzipOutputStream.close();
-                return byteArrayOutputStream.toByteArray();
-            } catch (IOException e) {
-                log.error("Error when zip content during modify servers from api-doc of {}: {}", path, e.getMessage());
-            }
-            return content.getBytes();
-        }
     }
 }
@@ -0,0 +1,118 @@
+package com.appsdeveloper.web.filter;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of the OpenAPI docs rewritten by the {@link ModifyServersOpenApiFilter}.
+ * <p>
+ * Keys are built from the path, the content encoding and a version of the upstream document, so that the gzip and
+ * identity variants are cached separately, and a new upstream document is rewritten again.
+ */
+@Component
+public class OpenApiDocsCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "api-docs";
+
+    private final Map<String, byte[]> entries = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public OpenApiDocsCache(ApplicationProperties applicationProperties) {
+        this.maxSize = applicationProperties.getApiDocsCache().getMaxSize();
+    }
+
+    /**
+     * Build the key of a rewritten document.
+     *
+     * @param path the path of the document.
+     * @param zipped whether the document is gzipped.
+     * @param upstreamVersion the ETag of the upstream document, or a digest of its content.
+     * @return the key.
+     */
+    public static String key(String path, boolean zipped, String upstreamVersion) {
+        return path + (zipped ? "|gzip|" : "|identity|") + upstreamVersion;
+    }
+
+    /**
+     * Get a rewritten document.
+     *
+     * @param key the key of the document.
+     * @return the rewritten document, or {@code null} if it is not cached.
+     */
+    public byte[] get(String key) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        byte[] body = entries.get(key);
+        if (body == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return body;
+    }
+
+    /**
+     * Store a rewritten document, which must not be modified afterwards.
+     *
+     * @param key the key of the document.
+     * @param body the rewritten document.
+     */
+    public void put(String key, byte[] body) {
+        if (maxSize <= 0) {
+            return;
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            Iterator<String> keys = entries.keySet().iterator();
+            while (entries.size() >= maxSize && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+                evictions.increment();
+            }
+        }
+        entries.put(key, body);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter
+            .builder("cache.gets", hits, LongAdder::doubleValue)
+            .tags("cache", CACHE_NAME, "result", "hit")
+            .description("The number of times a rewritten OpenAPI document was found in the cache")
+            .register(registry);
+        FunctionCounter
+            .builder("cache.gets", misses, LongAdder::doubleValue)
+            .tags("cache", CACHE_NAME, "result", "miss")
+            .description("The number of times an OpenAPI document had to be rewritten")
+            .register(registry);
+        FunctionCounter
+            .builder("cache.evictions", evictions, LongAdder::doubleValue)
+            .tag("cache", CACHE_NAME)
+            .description("The number of rewritten OpenAPI documents evicted from the cache")
+            .register(registry);
+        Gauge
+            .builder("cache.size", entries, Map::size)
+            .tag("cache", CACHE_NAME)
+            .description("The number of rewritten OpenAPI documents in the cache")
+            .register(registry);
+    }
+}
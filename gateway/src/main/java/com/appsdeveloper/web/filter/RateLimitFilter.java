@@ -0,0 +1,109 @@
+package com.appsdeveloper.web.filter;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import com.appsdeveloper.gateway.ratelimit.LocalRateLimiter;
+import com.appsdeveloper.gateway.ratelimit.RateLimitKeyResolver;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+/**
+ * Limit the requests served by the gateway itself, such as the authentication, with the rate limit policies of the
+ * {@code application.yml} file.
+ * <p>
+ * The throttled requests are answered with 429 (Too Many Requests) in the RFC7807 format, with a {@code Retry-After}
+ * header.
+ */
+@Component
+public class RateLimitFilter implements WebFilter, Ordered {
+
+    /**
+     * Run after Spring Security, so that the user of the request is known.
+     */
+    public static final int RATE_LIMIT_FILTER_ORDER = 0;
+
+    private final LocalRateLimiter rateLimiter;
+
+    private final List<Policy> policies;
+
+    public RateLimitFilter(ApplicationProperties applicationProperties, LocalRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+        this.policies =
+            applicationProperties
+                .getRateLimit()
+                .getPolicies()
+                .entrySet()
+                .stream()
+                .map(
+                    entry ->
+                        new Policy(
+                            entry.getKey(),
+                            entry.getValue().getPaths().stream().map(PathPatternParser.defaultInstance::parse).collect(Collectors.toList()),
+                            RateLimitKeyResolver.of(entry.getValue().getKey(), applicationProperties.getRateLimit().getTrustedProxies())
+                        )
+                )
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public int getOrder() {
+        return RATE_LIMIT_FILTER_ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        Policy policy = findPolicy(exchange);
+        if (policy == null) {
+            return chain.filter(exchange);
+        }
+        return policy.keyResolver
+            .resolve(exchange)
+            .flatMap(key -> rateLimiter.isAllowed(policy.name, key))
+            .flatMap(
+                response -> {
+                    // the headers are kept by the ProblemExceptionHandler
+                    response.getHeaders().forEach(exchange.getResponse().getHeaders()::set);
+                    if (!response.isAllowed()) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many requests, retry later"));
+                    }
+                    return chain.filter(exchange);
+                }
+            );
+    }
+
+    private Policy findPolicy(ServerWebExchange exchange) {
+        for (Policy policy : policies) {
+            for (PathPattern path : policy.paths) {
+                if (path.matches(exchange.getRequest().getPath().pathWithinApplication())) {
+                    return policy;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static final class Policy {
+
+        private final String name;
+
+        private final List<PathPattern> paths;
+
+        private final KeyResolver keyResolver;
+
+        private Policy(String name, List<PathPattern> paths, KeyResolver keyResolver) {
+            this.name = name;
+            this.paths = paths;
+            this.keyResolver = keyResolver;
+        }
+    }
+}
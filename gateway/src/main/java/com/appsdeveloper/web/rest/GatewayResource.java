@@ -1,6 +1,8 @@
 package com.appsdeveloper.web.rest;
 
+import com.appsdeveloper.gateway.cache.ResponseCache;
 import com.appsdeveloper.security.AuthoritiesConstants;
+import com.appsdeveloper.web.rest.errors.BadRequestAlertException;
 import com.appsdeveloper.web.rest.vm.RouteVM;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,8 +12,11 @@ import org.springframework.cloud.gateway.route.Route;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.http.*;
 import org.springframework.security.access.annotation.Secured;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.pattern.PatternParseException;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * REST controller for managing Gateway configuration.
@@ -24,12 +29,15 @@ public class GatewayResource {
 
     private final DiscoveryClient discoveryClient;
 
+    private final ResponseCache responseCache;
+
     @Value("${spring.application.name}")
     private String appName;
 
-    public GatewayResource(RouteLocator routeLocator, DiscoveryClient discoveryClient) {
+    public GatewayResource(RouteLocator routeLocator, DiscoveryClient discoveryClient, ResponseCache responseCache) {
         this.routeLocator = routeLocator;
         this.discoveryClient = discoveryClient;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -60,4 +68,21 @@ public class GatewayResource {
         );
         return ResponseEntity.ok(routeVMs);
     }
+
+    /**
+     * {@code DELETE  /cache} : purge the cached responses of the microservices.
+     *
+     * @param path the pattern of the paths to purge, such as {@code /services/conference/api/sessions/**}, or all the
+     *             paths if absent.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 400 (Bad Request)} if
+     *         the pattern is invalid.
+     */
+    @DeleteMapping("/cache")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public Mono<ResponseEntity<Void>> purgeCache(@RequestParam(required = false) String path) {
+        return Mono
+            .fromCallable(() -> responseCache.purge(path))
+            .onErrorMap(PatternParseException.class, e -> new BadRequestAlertException("Invalid path pattern", "gateway", "pathinvalid"))
+            .map(purged -> ResponseEntity.noContent().build());
+    }
 }
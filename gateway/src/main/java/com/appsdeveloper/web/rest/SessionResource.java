@@ -1,10 +1,18 @@
 package com.appsdeveloper.web.rest;
 
 import com.appsdeveloper.domain.Session;
+import com.appsdeveloper.domain.Speaker;
 import com.appsdeveloper.repository.SessionRepository;
+import com.appsdeveloper.service.EntityVersionService;
 import com.appsdeveloper.web.rest.errors.BadRequestAlertException;
+import com.appsdeveloper.web.rest.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -13,12 +21,15 @@ import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
@@ -41,8 +52,11 @@ public class SessionResource {
 
     private final SessionRepository sessionRepository;
 
-    public SessionResource(SessionRepository sessionRepository) {
+    private final EntityVersionService entityVersionService;
+
+    public SessionResource(SessionRepository sessionRepository, EntityVersionService entityVersionService) {
         this.sessionRepository = sessionRepository;
+        this.entityVersionService = entityVersionService;
     }
 
     /**
@@ -193,12 +207,75 @@ public class SessionResource {
     /**
      * {@code GET  /sessions} : get all the sessions.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of sessions in body.
+     * @param exchange the exchange, to check the {@code If-None-Match} header of the request.
+     * @param after the cursor of the previous page, to page through the sessions sorted by start date.
+     * @param size the page size, when paging with a cursor.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of sessions in body,
+     * or with status {@code 304 (Not Modified)} if the sessions didn't change.
      */
     @GetMapping("/sessions")
-    public Mono<List<Session>> getAllSessions() {
-        log.debug("REST request to get all Sessions");
-        return sessionRepository.findAll().collectList();
+    public Mono<ResponseEntity<List<Session>>> getAllSessions(
+        ServerWebExchange exchange,
+        @RequestParam(required = false) String after,
+        @RequestParam(required = false) Integer size
+    ) {
+        if (after == null && size == null) {
+            log.debug("REST request to get all Sessions");
+            // the version is read before the sessions, so that the ETag is never newer than the body
+            return entityVersionService
+                .getETag("sessions", Speaker.class, Session.class)
+                .flatMap(
+                    eTag -> {
+                        if (exchange.checkNotModified(eTag)) {
+                            return Mono.just(notModified(eTag));
+                        }
+                        return sessionRepository
+                            .findAllWithEagerRelationships()
+                            .collectList()
+                            .map(sessions -> ResponseEntity.ok().eTag(eTag).body(sessions));
+                    }
+                );
+        }
+        log.debug("REST request to get a page of Sessions after : {}", after);
+        KeysetPaginationUtil.Cursor cursor = decodeCursor(after);
+        ZonedDateTime startDateTime = null;
+        if (cursor != null) {
+            try {
+                startDateTime = ZonedDateTime.ofInstant(Instant.parse(cursor.getSortValue()), ZoneOffset.UTC);
+            } catch (DateTimeException e) {
+                throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+            }
+        }
+        int pageSize = KeysetPaginationUtil.pageSize(size);
+        return sessionRepository
+            .findAllWithEagerRelationshipsAfter(startDateTime, cursor != null ? cursor.getId() : null, pageSize + 1)
+            .collectList()
+            .map(
+                sessions -> {
+                    if (sessions.size() <= pageSize) {
+                        return ResponseEntity.ok(sessions);
+                    }
+                    Session last = sessions.get(pageSize - 1);
+                    HttpHeaders headers = KeysetPaginationUtil.generateNextPageHttpHeaders(
+                        UriComponentsBuilder.fromHttpRequest(exchange.getRequest()),
+                        KeysetPaginationUtil.encodeCursor(last.getStartDateTime().toInstant().toString(), last.getId()),
+                        pageSize
+                    );
+                    return ResponseEntity.ok().headers(headers).body(new ArrayList<>(sessions.subList(0, pageSize)));
+                }
+            );
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+
+    private KeysetPaginationUtil.Cursor decodeCursor(String after) {
+        try {
+            return KeysetPaginationUtil.decodeCursor(after);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
     }
 
     /**
@@ -215,13 +292,25 @@ public class SessionResource {
      * {@code GET  /sessions/:id} : get the "id" session.
      *
      * @param id the id of the session to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the session, or with status {@code 404 (Not Found)}.
+     * @param exchange the exchange, to check the {@code If-None-Match} header of the request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the session,
+     * or with status {@code 304 (Not Modified)} if it didn't change, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/sessions/{id}")
-    public Mono<ResponseEntity<Session>> getSession(@PathVariable Long id) {
+    public Mono<ResponseEntity<Session>> getSession(@PathVariable Long id, ServerWebExchange exchange) {
         log.debug("REST request to get Session : {}", id);
-        Mono<Session> session = sessionRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(session);
+        return entityVersionService
+            .getETag("sessions-" + id, Speaker.class, Session.class)
+            .flatMap(
+                eTag -> {
+                    if (exchange.checkNotModified(eTag)) {
+                        return Mono.just(notModified(eTag));
+                    }
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.setETag(eTag);
+                    return ResponseUtil.wrapOrNotFound(sessionRepository.findOneWithEagerRelationships(id), headers);
+                }
+            );
     }
 
     /**
@@ -1,10 +1,14 @@
 package com.appsdeveloper.web.rest;
 
+import com.appsdeveloper.domain.Session;
 import com.appsdeveloper.domain.Speaker;
 import com.appsdeveloper.repository.SpeakerRepository;
+import com.appsdeveloper.service.EntityVersionService;
 import com.appsdeveloper.web.rest.errors.BadRequestAlertException;
+import com.appsdeveloper.web.rest.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -13,12 +17,15 @@ import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
@@ -41,8 +48,11 @@ public class SpeakerResource {
 
     private final SpeakerRepository speakerRepository;
 
-    public SpeakerResource(SpeakerRepository speakerRepository) {
+    private final EntityVersionService entityVersionService;
+
+    public SpeakerResource(SpeakerRepository speakerRepository, EntityVersionService entityVersionService) {
         this.speakerRepository = speakerRepository;
+        this.entityVersionService = entityVersionService;
     }
 
     /**
@@ -196,13 +206,70 @@ public class SpeakerResource {
     /**
      * {@code GET  /speakers} : get all the speakers.
      *
+     * @param exchange the exchange, to check the {@code If-None-Match} header of the request.
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of speakers in body.
+     * @param after the cursor of the previous page, to page through the speakers sorted by last name.
+     * @param size the page size, when paging with a cursor.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of speakers in body,
+     * or with status {@code 304 (Not Modified)} if the speakers didn't change.
      */
     @GetMapping("/speakers")
-    public Mono<List<Speaker>> getAllSpeakers(@RequestParam(required = false, defaultValue = "false") boolean eagerload) {
-        log.debug("REST request to get all Speakers");
-        return speakerRepository.findAllWithEagerRelationships().collectList();
+    public Mono<ResponseEntity<List<Speaker>>> getAllSpeakers(
+        ServerWebExchange exchange,
+        @RequestParam(required = false, defaultValue = "false") boolean eagerload,
+        @RequestParam(required = false) String after,
+        @RequestParam(required = false) Integer size
+    ) {
+        if (after == null && size == null) {
+            log.debug("REST request to get all Speakers");
+            // the version is read before the speakers, so that the ETag is never newer than the body
+            return entityVersionService
+                .getETag("speakers", Speaker.class, Session.class)
+                .flatMap(
+                    eTag -> {
+                        if (exchange.checkNotModified(eTag)) {
+                            return Mono.just(notModified(eTag));
+                        }
+                        return speakerRepository
+                            .findAllWithEagerRelationships()
+                            .collectList()
+                            .map(speakers -> ResponseEntity.ok().eTag(eTag).body(speakers));
+                    }
+                );
+        }
+        log.debug("REST request to get a page of Speakers after : {}", after);
+        KeysetPaginationUtil.Cursor cursor = decodeCursor(after);
+        String lastName = cursor != null ? cursor.getSortValue() : null;
+        int pageSize = KeysetPaginationUtil.pageSize(size);
+        return speakerRepository
+            .findAllWithEagerRelationshipsAfter(lastName, cursor != null ? cursor.getId() : null, pageSize + 1)
+            .collectList()
+            .map(
+                speakers -> {
+                    if (speakers.size() <= pageSize) {
+                        return ResponseEntity.ok(speakers);
+                    }
+                    Speaker last = speakers.get(pageSize - 1);
+                    HttpHeaders headers = KeysetPaginationUtil.generateNextPageHttpHeaders(
+                        UriComponentsBuilder.fromHttpRequest(exchange.getRequest()),
+                        KeysetPaginationUtil.encodeCursor(last.getLastName(), last.getId()),
+                        pageSize
+                    );
+                    return ResponseEntity.ok().headers(headers).body(new ArrayList<>(speakers.subList(0, pageSize)));
+                }
+            );
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+
+    private KeysetPaginationUtil.Cursor decodeCursor(String after) {
+        try {
+            return KeysetPaginationUtil.decodeCursor(after);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
     }
 
     /**
@@ -219,13 +286,25 @@ public class SpeakerResource {
      * {@code GET  /speakers/:id} : get the "id" speaker.
      *
      * @param id the id of the speaker to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the speaker, or with status {@code 404 (Not Found)}.
+     * @param exchange the exchange, to check the {@code If-None-Match} header of the request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the speaker,
+     * or with status {@code 304 (Not Modified)} if it didn't change, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/speakers/{id}")
-    public Mono<ResponseEntity<Speaker>> getSpeaker(@PathVariable Long id) {
+    public Mono<ResponseEntity<Speaker>> getSpeaker(@PathVariable Long id, ServerWebExchange exchange) {
         log.debug("REST request to get Speaker : {}", id);
-        Mono<Speaker> speaker = speakerRepository.findOneWithEagerRelationships(id);
-        return ResponseUtil.wrapOrNotFound(speaker);
+        return entityVersionService
+            .getETag("speakers-" + id, Speaker.class, Session.class)
+            .flatMap(
+                eTag -> {
+                    if (exchange.checkNotModified(eTag)) {
+                        return Mono.just(notModified(eTag));
+                    }
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.setETag(eTag);
+                    return ResponseUtil.wrapOrNotFound(speakerRepository.findOneWithEagerRelationships(id), headers);
+                }
+            );
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.appsdeveloper.web.rest.errors;
 
+import com.appsdeveloper.security.PasswordHashingRejectedException;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collection;
@@ -13,6 +14,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.stereotype.Component;
@@ -165,6 +167,14 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         return create(ex, problem, request);
     }
 
+    @ExceptionHandler
+    public Mono<ResponseEntity<Problem>> handlePasswordHashingRejected(PasswordHashingRejectedException ex, ServerWebExchange request) {
+        Problem problem = Problem.builder().withStatus(Status.SERVICE_UNAVAILABLE).withDetail(ex.getMessage()).build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return create(ex, problem, request, headers);
+    }
+
     @Override
     public ProblemBuilder prepare(final Throwable throwable, final StatusType status, final URI type) {
         Collection<String> activeProfiles = Arrays.asList(env.getActiveProfiles());
@@ -0,0 +1,217 @@
+package com.appsdeveloper.gateway.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+class ResponseCacheFilterTest {
+
+    private static final Route ROUTE = Route.async().id("conference").uri("lb://conference").predicate(exchange -> true).build();
+
+    private final List<HttpHeaders> upstreamRequests = new ArrayList<>();
+
+    private ApplicationProperties applicationProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ResponseCache responseCache;
+
+    private ResponseCacheFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        responseCache = new ResponseCache(applicationProperties);
+        meterRegistry = new SimpleMeterRegistry();
+        responseCache.bindTo(meterRegistry);
+        filter = new ResponseCacheFilter(applicationProperties, responseCache);
+    }
+
+    @Test
+    void testServeFreshResponseFromCache() {
+        GatewayFilterChain chain = upstream(response -> response.getHeaders().setCacheControl("public, max-age=60"), "sessions");
+
+        MockServerWebExchange first = get("/services/conference/api/sessions");
+        filter.filter(first, chain).block();
+        MockServerWebExchange second = get("/services/conference/api/sessions");
+        filter.filter(second, chain).block();
+
+        assertThat(upstreamRequests).hasSize(1);
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("sessions");
+        assertThat(second.getResponse().getHeaders().getCacheControl()).isEqualTo("public, max-age=60");
+        assertThat(second.getResponse().getHeaders().getFirst(HttpHeaders.AGE)).isEqualTo("0");
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(responseCache.getBytes()).isEqualTo(8);
+    }
+
+    @Test
+    void testNotStorePrivateResponses() {
+        GatewayFilterChain chain = upstream(response -> response.getHeaders().setCacheControl("private, max-age=60"), "account");
+
+        filter.filter(get("/services/conference/api/sessions"), chain).block();
+        filter.filter(get("/services/conference/api/sessions"), chain).block();
+        filter.filter(get("/api/account"), upstream(response -> response.getHeaders().setCacheControl("public, max-age=60"), "")).block();
+
+        assertThat(upstreamRequests).hasSize(3);
+        assertThat(responseCache.size()).isZero();
+    }
+
+    @Test
+    void testRevalidateStaleResponseWithETag() {
+        filter
+            .filter(
+                get("/services/conference/api/sessions"),
+                upstream(
+                    response -> {
+                        response.getHeaders().setCacheControl("public, max-age=0");
+                        response.getHeaders().setETag("\"v1\"");
+                    },
+                    "sessions"
+                )
+            )
+            .block();
+        MockServerWebExchange exchange = get("/services/conference/api/sessions");
+        exchange.getResponse().getHeaders().set("X-RateLimit-Remaining", "9");
+
+        filter
+            .filter(
+                exchange,
+                upstream(
+                    response -> {
+                        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+                        response.getHeaders().setCacheControl("public, max-age=60");
+                    },
+                    ""
+                )
+            )
+            .block();
+
+        assertThat(upstreamRequests.get(1).getIfNoneMatch()).containsExactly("\"v1\"");
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("sessions");
+        assertThat(exchange.getResponse().getHeaders().getETag()).isEqualTo("\"v1\"");
+        assertThat(exchange.getResponse().getHeaders().getCacheControl()).isEqualTo("public, max-age=60");
+        assertThat(exchange.getResponse().getHeaders().getFirst("X-RateLimit-Remaining")).isEqualTo("9");
+        assertThat(meterRegistry.get("cache.revalidations").tag("result", "not-modified").functionCounter().count()).isEqualTo(1);
+
+        MockServerWebExchange conditional = MockServerWebExchange.from(
+            MockServerHttpRequest.get("http://localhost/services/conference/api/sessions").ifNoneMatch("\"v1\"")
+        );
+        conditional.getAttributes().put(GATEWAY_ROUTE_ATTR, ROUTE);
+        filter.filter(conditional, upstream(response -> {}, "")).block();
+
+        assertThat(upstreamRequests).hasSize(2);
+        assertThat(conditional.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void testKeepVariantsApart() {
+        GatewayFilterChain chain = upstream(
+            response -> {
+                response.getHeaders().setCacheControl("public, max-age=60");
+                response.getHeaders().setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+            },
+            "sessions"
+        );
+
+        filter.filter(get("/services/conference/api/sessions", "gzip"), chain).block();
+        filter.filter(get("/services/conference/api/sessions", "identity"), chain).block();
+        filter.filter(get("/services/conference/api/sessions", "identity"), chain).block();
+        filter.filter(get("/services/conference/api/sessions?page=1", "identity"), chain).block();
+
+        assertThat(upstreamRequests).hasSize(3);
+    }
+
+    @Test
+    void testEvictLeastRecentlyUsedAndPurge() {
+        applicationProperties.getResponseCache().setMaxBytes(20);
+        responseCache = new ResponseCache(applicationProperties);
+        filter = new ResponseCacheFilter(applicationProperties, responseCache);
+        GatewayFilterChain chain = upstream(response -> response.getHeaders().setCacheControl("s-maxage=60"), "0123456789");
+
+        filter.filter(get("/services/conference/api/sessions/1"), chain).block();
+        filter.filter(get("/services/conference/api/sessions/2"), chain).block();
+        filter.filter(get("/services/conference/api/sessions/1"), chain).block();
+        filter.filter(get("/services/conference/api/sessions/3"), chain).block();
+
+        assertThat(upstreamRequests).hasSize(3);
+        assertThat(responseCache.size()).isEqualTo(1);
+        assertThat(responseCache.purge("/services/blog/**")).isZero();
+        assertThat(responseCache.purge("/services/conference/**")).isEqualTo(1);
+        assertThat(responseCache.getBytes()).isZero();
+    }
+
+    @Test
+    void testInvalidatePathAndCollectionOnSuccessfulUnsafeRequest() {
+        GatewayFilterChain chain = upstream(response -> response.getHeaders().setCacheControl("public, max-age=60"), "0123456789");
+        filter.filter(get("/services/conference/api/sessions"), chain).block();
+        filter.filter(get("/services/conference/api/sessions?page=1"), chain).block();
+        filter.filter(get("/services/conference/api/sessions/1"), chain).block();
+        filter.filter(get("/services/conference/api/sessions/2"), chain).block();
+        filter.filter(get("/services/conference/api/speakers"), chain).block();
+
+        filter
+            .filter(
+                exchange(MockServerHttpRequest.delete("http://localhost/services/conference/api/sessions/1")),
+                upstream(response -> response.setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR), "")
+            )
+            .block();
+
+        assertThat(responseCache.size()).isEqualTo(5);
+
+        filter
+            .filter(
+                exchange(MockServerHttpRequest.put("http://localhost/services/conference/api/sessions/1")),
+                upstream(response -> {}, "{}")
+            )
+            .block();
+
+        assertThat(responseCache.size()).isEqualTo(2);
+        assertThat(responseCache.getBytes()).isEqualTo(20);
+        filter.filter(get("/services/conference/api/sessions/2"), chain).block();
+        filter.filter(get("/services/conference/api/speakers"), chain).block();
+        assertThat(upstreamRequests).hasSize(7);
+    }
+
+    private GatewayFilterChain upstream(Consumer<ServerHttpResponse> customizer, String body) {
+        return exchange -> {
+            upstreamRequests.add(exchange.getRequest().getHeaders());
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            customizer.accept(response);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        };
+    }
+
+    private static MockServerWebExchange get(String path) {
+        return get(path, "gzip");
+    }
+
+    private static MockServerWebExchange get(String path, String acceptEncoding) {
+        return exchange(MockServerHttpRequest.get("http://localhost" + path).header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding));
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, ROUTE);
+        return exchange;
+    }
+}
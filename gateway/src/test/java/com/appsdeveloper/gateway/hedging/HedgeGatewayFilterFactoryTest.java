@@ -0,0 +1,240 @@
+package com.appsdeveloper.gateway.hedging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import com.appsdeveloper.gateway.loadbalancer.LoadBalancerStats;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+class HedgeGatewayFilterFactoryTest {
+
+    /**
+     * The large response is larger than the buffers of the clients and servers.
+     */
+    private static final int LARGE_RESPONSE_REPEAT = 256 * 1024;
+
+    private static final HttpServer slowServer = startServer("slow", 1000);
+
+    private static final HttpServer fastServer = startServer("fast", 0);
+
+    private final ServiceInstance slow = new DefaultServiceInstance("slow", "stub", "localhost", slowServer.getAddress().getPort(), false);
+
+    private final ServiceInstance fast = new DefaultServiceInstance("fast", "stub", "localhost", fastServer.getAddress().getPort(), false);
+
+    private ApplicationProperties applicationProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LoadBalancerStats loadBalancerStats;
+
+    private GatewayFilterChain chain;
+
+    private GatewayFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        loadBalancerStats = new LoadBalancerStats(applicationProperties, meterRegistry);
+        chain = mock(GatewayFilterChain.class);
+        when(chain.filter(any())).thenReturn(Mono.empty());
+        filter = createFilter(new HedgeBudget(applicationProperties));
+    }
+
+    @AfterAll
+    public static void stopServers() {
+        slowServer.stop(0);
+        fastServer.stop(0);
+    }
+
+    @Test
+    void testHedgeSlowRequest() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("http://localhost/services/stub/api/ping"));
+
+        filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("fast");
+        assertThat(meterRegistry.get("gateway.hedging.requests").tag("result", "won").counter().count()).isEqualTo(1);
+        verify(chain, never()).filter(any());
+        // the cancelled request to the slow instance is not recorded
+        assertThat(loadBalancerStats.getStats(slow).getInFlight()).isZero();
+        assertThat(loadBalancerStats.getStats(slow).getLatencyMillis(System.nanoTime())).isZero();
+        assertThat(loadBalancerStats.getStats(fast).getLatencyMillis(System.nanoTime())).isPositive();
+    }
+
+    @Test
+    void testApplyResponseTimeoutOfRoute() {
+        applicationProperties.getHedging().setBudgetBurst(0);
+        filter = createFilter(new HedgeBudget(applicationProperties));
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("http://localhost/services/stub/api/ping"));
+        Route route = Route
+            .async()
+            .id("stub")
+            .uri(URI.create("lb://stub"))
+            .predicate(e -> true)
+            .metadata(RESPONSE_TIMEOUT_ATTR, 100)
+            .build();
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+
+        assertThatThrownBy(() -> filter.filter(exchange, chain).block(Duration.ofSeconds(5)))
+            .isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT));
+        assertThat(loadBalancerStats.getStats(slow).getInFlight()).isZero();
+    }
+
+    @Test
+    void testStreamLargeResponseOfHedgedRequest() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("http://localhost/services/stub/api/large"));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("http://localhost:" + slow.getPort() + "/api/large"));
+
+        filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+
+        String body = exchange.getResponse().getBodyAsString().block();
+        assertThat(body).hasSize(LARGE_RESPONSE_REPEAT * "fast".length()).startsWith("fast");
+        assertThat(meterRegistry.get("gateway.hedging.requests").tag("result", "won").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testPassThroughStreamingRequest() {
+        MockServerWebExchange exchange = exchange(
+            MockServerHttpRequest.get("http://localhost/services/stub/api/ping").accept(MediaType.TEXT_EVENT_STREAM)
+        );
+
+        filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+
+        verify(chain).filter(exchange);
+    }
+
+    @Test
+    void testNoHedgeWithoutBudget() {
+        applicationProperties.getHedging().setBudgetBurst(0);
+        filter = createFilter(new HedgeBudget(applicationProperties));
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("http://localhost/services/stub/api/ping"));
+
+        filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("slow");
+        assertThat(meterRegistry.get("gateway.hedging.skipped").tag("reason", "budget").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testPassThroughNonIdempotentRequest() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.post("http://localhost/services/stub/api/ping"));
+
+        filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+
+        verify(chain).filter(exchange);
+        assertThat(meterRegistry.find("gateway.hedging.latency").timer()).isNull();
+    }
+
+    @Test
+    void testBudgetLimitsHedgedRequests() {
+        applicationProperties.getHedging().setBudgetPercent(10);
+        applicationProperties.getHedging().setBudgetBurst(1);
+        HedgeBudget hedgeBudget = new HedgeBudget(applicationProperties);
+
+        assertThat(hedgeBudget.tryWithdraw()).isTrue();
+        assertThat(hedgeBudget.tryWithdraw()).isFalse();
+        for (int i = 0; i < 9; i++) {
+            hedgeBudget.deposit();
+        }
+        assertThat(hedgeBudget.tryWithdraw()).isFalse();
+        hedgeBudget.deposit();
+        assertThat(hedgeBudget.tryWithdraw()).isTrue();
+    }
+
+    private GatewayFilter createFilter(HedgeBudget hedgeBudget) {
+        LoadBalancerClientFactory loadBalancerClientFactory = mock(LoadBalancerClientFactory.class);
+        when(loadBalancerClientFactory.getLazyProvider("stub", ServiceInstanceListSupplier.class))
+            .thenReturn(ServiceInstanceListSuppliers.toProvider("stub", slow, fast));
+        HedgeGatewayFilterFactory factory = new HedgeGatewayFilterFactory(
+            HttpClient.create(),
+            new SimpleObjectProvider<>(Collections.emptyList()),
+            loadBalancerClientFactory,
+            loadBalancerStats,
+            hedgeBudget,
+            meterRegistry
+        );
+        HedgeGatewayFilterFactory.Config config = new HedgeGatewayFilterFactory.Config();
+        config.setMaxDelay(Duration.ofMillis(50));
+        return factory.apply(config);
+    }
+
+    private MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        Route route = Route.async().id("stub").uri(URI.create("lb://stub")).predicate(e -> true).build();
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("http://localhost:" + slow.getPort() + "/api/ping"));
+        exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(slow));
+        return exchange;
+    }
+
+    private static HttpServer startServer(String name, long delayMillis) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/api/ping", exchange -> respond(exchange, delayMillis, name.getBytes(StandardCharsets.UTF_8)));
+            server.createContext(
+                "/api/large",
+                exchange -> respond(exchange, delayMillis, name.repeat(LARGE_RESPONSE_REPEAT).getBytes(StandardCharsets.UTF_8))
+            );
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, long delayMillis, byte[] body) throws IOException {
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        } catch (IOException e) {
+            // the hedged request was cancelled
+        }
+    }
+}
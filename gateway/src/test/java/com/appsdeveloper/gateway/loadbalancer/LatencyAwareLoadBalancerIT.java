@@ -0,0 +1,108 @@
+package com.appsdeveloper.gateway.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.appsdeveloper.IntegrationTest;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Integration tests for the {@link LatencyAwareLoadBalancer}, routing to stub instances registered in the simple
+ * discovery client.
+ */
+@AutoConfigureWebTestClient
+@WithMockUser
+@IntegrationTest
+class LatencyAwareLoadBalancerIT {
+
+    private static final ConcurrentMap<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+
+    private static final HttpServer fastServer = startServer("fast", 0);
+
+    private static final HttpServer slowServer = startServer("slow", 500);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+
+    @DynamicPropertySource
+    static void registerStubs(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.stub[0].uri", () -> uri(fastServer));
+        registry.add("spring.cloud.discovery.client.simple.instances.stub[0].instance-id", () -> "fast");
+        registry.add("spring.cloud.discovery.client.simple.instances.stub[1].uri", () -> uri(slowServer));
+        registry.add("spring.cloud.discovery.client.simple.instances.stub[1].instance-id", () -> "slow");
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "stub");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "lb://stub");
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/services/stub/**");
+        registry.add("spring.cloud.gateway.routes[0].filters[0]", () -> "StripPrefix=2");
+        // forget the latency of the first requests, slowed down by the warm-up of the gateway
+        registry.add("application.load-balancer.decay-millis", () -> "200");
+    }
+
+    @AfterAll
+    static void stopServers() {
+        fastServer.stop(0);
+        slowServer.stop(0);
+    }
+
+    @Test
+    void testRouteToTheFastestInstance() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            webTestClient.get().uri("/services/stub/api/ping").exchange().expectStatus().isOk();
+        }
+        Thread.sleep(2000);
+        hits.values().forEach(count -> count.set(0));
+
+        for (int i = 0; i < 20; i++) {
+            webTestClient.get().uri("/services/stub/api/ping").exchange().expectStatus().isOk();
+        }
+
+        assertThat(hits.get("fast").get()).isGreaterThanOrEqualTo(17);
+        assertThat(hits.get("slow").get()).isLessThanOrEqualTo(3);
+    }
+
+    private static String uri(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static HttpServer startServer(String name, long delayMillis) {
+        hits.put(name, new AtomicInteger());
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext(
+                "/api/ping",
+                exchange -> {
+                    hits.get(name).incrementAndGet();
+                    try {
+                        Thread.sleep(delayMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    byte[] body = name.getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                }
+            );
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.appsdeveloper.gateway.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+class LatencyAwareLoadBalancerTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ServiceInstance fast = new DefaultServiceInstance("fast", "conference", "fast", 8081, false);
+
+    private final ServiceInstance slow = new DefaultServiceInstance("slow", "conference", "slow", 8081, false);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LoadBalancerStats loadBalancerStats;
+
+    private LatencyAwareLoadBalancer loadBalancer;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getLoadBalancer().setMinimumRequests(4);
+        meterRegistry = new SimpleMeterRegistry();
+        loadBalancerStats = new LoadBalancerStats(applicationProperties, meterRegistry);
+        loadBalancer =
+            new LatencyAwareLoadBalancer(ServiceInstanceListSuppliers.toProvider("conference", fast, slow), "conference", loadBalancerStats);
+    }
+
+    @Test
+    void testPreferTheFastestInstance() {
+        record(fast, 10 * MILLIS, false);
+        record(slow, 500 * MILLIS, false);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(choose().getServer()).isEqualTo(fast);
+        }
+    }
+
+    @Test
+    void testPreferTheLeastLoadedInstance() {
+        record(fast, 10 * MILLIS, false);
+        record(slow, 20 * MILLIS, false);
+        for (int i = 0; i < 2; i++) {
+            loadBalancerStats.getStats(fast).start();
+        }
+
+        assertThat(choose().getServer()).isEqualTo(slow);
+    }
+
+    @Test
+    void testTakeSlowResponsesAtOnce() {
+        InstanceStats stats = loadBalancerStats.getStats(fast);
+        long now = System.nanoTime();
+        stats.start();
+        stats.complete(10 * MILLIS, false, now);
+        stats.start();
+        stats.complete(500 * MILLIS, false, now + MILLIS);
+
+        assertThat(stats.getLatencyMillis(now + MILLIS)).isEqualTo(500);
+
+        stats.start();
+        stats.complete(10 * MILLIS, false, now + TimeUnit.SECONDS.toNanos(30));
+
+        assertThat(stats.getLatencyMillis(now + TimeUnit.SECONDS.toNanos(30))).isLessThan(50);
+    }
+
+    @Test
+    void testTrySlowInstancesAgainLater() {
+        long now = System.nanoTime();
+        InstanceStats fastStats = loadBalancerStats.getStats(fast);
+        fastStats.start();
+        fastStats.complete(10 * MILLIS, false, now);
+        InstanceStats slowStats = loadBalancerStats.getStats(slow);
+        slowStats.start();
+        slowStats.complete(500 * MILLIS, false, now);
+
+        assertThat(slowStats.getScore(now)).isGreaterThan(fastStats.getScore(now));
+        assertThat(slowStats.getScore(now + TimeUnit.SECONDS.toNanos(60))).isLessThan(fastStats.getScore(now));
+    }
+
+    @Test
+    void testSkipEjectedInstances() {
+        record(fast, 10 * MILLIS, false);
+        record(slow, 10 * MILLIS, false);
+        for (int i = 0; i < 4; i++) {
+            record(fast, MILLIS, true);
+        }
+
+        assertThat(loadBalancerStats.getStats(fast).isEjected(System.nanoTime())).isTrue();
+        for (int i = 0; i < 20; i++) {
+            assertThat(choose().getServer()).isEqualTo(slow);
+        }
+        assertThat(meterRegistry.get("gateway.loadbalancer.instance.ejected").tag("instance", "fast").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testUseEjectedInstancesWhenAllAreEjected() {
+        for (int i = 0; i < 4; i++) {
+            record(fast, MILLIS, true);
+            record(slow, MILLIS, true);
+        }
+
+        List<ServiceInstance> chosen = Arrays.asList(choose().getServer(), choose().getServer());
+
+        assertThat(chosen).isSubsetOf(fast, slow);
+    }
+
+    @Test
+    void testPublishInstanceScores() {
+        record(fast, 10 * MILLIS, false);
+
+        assertThat(meterRegistry.get("gateway.loadbalancer.instance.latency").tag("instance", "fast").gauge().value())
+            .isCloseTo(10, within(0.1));
+        assertThat(meterRegistry.get("gateway.loadbalancer.instance.in.flight").tag("instance", "fast").gauge().value()).isZero();
+    }
+
+    @Test
+    void testRemoveStatsOfDeregisteredInstances() {
+        record(fast, 10 * MILLIS, false);
+        record(slow, 500 * MILLIS, false);
+        InstanceStats fastStats = loadBalancerStats.getStats(fast);
+
+        assertThat(loadBalancer.choose(List.of(fast)).getServer()).isEqualTo(fast);
+
+        assertThat(loadBalancerStats.getStats(fast)).isSameAs(fastStats);
+        assertThat(meterRegistry.find("gateway.loadbalancer.instance.score").tag("instance", "fast").gauge()).isNotNull();
+        assertThat(meterRegistry.find("gateway.loadbalancer.instance.score").tag("instance", "slow").gauge()).isNull();
+        assertThat(meterRegistry.find("gateway.loadbalancer.instance.in.flight").tag("instance", "slow").gauge()).isNull();
+    }
+
+    private Response<ServiceInstance> choose() {
+        return loadBalancer.choose(new DefaultRequest<>()).block();
+    }
+
+    private void record(ServiceInstance instance, long latencyNanos, boolean failure) {
+        InstanceStats stats = loadBalancerStats.getStats(instance);
+        stats.start();
+        stats.complete(latencyNanos, failure, System.nanoTime());
+    }
+}
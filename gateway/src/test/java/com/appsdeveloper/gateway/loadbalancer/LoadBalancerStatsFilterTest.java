@@ -0,0 +1,71 @@
+package com.appsdeveloper.gateway.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+class LoadBalancerStatsFilterTest {
+
+    private final ServiceInstance instance = new DefaultServiceInstance("instance-1", "conference", "instance-1", 8081, false);
+
+    private LoadBalancerStats loadBalancerStats;
+
+    private LoadBalancerStatsFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        loadBalancerStats = new LoadBalancerStats(new ApplicationProperties(), new SimpleMeterRegistry());
+        filter = new LoadBalancerStatsFilter(loadBalancerStats);
+    }
+
+    @Test
+    void testRecordCompletedRequests() {
+        MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, e -> Mono.fromRunnable(() -> e.getResponse().setStatusCode(HttpStatus.OK))).block();
+
+        InstanceStats stats = loadBalancerStats.getStats(instance);
+        assertThat(stats.getInFlight()).isZero();
+        assertThat(stats.getLatencyMillis(System.nanoTime())).isPositive();
+    }
+
+    @Test
+    void testRecordFailedRequests() {
+        assertThatThrownBy(() -> filter.filter(exchange(), e -> Mono.error(new IllegalStateException("Connection refused"))).block())
+            .isInstanceOf(IllegalStateException.class);
+
+        assertThat(loadBalancerStats.getStats(instance).getInFlight()).isZero();
+    }
+
+    @Test
+    void testForgetCancelledRequests() {
+        Disposable request = filter.filter(exchange(), e -> Mono.never()).subscribe();
+
+        InstanceStats stats = loadBalancerStats.getStats(instance);
+        assertThat(stats.getInFlight()).isEqualTo(1);
+
+        request.dispose();
+
+        assertThat(stats.getInFlight()).isZero();
+        assertThat(stats.getLatencyMillis(System.nanoTime())).isZero();
+    }
+
+    private MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/services/conference/api"));
+        exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(instance));
+        return exchange;
+    }
+}
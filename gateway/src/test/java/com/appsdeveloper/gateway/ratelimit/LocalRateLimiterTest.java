@@ -0,0 +1,117 @@
+package com.appsdeveloper.gateway.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+
+class LocalRateLimiterTest {
+
+    private static final long SECONDS = TimeUnit.SECONDS.toNanos(1);
+
+    private ApplicationProperties applicationProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LocalRateLimiter rateLimiter;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        ApplicationProperties.RateLimit.Policy policy = new ApplicationProperties.RateLimit.Policy();
+        policy.setBurst(2);
+        policy.setRefillPerSecond(0.1);
+        applicationProperties.getRateLimit().getPolicies().put("authenticate", policy);
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = createRateLimiter(null);
+    }
+
+    @Test
+    void testAllowBurstThenRefill() {
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryConsume(0)).isZero();
+        }
+        assertThat(bucket.tryConsume(0)).isEqualTo(SECONDS / 2);
+        assertThat(bucket.getRemaining(0)).isZero();
+
+        assertThat(bucket.tryConsume(SECONDS / 2)).isZero();
+        assertThat(bucket.tryConsume(SECONDS / 2)).isPositive();
+        assertThat(bucket.getRemaining(10 * SECONDS)).isEqualTo(3);
+        assertThat(bucket.isIdle(SECONDS)).isFalse();
+        assertThat(bucket.isIdle(10 * SECONDS)).isTrue();
+        assertThat(bucket.drainUnsynchronized()).isEqualTo(4);
+        assertThat(bucket.drainUnsynchronized()).isZero();
+    }
+
+    @Test
+    void testThrottleWithRetryAfter() {
+        assertThat(rateLimiter.isAllowed("authenticate", "ip:10.0.0.1").block().isAllowed()).isTrue();
+        assertThat(rateLimiter.isAllowed("authenticate", "ip:10.0.0.1").block().isAllowed()).isTrue();
+
+        RateLimiter.Response response = rateLimiter.isAllowed("authenticate", "ip:10.0.0.1").block();
+
+        assertThat(response.isAllowed()).isFalse();
+        assertThat(response.getHeaders()).containsEntry(HttpHeaders.RETRY_AFTER, "10").containsEntry(LocalRateLimiter.REMAINING_HEADER, "0");
+        assertThat(rateLimiter.isAllowed("authenticate", "ip:10.0.0.2").block().isAllowed()).isTrue();
+        assertThat(meterRegistry.get("gateway.ratelimit.requests").tag("result", "throttled").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.ratelimit.requests").tag("result", "allowed").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void testUseDefaultLimitOfRoutes() {
+        applicationProperties.getRateLimit().setBurst(1);
+        applicationProperties.getRateLimit().setRefillPerSecond(0.001);
+        rateLimiter = createRateLimiter(null);
+
+        assertThat(rateLimiter.isAllowed("conference", "user:admin").block().isAllowed()).isTrue();
+        assertThat(rateLimiter.isAllowed("conference", "user:admin").block().isAllowed()).isFalse();
+    }
+
+    @Test
+    void testEvictIdleBuckets() {
+        applicationProperties.getRateLimit().setRefillPerSecond(1_000_000);
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = createRateLimiter(null);
+        rateLimiter.isAllowed("conference", "user:admin").block();
+        rateLimiter.isAllowed("authenticate", "ip:10.0.0.1").block();
+
+        rateLimiter.sweep();
+
+        assertThat(rateLimiter.size()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.ratelimit.evictions").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testSynchronizeWithOtherInstances() {
+        Map<String, Long> shared = new HashMap<>();
+        rateLimiter =
+            createRateLimiter(
+                localCounts -> {
+                    shared.putAll(localCounts);
+                    return Mono.just(Collections.singletonMap("authenticate|ip:10.0.0.1", 1L));
+                }
+            );
+        assertThat(rateLimiter.isAllowed("authenticate", "ip:10.0.0.1").block().isAllowed()).isTrue();
+
+        rateLimiter.sweep();
+
+        assertThat(shared).containsEntry("authenticate|ip:10.0.0.1", 1L);
+        assertThat(rateLimiter.isAllowed("authenticate", "ip:10.0.0.1").block().isAllowed()).isFalse();
+    }
+
+    private LocalRateLimiter createRateLimiter(RateLimitSynchronizer synchronizer) {
+        return new LocalRateLimiter(applicationProperties, null, new SimpleObjectProvider<>(synchronizer), meterRegistry);
+    }
+}
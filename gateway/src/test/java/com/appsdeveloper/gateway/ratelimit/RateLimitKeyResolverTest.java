@@ -0,0 +1,64 @@
+package com.appsdeveloper.gateway.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+class RateLimitKeyResolverTest {
+
+    private final RateLimitKeyResolver resolver = new RateLimitKeyResolver(
+        RateLimitKeyResolver.Type.IP,
+        List.of("10.0.0.0/8", "192.168.1.1", "fd00::/8")
+    );
+
+    @Test
+    void testIgnoreForwardedForOfUntrustedClient() {
+        assertThat(resolve("203.0.113.7", "198.51.100.1")).isEqualTo("ip:203.0.113.7");
+    }
+
+    @Test
+    void testUseRightMostUntrustedHop() {
+        assertThat(resolve("10.1.2.3", "198.51.100.1, 203.0.113.7")).isEqualTo("ip:203.0.113.7");
+        assertThat(resolve("10.1.2.3", "198.51.100.1, 203.0.113.7, 192.168.1.1")).isEqualTo("ip:203.0.113.7");
+        assertThat(resolve("10.1.2.3", "198.51.100.1", "203.0.113.7, 10.0.0.1")).isEqualTo("ip:203.0.113.7");
+    }
+
+    @Test
+    void testUseLeftMostHopWhenAllHopsAreTrusted() {
+        assertThat(resolve("10.1.2.3", "10.0.0.2, 192.168.1.1")).isEqualTo("ip:10.0.0.2");
+        assertThat(resolve("10.1.2.3")).isEqualTo("ip:10.1.2.3");
+    }
+
+    @Test
+    void testNormalizeAddresses() {
+        assertThat(resolve("fd00::1", "2001:DB8:0:0:0:0:0:1")).isEqualTo("ip:2001:db8:0:0:0:0:0:1");
+        assertThat(resolve("192.168.1.2", "203.0.113.7")).isEqualTo("ip:192.168.1.2");
+    }
+
+    @Test
+    void testShareBucketOfHopsWhichAreNotAddresses() {
+        assertThat(resolve("10.1.2.3", "client.example.com")).isEqualTo("ip:unknown");
+    }
+
+    @Test
+    void testRejectInvalidTrustedProxies() {
+        assertThatThrownBy(() -> new RateLimitKeyResolver(RateLimitKeyResolver.Type.IP, List.of("proxy.example.com")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateLimitKeyResolver(RateLimitKeyResolver.Type.IP, List.of("10.0.0.0/33")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String resolve(String remoteAddress, String... forwardedFor) {
+        MockServerHttpRequest request = MockServerHttpRequest
+            .get("http://localhost/api/authenticate")
+            .remoteAddress(new InetSocketAddress(remoteAddress, 12345))
+            .header("X-Forwarded-For", forwardedFor)
+            .build();
+        return resolver.resolve(MockServerWebExchange.from(request)).block();
+    }
+}
@@ -0,0 +1,106 @@
+package com.appsdeveloper.gateway.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    private static final long SECONDS = TimeUnit.SECONDS.toNanos(1);
+
+    private final List<String> transitions = new ArrayList<>();
+
+    private CircuitBreaker circuitBreaker;
+
+    private long now;
+
+    @BeforeEach
+    public void setup() {
+        circuitBreaker = new CircuitBreaker(0.5, 4, 10 * SECONDS, 30 * SECONDS, 2, (from, to) -> transitions.add(from + "->" + to));
+        now = System.nanoTime();
+    }
+
+    @Test
+    void testOpenOnFailures() {
+        record(false);
+        record(true);
+        record(false);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        record(true);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission(now)).isFalse();
+        assertThat(circuitBreaker.getRemainingOpenNanos(now)).isEqualTo(30 * SECONDS);
+        assertThat(transitions).containsExactly("CLOSED->OPEN");
+    }
+
+    @Test
+    void testForgetFailuresOfPreviousWindow() {
+        record(true);
+        record(true);
+        record(true);
+        now += 11 * SECONDS;
+
+        record(true);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void testCloseAfterSuccessfulTrials() {
+        open();
+        now += 31 * SECONDS;
+
+        assertThat(circuitBreaker.tryAcquirePermission(now)).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission(now)).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission(now)).isFalse();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        circuitBreaker.onResult(false, now);
+        circuitBreaker.onResult(false, now);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED");
+    }
+
+    @Test
+    void testReopenAfterFailedTrial() {
+        open();
+        now += 31 * SECONDS;
+
+        assertThat(circuitBreaker.tryAcquirePermission(now)).isTrue();
+        circuitBreaker.onResult(true, now);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission(now)).isFalse();
+    }
+
+    @Test
+    void testGiveBackPermissionOfCancelledTrial() {
+        open();
+        now += 31 * SECONDS;
+        circuitBreaker.tryAcquirePermission(now);
+        circuitBreaker.tryAcquirePermission(now);
+
+        circuitBreaker.onCancel();
+
+        assertThat(circuitBreaker.tryAcquirePermission(now)).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission(now)).isFalse();
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            record(true);
+        }
+    }
+
+    private void record(boolean failure) {
+        assertThat(circuitBreaker.tryAcquirePermission(now)).isTrue();
+        circuitBreaker.onResult(failure, now);
+    }
+}
@@ -0,0 +1,177 @@
+package com.appsdeveloper.gateway.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Duration;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+class ResilienceFilterTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private GatewayFilterChain chain;
+
+    private ResilienceFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getResilience().setMinimumRequests(2);
+        ApplicationProperties.Resilience.Service blog = new ApplicationProperties.Resilience.Service();
+        blog.setMaxConcurrentRequests(1);
+        blog.setTimeoutMillis(500L);
+        applicationProperties.getResilience().getServices().put("blog", blog);
+        meterRegistry = new SimpleMeterRegistry();
+        chain = mock(GatewayFilterChain.class);
+        filter = new ResilienceFilter(applicationProperties, meterRegistry);
+    }
+
+    @Test
+    void testRejectWhenBulkheadIsFull() {
+        when(chain.filter(any())).thenReturn(Mono.never());
+        filter.filter(exchange("lb://blog"), chain).subscribe();
+        MockServerWebExchange exchange = exchange("lb://blog");
+
+        assertStatus(() -> filter.filter(exchange, chain).block(), HttpStatus.SERVICE_UNAVAILABLE);
+
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(meterRegistry.get("gateway.resilience.rejections").tag("reason", "bulkhead").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.resilience.bulkhead.available").tag("service", "blog").gauge().value()).isZero();
+    }
+
+    @Test
+    void testIsolateServices() {
+        when(chain.filter(any())).thenReturn(Mono.never());
+        filter.filter(exchange("lb://blog"), chain).subscribe();
+        when(chain.filter(any())).thenReturn(Mono.empty());
+
+        filter.filter(exchange("lb://conference"), chain).block(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testTimeout() {
+        when(chain.filter(any()))
+            .thenAnswer(
+                invocation -> {
+                    MockServerWebExchange exchange = invocation.getArgument(0);
+                    Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+                    assertThat(route.getMetadata()).containsEntry(RESPONSE_TIMEOUT_ATTR, 500L);
+                    // as the NettyRoutingFilter once the response timeout is reached
+                    return Mono.error(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Response took longer than timeout: PT0.5S"));
+                }
+            );
+
+        assertStatus(() -> filter.filter(exchange("lb://blog"), chain).block(Duration.ofSeconds(5)), HttpStatus.GATEWAY_TIMEOUT);
+
+        assertThat(meterRegistry.get("gateway.resilience.timeouts").tag("service", "blog").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.resilience.bulkhead.available").tag("service", "blog").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testReuseRouteWithTimeoutUntilRouteIsRefreshed() {
+        when(chain.filter(any())).thenReturn(Mono.empty());
+        Route route = Route.async().id("route").uri(URI.create("lb://blog")).predicate(e -> true).build();
+        MockServerWebExchange first = exchange(route);
+        MockServerWebExchange second = exchange(route);
+        MockServerWebExchange refreshed = exchange("lb://blog");
+
+        filter.filter(first, chain).block(Duration.ofSeconds(5));
+        filter.filter(second, chain).block(Duration.ofSeconds(5));
+        filter.filter(refreshed, chain).block(Duration.ofSeconds(5));
+
+        Route timedRoute = first.getAttribute(GATEWAY_ROUTE_ATTR);
+        assertThat(timedRoute.getMetadata()).containsEntry(RESPONSE_TIMEOUT_ATTR, 500L);
+        assertThat((Route) second.getAttribute(GATEWAY_ROUTE_ATTR)).isSameAs(timedRoute);
+        assertThat((Route) refreshed.getAttribute(GATEWAY_ROUTE_ATTR)).isNotSameAs(timedRoute);
+    }
+
+    @Test
+    void testKeepResponseTimeoutOfRoute() {
+        when(chain.filter(any())).thenReturn(Mono.empty());
+        Route route = Route
+            .async()
+            .id("blog")
+            .uri(URI.create("lb://blog"))
+            .predicate(e -> true)
+            .metadata(RESPONSE_TIMEOUT_ATTR, 60000)
+            .build();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/services/blog/api"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+
+        filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+
+        assertThat((Route) exchange.getAttribute(GATEWAY_ROUTE_ATTR)).isSameAs(route);
+    }
+
+    @Test
+    void testFailFastWhenCircuitIsOpen() {
+        when(chain.filter(any()))
+            .thenAnswer(
+                invocation -> {
+                    MockServerWebExchange exchange = invocation.getArgument(0);
+                    exchange.getResponse().setStatusCode(HttpStatus.BAD_GATEWAY);
+                    return Mono.empty();
+                }
+            );
+        for (int i = 0; i < 2; i++) {
+            filter.filter(exchange("lb://conference"), chain).block(Duration.ofSeconds(5));
+        }
+        GatewayFilterChain openChain = mock(GatewayFilterChain.class);
+        MockServerWebExchange exchange = exchange("lb://conference");
+
+        assertStatus(() -> filter.filter(exchange, openChain).block(), HttpStatus.SERVICE_UNAVAILABLE);
+
+        verify(openChain, never()).filter(any());
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("30");
+        assertThat(meterRegistry.get("gateway.resilience.circuitbreaker.state").tag("service", "conference").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.resilience.circuitbreaker.transitions").tag("to", "open").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testPassThroughOtherRoutes() {
+        when(chain.filter(any())).thenReturn(Mono.empty());
+        MockServerWebExchange exchange = exchange("http://localhost:8080");
+
+        filter.filter(exchange, chain).block();
+
+        verify(chain).filter(exchange);
+        assertThat(meterRegistry.find("gateway.resilience.bulkhead.available").gauge()).isNull();
+    }
+
+    private static void assertStatus(ThrowingCallable callable, HttpStatus status) {
+        assertThatThrownBy(callable).isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatus()).isEqualTo(status));
+    }
+
+    private static MockServerWebExchange exchange(String uri) {
+        return exchange(Route.async().id("route").uri(URI.create(uri)).predicate(e -> true).build());
+    }
+
+    private static MockServerWebExchange exchange(Route route) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/services/blog/api/blogs"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+}
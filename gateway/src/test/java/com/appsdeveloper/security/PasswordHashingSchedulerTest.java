@@ -0,0 +1,70 @@
+package com.appsdeveloper.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class PasswordHashingSchedulerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PasswordHashingScheduler scheduler;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getPasswordHashing().setThreads(1);
+        applicationProperties.getPasswordHashing().setQueueCapacity(1);
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new PasswordHashingScheduler(applicationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        scheduler.destroy();
+    }
+
+    @Test
+    void testRunOnHashingThread() {
+        String threadName = scheduler.schedule(() -> Thread.currentThread().getName()).block();
+
+        assertThat(threadName).startsWith("password-hashing-");
+
+        assertThat(meterRegistry.get("password.hashing.queue.wait").timer().count()).isEqualTo(1);
+        // the duration is recorded once the task returned, which can be after its result was emitted, but before the
+        // single hashing thread runs the next task
+        Long durations = scheduler.schedule(() -> meterRegistry.get("password.hashing.duration").timer().count()).block();
+        assertThat(durations).isEqualTo(1);
+    }
+
+    @Test
+    void testRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mono<Boolean> running = scheduler.schedule(
+            () -> {
+                started.countDown();
+                return release.await(10, TimeUnit.SECONDS);
+            }
+        );
+        Mono<String> queued = scheduler.schedule(() -> "queued");
+        running.subscribe();
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        Mono<String> result = queued.cache();
+        result.subscribe();
+
+        assertThatThrownBy(() -> scheduler.schedule(() -> "rejected").block()).isInstanceOf(PasswordHashingRejectedException.class);
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(result.block()).isEqualTo("queued");
+    }
+}
@@ -2,6 +2,7 @@ package com.appsdeveloper.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.appsdeveloper.config.ApplicationProperties;
 import com.appsdeveloper.security.AuthoritiesConstants;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -31,7 +32,7 @@ class TokenProviderTest {
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
         String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
         jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
-        tokenProvider = new TokenProvider(jHipsterProperties);
+        tokenProvider = new TokenProvider(jHipsterProperties, new VerifiedTokenCache(new ApplicationProperties()));
         key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -83,13 +84,26 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testReuseAuthenticationOfVerifiedToken() {
+        Authentication authentication = createAuthentication();
+        String token = tokenProvider.createToken(authentication, false);
+
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+        Authentication first = tokenProvider.getAuthentication(token);
+        Authentication second = tokenProvider.getAuthentication(token);
+
+        assertThat(first.getName()).isEqualTo("anonymous");
+        assertThat(second).isSameAs(first);
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
         jHipsterProperties.getSecurity().getAuthentication().getJwt().setSecret(secret);
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, new VerifiedTokenCache(new ApplicationProperties()));
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
@@ -101,7 +115,7 @@ class TokenProviderTest {
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
         jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, new VerifiedTokenCache(new ApplicationProperties()));
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
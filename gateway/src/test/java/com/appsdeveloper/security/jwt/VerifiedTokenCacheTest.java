@@ -0,0 +1,83 @@
+package com.appsdeveloper.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import com.appsdeveloper.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import java.util.Date;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+class VerifiedTokenCacheTest {
+
+    private static final long ONE_MINUTE = 60000;
+
+    private ApplicationProperties applicationProperties;
+
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        cache = new VerifiedTokenCache(applicationProperties);
+    }
+
+    @Test
+    void testReturnCachedAuthentication() {
+        Authentication authentication = createAuthentication("token");
+        cache.put("token", new Date(System.currentTimeMillis() + ONE_MINUTE), authentication);
+
+        assertThat(cache.get("token")).isSameAs(authentication);
+        assertThat(cache.get("other-token")).isNull();
+    }
+
+    @Test
+    void testDoNotCacheExpiredToken() {
+        cache.put("token", new Date(System.currentTimeMillis() - ONE_MINUTE), createAuthentication("token"));
+        cache.put("no-expiration", null, createAuthentication("no-expiration"));
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        applicationProperties.getTokenCache().setMaxSize(2);
+        cache = new VerifiedTokenCache(applicationProperties);
+        Date expiration = new Date(System.currentTimeMillis() + ONE_MINUTE);
+
+        cache.put("token-1", expiration, createAuthentication("token-1"));
+        cache.put("token-2", expiration, createAuthentication("token-2"));
+        cache.put("token-3", expiration, createAuthentication("token-3"));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("token-3")).isNotNull();
+    }
+
+    @Test
+    void testPublishMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.put("token", new Date(System.currentTimeMillis() + ONE_MINUTE), createAuthentication("token"));
+
+        cache.get("token");
+        cache.get("token");
+        cache.get("other-token");
+
+        assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.size").gauge().value()).isEqualTo(1);
+    }
+
+    private Authentication createAuthentication(String token) {
+        return new UsernamePasswordAuthenticationToken(
+            "test-user",
+            token,
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+    }
+}
@@ -0,0 +1,88 @@
+package com.appsdeveloper.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+
+class ColumnConverterTest {
+
+    private ColumnConverter converter;
+
+    @BeforeEach
+    public void setup() {
+        R2dbcConverter r2dbcConverter = mock(R2dbcConverter.class);
+        when(r2dbcConverter.getConversionService()).thenReturn(new DefaultConversionService());
+        converter = new ColumnConverter(new R2dbcCustomConversions(Collections.emptyList()), r2dbcConverter);
+    }
+
+    @Test
+    void testReadColumnOfTargetTypeDirectly() {
+        RowMetadata metadata = metadata(column("e_id", Long.class), column("e_name", String.class));
+        Row row = mock(Row.class);
+        when(row.get(1, String.class)).thenReturn("name");
+
+        Function<Row, String> reader = converter.columnReader(metadata, "e_name", String.class);
+
+        assertThat(reader.apply(row)).isEqualTo("name");
+        verify(row, never()).get(anyInt());
+    }
+
+    @Test
+    void testConvertOnceTheDriverFailed() {
+        RowMetadata metadata = metadata(column("e_id", Integer.class));
+        Row row = mock(Row.class);
+        when(row.get(0, Long.class)).thenThrow(new IllegalArgumentException("Cannot decode value"));
+        when(row.get(0)).thenReturn(42);
+
+        Function<Row, Long> reader = converter.columnReader(metadata, "E_ID", Long.class);
+
+        assertThat(reader.apply(row)).isEqualTo(42L);
+        assertThat(reader.apply(row)).isEqualTo(42L);
+        verify(row, times(1)).get(0, Long.class);
+        verify(row, times(2)).get(0);
+    }
+
+    @Test
+    void testFallbackToColumnNameWhenColumnIsNotInMetadata() {
+        RowMetadata metadata = metadata(column("e_id", Long.class));
+        Row row = mock(Row.class);
+        when(row.get("e_other", String.class)).thenReturn("value");
+
+        Function<Row, String> reader = converter.columnReader(metadata, "e_other", String.class);
+
+        assertThat(reader.apply(row)).isEqualTo("value");
+    }
+
+    private static ColumnMetadata column(String name, Class<?> javaType) {
+        ColumnMetadata column = mock(ColumnMetadata.class);
+        when(column.getName()).thenReturn(name);
+        doReturn(javaType).when(column).getJavaType();
+        return column;
+    }
+
+    private static RowMetadata metadata(ColumnMetadata... columns) {
+        RowMetadata metadata = mock(RowMetadata.class);
+        doReturn(Arrays.asList(columns)).when(metadata).getColumnMetadatas();
+        for (int i = 0; i < columns.length; i++) {
+            when(metadata.getColumnMetadata(i)).thenReturn(columns[i]);
+        }
+        return metadata;
+    }
+}
@@ -1,12 +1,12 @@
 package com.appsdeveloper.service;
 
 import static org.assertj.core.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.*;
 
 import com.appsdeveloper.IntegrationTest;
+import com.appsdeveloper.config.ApplicationProperties;
 import com.appsdeveloper.config.Constants;
 import com.appsdeveloper.domain.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -14,19 +14,22 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.mail.Multipart;
 import javax.mail.internet.MimeBodyPart;
 import javax.mail.internet.MimeMessage;
 import javax.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
-import org.mockito.MockitoAnnotations;
-import org.mockito.Spy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.mail.MailSendException;
@@ -55,26 +58,48 @@ class MailServiceIT {
     @Autowired
     private SpringTemplateEngine templateEngine;
 
-    @Spy
-    private JavaMailSenderImpl javaMailSender;
+    private final BlockingQueue<MimeMessage> sentMessages = new LinkedBlockingQueue<>();
 
-    @Captor
-    private ArgumentCaptor<MimeMessage> messageCaptor;
+    private final AtomicInteger failures = new AtomicInteger();
+
+    // the attempts of an email given up after the default 3 attempts
+    private final CountDownLatch sendAttempts = new CountDownLatch(3);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MailOutbox mailOutbox;
 
     private MailService mailService;
 
     @BeforeEach
     public void setup() {
-        MockitoAnnotations.initMocks(this);
-        doNothing().when(javaMailSender).send(any(MimeMessage.class));
-        mailService = new MailService(jHipsterProperties, javaMailSender, messageSource, templateEngine);
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl() {
+            @Override
+            protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+                sendAttempts.countDown();
+                if (failures.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+                    throw new MailSendException("Connection refused");
+                }
+                sentMessages.addAll(Arrays.asList(mimeMessages));
+            }
+        };
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getMailOutbox().setRetryBackoffMillis(10);
+        meterRegistry = new SimpleMeterRegistry();
+        mailOutbox = new MailOutbox(javaMailSender, applicationProperties, meterRegistry);
+        mailOutbox.afterPropertiesSet();
+        mailService = new MailService(jHipsterProperties, mailOutbox, messageSource, templateEngine);
+    }
+
+    @AfterEach
+    public void cleanup() throws Exception {
+        mailOutbox.destroy();
     }
 
     @Test
     void testSendEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = awaitSentMessage();
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -86,8 +111,7 @@ class MailServiceIT {
     @Test
     void testSendHtmlEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, true);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = awaitSentMessage();
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -99,8 +123,7 @@ class MailServiceIT {
     @Test
     void testSendMultipartEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, false);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = awaitSentMessage();
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
         ByteArrayOutputStream aos = new ByteArrayOutputStream();
@@ -116,8 +139,7 @@ class MailServiceIT {
     @Test
     void testSendMultipartHtmlEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, true);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = awaitSentMessage();
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
         ByteArrayOutputStream aos = new ByteArrayOutputStream();
@@ -137,8 +159,7 @@ class MailServiceIT {
         user.setEmail("john.doe@example.com");
         user.setLangKey("en");
         mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = awaitSentMessage();
         assertThat(message.getSubject()).isEqualTo("test title");
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -153,8 +174,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendActivationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = awaitSentMessage();
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -168,8 +188,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendCreationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = awaitSentMessage();
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -183,8 +202,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendPasswordResetMail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = awaitSentMessage();
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -192,13 +210,62 @@ class MailServiceIT {
     }
 
     @Test
-    void testSendEmailWithException() {
-        doThrow(MailSendException.class).when(javaMailSender).send(any(MimeMessage.class));
+    void testSendEmailWithException() throws Exception {
+        failures.set(Integer.MAX_VALUE);
         try {
             mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
         } catch (Exception e) {
             fail("Exception shouldn't have been thrown");
         }
+        assertThat(sendAttempts.await(5, TimeUnit.SECONDS)).isTrue();
+        // stopping the dispatcher waits for it to give up the email after its last attempt
+        mailOutbox.destroy();
+
+        assertThat(meterRegistry.get("mail.outbox.retried").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("mail.outbox.failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("mail.outbox.sent").counter().count()).isZero();
+        assertThat(sentMessages).isEmpty();
+    }
+
+    @Test
+    void testRejectEmailWhenOutboxIsFull() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getMailOutbox().setQueueCapacity(1);
+        // the dispatcher is not started, so that the queued email is never taken
+        SimpleMeterRegistry fullOutboxMeterRegistry = new SimpleMeterRegistry();
+        MailOutbox fullOutbox = new MailOutbox(new JavaMailSenderImpl(), applicationProperties, fullOutboxMeterRegistry);
+        MailService service = new MailService(jHipsterProperties, fullOutbox, messageSource, templateEngine);
+
+        service.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        service.sendEmail("jane.doe@example.com", "testSubject", "testContent", false, false);
+
+        assertThat(fullOutboxMeterRegistry.get("mail.outbox.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testRetryEmailAfterFailure() throws Exception {
+        failures.set(1);
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        MimeMessage message = awaitSentMessage();
+        assertThat(message.getSubject()).isEqualTo("testSubject");
+        assertThat(failures.get()).isZero();
+    }
+
+    @Test
+    void testRetryAllEmailsOfFailedBatch() throws Exception {
+        failures.set(1);
+        for (int i = 0; i < 3; i++) {
+            mailService.sendEmail("john.doe" + i + "@example.com", "testSubject", "testContent", false, false);
+        }
+        for (int i = 0; i < 3; i++) {
+            assertThat(awaitSentMessage().getSubject()).isEqualTo("testSubject");
+        }
+    }
+
+    private MimeMessage awaitSentMessage() throws InterruptedException {
+        MimeMessage message = sentMessages.poll(5, TimeUnit.SECONDS);
+        assertThat(message).as("sent message").isNotNull();
+        return message;
     }
 
     @Test
@@ -209,8 +276,7 @@ class MailServiceIT {
         for (String langKey : languages) {
             user.setLangKey(langKey);
             mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
-            verify(javaMailSender, atLeastOnce()).send(messageCaptor.capture());
-            MimeMessage message = messageCaptor.getValue();
+            MimeMessage message = awaitSentMessage();
 
             String propertyFilePath = "i18n/messages_" + getJavaLocale(langKey) + ".properties";
             URL resource = this.getClass().getClassLoader().getResource(propertyFilePath);
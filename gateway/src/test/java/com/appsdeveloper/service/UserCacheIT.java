@@ -0,0 +1,77 @@
+package com.appsdeveloper.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.appsdeveloper.IntegrationTest;
+import com.appsdeveloper.config.Constants;
+import com.appsdeveloper.domain.User;
+import com.appsdeveloper.repository.UserRepository;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for the invalidation of the {@link UserCache} by the {@link UserService} writes.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "application.user-cache.max-size=100")
+class UserCacheIT {
+
+    private static final String DEFAULT_LOGIN = "johndoe";
+
+    private static final String DEFAULT_EMAIL = "johndoe@localhost";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserCache userCache;
+
+    private User user;
+
+    @BeforeEach
+    public void init() {
+        userRepository.deleteAllUserAuthorities().block();
+        userRepository.deleteAll().block();
+        user = new User();
+        user.setLogin(DEFAULT_LOGIN);
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        user.setEmail(DEFAULT_EMAIL);
+        user.setFirstName("john");
+        user.setLangKey("en");
+        user.setCreatedBy(Constants.SYSTEM);
+        // the users of the previous tests were deleted through the repository
+        userCache.invalidate(user).block();
+    }
+
+    @Test
+    void assertThatSaveUserInvalidatesTheCachedUser() {
+        User savedUser = userService.saveUser(user).block();
+        assertThat(userService.getUserWithAuthoritiesByLogin(DEFAULT_LOGIN).block().getFirstName()).isEqualTo("john");
+        assertThat(userCache.size()).isEqualTo(1);
+
+        savedUser.setFirstName("johnny");
+        userService.saveUser(savedUser).block();
+
+        assertThat(userCache.size()).isZero();
+        assertThat(userService.getUserWithAuthoritiesByLogin(DEFAULT_LOGIN).block().getFirstName()).isEqualTo("johnny");
+    }
+
+    @Test
+    void assertThatDeleteUserInvalidatesTheCachedUser() {
+        userService.saveUser(user).block();
+        assertThat(userService.getUserWithAuthoritiesByLogin(DEFAULT_LOGIN).blockOptional()).isPresent();
+        assertThat(userCache.size()).isEqualTo(1);
+
+        userService.deleteUser(DEFAULT_LOGIN).block();
+
+        assertThat(userCache.size()).isZero();
+        assertThat(userService.getUserWithAuthoritiesByLogin(DEFAULT_LOGIN).blockOptional()).isEmpty();
+    }
+}
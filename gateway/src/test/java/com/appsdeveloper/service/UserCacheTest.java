@@ -0,0 +1,106 @@
+package com.appsdeveloper.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import com.appsdeveloper.domain.Authority;
+import com.appsdeveloper.domain.User;
+import com.appsdeveloper.repository.UserRepository;
+import com.appsdeveloper.security.AuthoritiesConstants;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class UserCacheTest {
+
+    private UserRepository userRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private UserCache userCache;
+
+    @BeforeEach
+    public void setup() {
+        userRepository = mock(UserRepository.class);
+        applicationProperties = new ApplicationProperties();
+        userCache = new UserCache(userRepository, applicationProperties);
+    }
+
+    @Test
+    void testConcurrentMissesShareOneQuery() {
+        Sinks.One<User> result = Sinks.one();
+        when(userRepository.findOneWithAuthoritiesByLogin("john")).thenReturn(result.asMono());
+        List<User> users = new ArrayList<>();
+
+        userCache.getByLogin("John").subscribe(users::add);
+        userCache.getByLogin("john").subscribe(users::add);
+        User john = createUser(1L, "john");
+        result.tryEmitValue(john);
+
+        assertThat(users).containsExactly(john, john);
+        assertThat(userCache.getByLogin("JOHN").block()).isEqualTo(john);
+        verify(userRepository, times(1)).findOneWithAuthoritiesByLogin("john");
+    }
+
+    @Test
+    void testReturnCopiesOfCachedUser() {
+        when(userRepository.findOneWithAuthoritiesByLogin("john")).thenReturn(Mono.just(createUser(1L, "john")));
+
+        User first = userCache.getByLogin("john").block();
+        first.setFirstName("changed");
+        first.getAuthorities().clear();
+        User second = userCache.getByLogin("john").block();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getFirstName()).isNull();
+        assertThat(second.getAuthorities()).isNotEmpty();
+    }
+
+    @Test
+    void testDoNotCacheMissingUser() {
+        when(userRepository.findOneWithAuthoritiesByEmailIgnoreCase("john@localhost")).thenReturn(Mono.empty());
+
+        assertThat(userCache.getByEmail("john@localhost").blockOptional()).isEmpty();
+        assertThat(userCache.size()).isZero();
+    }
+
+    @Test
+    void testInvalidateUserWithChangedLogin() {
+        User john = createUser(1L, "john");
+        when(userRepository.findOneWithAuthoritiesByLogin("john")).thenReturn(Mono.just(john));
+        userCache.getByLogin("john").block();
+        assertThat(userCache.size()).isEqualTo(1);
+
+        userCache.invalidate(createUser(1L, "johnny")).block();
+
+        assertThat(userCache.size()).isZero();
+    }
+
+    @Test
+    void testDisabledCache() {
+        applicationProperties.getUserCache().setMaxSize(0);
+        userCache = new UserCache(userRepository, applicationProperties);
+        when(userRepository.findOneWithAuthoritiesByLogin("john")).thenReturn(Mono.just(createUser(1L, "john")));
+
+        userCache.getByLogin("john").block();
+        userCache.getByLogin("john").block();
+
+        verify(userRepository, times(2)).findOneWithAuthoritiesByLogin("john");
+        assertThat(userCache.size()).isZero();
+    }
+
+    private User createUser(Long id, String login) {
+        User user = new User();
+        user.setId(id);
+        user.setLogin(login);
+        user.setEmail(login + "@localhost");
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.USER);
+        user.getAuthorities().add(authority);
+        return user;
+    }
+}
@@ -145,7 +145,7 @@ class UserServiceIT {
             .collectList()
             .block();
         assertThat(users).isNotEmpty();
-        userService.removeNotActivatedUsers();
+        userService.removeNotActivatedUsersReactively().block();
         users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo).collectList().block();
         assertThat(users).isEmpty();
     }
@@ -163,8 +163,34 @@ class UserServiceIT {
             .collectList()
             .block();
         assertThat(users).isEmpty();
-        userService.removeNotActivatedUsers();
+        userService.removeNotActivatedUsersReactively().block();
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId()).blockOptional();
         assertThat(maybeDbUser).contains(dbUser);
     }
+
+    @Test
+    void assertThatNotActivatedUsersAreDeletedByBatches() {
+        Instant now = Instant.now();
+        for (int i = 0; i < 5; i++) {
+            User notActivatedUser = new User();
+            notActivatedUser.setLogin("notactivated" + i);
+            notActivatedUser.setPassword(RandomStringUtils.random(60));
+            notActivatedUser.setActivated(false);
+            notActivatedUser.setActivationKey(RandomStringUtils.random(20));
+            notActivatedUser.setEmail("notactivated" + i + "@localhost");
+            notActivatedUser.setLangKey(DEFAULT_LANGKEY);
+            notActivatedUser.setCreatedBy(Constants.SYSTEM);
+            notActivatedUser = userRepository.save(notActivatedUser).block();
+            notActivatedUser.setCreatedDate(now.minus(4, ChronoUnit.DAYS));
+            userRepository.save(notActivatedUser).block();
+        }
+        user.setActivated(false);
+        user.setActivationKey(RandomStringUtils.random(20));
+        User recentUser = userRepository.save(user).block();
+
+        Long deleted = userService.removeNotActivatedUsersReactively().block();
+
+        assertThat(deleted).isEqualTo(5);
+        assertThat(userRepository.findAll().collectList().block()).extracting(User::getId).containsExactly(recentUser.getId());
+    }
 }
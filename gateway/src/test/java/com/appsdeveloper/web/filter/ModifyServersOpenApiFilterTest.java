@@ -4,6 +4,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
+import com.appsdeveloper.config.ApplicationProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -17,6 +19,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.web.server.ServerWebExchange;
@@ -28,6 +31,7 @@ class ModifyServersOpenApiFilterTest {
     private static final Logger log = LoggerFactory.getLogger(ModifyServersOpenApiFilterTest.class);
     private final GatewayFilterChain filterChain = mock(GatewayFilterChain.class);
     private final ArgumentCaptor<ServerWebExchange> captor = ArgumentCaptor.forClass(ServerWebExchange.class);
+    private final OpenApiDocsCache openApiDocsCache = new OpenApiDocsCache(new ApplicationProperties());
 
     @BeforeEach
     void setup() {
@@ -44,7 +48,7 @@ class ModifyServersOpenApiFilterTest {
         ServerWebExchange exchange = MockServerWebExchange.from(request);
 
         // apply the filter to the request
-        ModifyServersOpenApiFilter modifyServersOpenApiFilter = spy(new ModifyServersOpenApiFilter());
+        ModifyServersOpenApiFilter modifyServersOpenApiFilter = spy(new ModifyServersOpenApiFilter(new ObjectMapper(), openApiDocsCache));
         modifyServersOpenApiFilter.filter(exchange, filterChain).subscribe();
 
         verify(modifyServersOpenApiFilter, times(1))
@@ -61,7 +65,7 @@ class ModifyServersOpenApiFilterTest {
         ServerWebExchange exchange = MockServerWebExchange.from(request);
 
         // apply the filter to the request
-        ModifyServersOpenApiFilter modifyServersOpenApiFilter = spy(new ModifyServersOpenApiFilter());
+        ModifyServersOpenApiFilter modifyServersOpenApiFilter = spy(new ModifyServersOpenApiFilter(new ObjectMapper(), openApiDocsCache));
         modifyServersOpenApiFilter.filter(exchange, filterChain).subscribe();
 
         verify(modifyServersOpenApiFilter, times(0))
@@ -70,7 +74,7 @@ class ModifyServersOpenApiFilterTest {
 
     @Test
     void shouldOrderToMinusOne() {
-        ModifyServersOpenApiFilter modifyServersOpenApiFilter = new ModifyServersOpenApiFilter();
+        ModifyServersOpenApiFilter modifyServersOpenApiFilter = new ModifyServersOpenApiFilter(new ObjectMapper(), openApiDocsCache);
         assertEquals(modifyServersOpenApiFilter.getOrder(), -1);
     }
 
@@ -80,7 +84,10 @@ class ModifyServersOpenApiFilterTest {
         private final String path = "/services/service-test/instance-test/v3/api-docs";
         private final MockServerHttpRequest request = MockServerHttpRequest.get(path).build();
         private final ServerWebExchange exchange = MockServerWebExchange.from(request);
-        private final ModifyServersOpenApiFilter modifyServersOpenApiFilter = new ModifyServersOpenApiFilter();
+        private final ModifyServersOpenApiFilter modifyServersOpenApiFilter = new ModifyServersOpenApiFilter(
+            new ObjectMapper(),
+            openApiDocsCache
+        );
 
         @Test
         void shouldRewriteBodyWhenBodyIsFluxAndResponseIsNotZipped() {
@@ -135,6 +142,63 @@ class ModifyServersOpenApiFilterTest {
             assertThat(interceptor.getRewritedBody()).isEmpty();
         }
 
+        @Test
+        void shouldReplaceServersAndKeepOtherFields() {
+            ModifyServersOpenApiFilter.ModifyServersOpenApiInterceptor interceptor = modifyServersOpenApiFilter.createModifyServersOpenApiInterceptor(
+                path,
+                exchange.getResponse(),
+                exchange.getResponse().bufferFactory()
+            );
+
+            byte[] bytes = "{\"openapi\":\"3.0.1\",\"servers\":[{\"url\":\"http://10.0.0.1:8081\"}],\"paths\":{\"/api/a\":{}}}".getBytes();
+            DataBuffer body = exchange.getResponse().bufferFactory().wrap(bytes);
+            interceptor.writeWith(Flux.just(body)).subscribe();
+            assertThat(interceptor.getRewritedBody())
+                .isEqualTo(
+                    "{\"openapi\":\"3.0.1\",\"servers\":[{\"url\":\"/services/service-test/instance-test\"," +
+                    "\"description\":\"added by global filter\"}],\"paths\":{\"/api/a\":{}}}"
+                );
+        }
+
+        @Test
+        void shouldServeRewrittenBodyFromCacheWhenUpstreamBodyIsUnchanged() {
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            byte[] bytes = "{\"openapi\":\"3.0.1\"}".getBytes();
+            for (int i = 0; i < 2; i++) {
+                ModifyServersOpenApiFilter.ModifyServersOpenApiInterceptor interceptor = modifyServersOpenApiFilter.createModifyServersOpenApiInterceptor(
+                    path,
+                    exchange.getResponse(),
+                    exchange.getResponse().bufferFactory()
+                );
+                interceptor.writeWith(Flux.just(exchange.getResponse().bufferFactory().wrap(bytes))).subscribe();
+                assertThat(interceptor.getRewritedBody()).contains("\"url\":\"/services/service-test/instance-test\"");
+            }
+            assertThat(openApiDocsCache.size()).isEqualTo(1);
+
+            ModifyServersOpenApiFilter.ModifyServersOpenApiInterceptor interceptor = modifyServersOpenApiFilter.createModifyServersOpenApiInterceptor(
+                path,
+                exchange.getResponse(),
+                exchange.getResponse().bufferFactory()
+            );
+            interceptor.writeWith(Flux.just(exchange.getResponse().bufferFactory().wrap("{\"openapi\":\"3.0.2\"}".getBytes()))).subscribe();
+            assertThat(interceptor.getRewritedBody()).startsWith("{\"openapi\":\"3.0.2\"");
+            assertThat(openApiDocsCache.size()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldNotCacheRewrittenBodyOfErrorResponse() {
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            ModifyServersOpenApiFilter.ModifyServersOpenApiInterceptor interceptor = modifyServersOpenApiFilter.createModifyServersOpenApiInterceptor(
+                path,
+                exchange.getResponse(),
+                exchange.getResponse().bufferFactory()
+            );
+
+            interceptor.writeWith(Flux.just(exchange.getResponse().bufferFactory().wrap("{\"status\":503}".getBytes()))).subscribe();
+            assertThat(interceptor.getRewritedBody()).startsWith("{\"status\":503");
+            assertThat(openApiDocsCache.size()).isZero();
+        }
+
         private byte[] zipContent() {
             try {
                 ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream("{}".length());
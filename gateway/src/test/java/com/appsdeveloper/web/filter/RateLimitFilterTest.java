@@ -0,0 +1,80 @@
+package com.appsdeveloper.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.appsdeveloper.config.ApplicationProperties;
+import com.appsdeveloper.gateway.ratelimit.LocalRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+class RateLimitFilterTest {
+
+    private WebFilterChain chain;
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.RateLimit.Policy policy = new ApplicationProperties.RateLimit.Policy();
+        policy.setPaths(Collections.singletonList("/api/authenticate"));
+        policy.setBurst(2);
+        policy.setRefillPerSecond(0.1);
+        applicationProperties.getRateLimit().getPolicies().put("authenticate", policy);
+        LocalRateLimiter rateLimiter = new LocalRateLimiter(
+            applicationProperties,
+            null,
+            new SimpleObjectProvider<>(null),
+            new SimpleMeterRegistry()
+        );
+        chain = mock(WebFilterChain.class);
+        when(chain.filter(any())).thenReturn(Mono.empty());
+        filter = new RateLimitFilter(applicationProperties, rateLimiter);
+    }
+
+    @Test
+    void testThrottleByClientIp() {
+        filter.filter(exchange("/api/authenticate", "10.0.0.1"), chain).block();
+        filter.filter(exchange("/api/authenticate", "10.0.0.1"), chain).block();
+        MockServerWebExchange exchange = exchange("/api/authenticate", "10.0.0.1");
+
+        assertThatThrownBy(() -> filter.filter(exchange, chain).block())
+            .isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("10");
+        filter.filter(exchange("/api/authenticate", "10.0.0.2"), chain).block();
+        verify(chain, times(3)).filter(any());
+    }
+
+    @Test
+    void testPassThroughOtherPaths() {
+        for (int i = 0; i < 5; i++) {
+            filter.filter(exchange("/api/account", "10.0.0.1"), chain).block();
+        }
+
+        verify(chain, times(5)).filter(any());
+    }
+
+    private static MockServerWebExchange exchange(String path, String ip) {
+        return MockServerWebExchange.from(
+            MockServerHttpRequest.post("http://localhost" + path).remoteAddress(new InetSocketAddress(ip, 40000))
+        );
+    }
+}
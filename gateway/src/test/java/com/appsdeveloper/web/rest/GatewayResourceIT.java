@@ -0,0 +1,82 @@
+package com.appsdeveloper.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.appsdeveloper.IntegrationTest;
+import com.appsdeveloper.gateway.cache.CachedResponse;
+import com.appsdeveloper.gateway.cache.ResponseCache;
+import com.appsdeveloper.security.AuthoritiesConstants;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Integration tests for the {@link GatewayResource} REST controller.
+ */
+@AutoConfigureWebTestClient
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@IntegrationTest
+class GatewayResourceIT {
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    public void initCache() {
+        responseCache.purge(null);
+        cache("/services/conference/api/sessions");
+        cache("/services/conference/api/sessions/1");
+        cache("/services/blog/api/posts");
+    }
+
+    @Test
+    void purgeCacheMatchingPath() {
+        webTestClient.delete().uri("/api/gateway/cache?path=/services/conference/**").exchange().expectStatus().isNoContent();
+
+        assertThat(responseCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void purgeWholeCache() {
+        webTestClient.delete().uri("/api/gateway/cache").exchange().expectStatus().isNoContent();
+
+        assertThat(responseCache.size()).isZero();
+        assertThat(responseCache.getBytes()).isZero();
+    }
+
+    @Test
+    void purgeCacheWithInvalidPath() {
+        webTestClient.delete().uri("/api/gateway/cache?path={path}", "/services/{conference").exchange().expectStatus().isBadRequest();
+
+        assertThat(responseCache.size()).isEqualTo(3);
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.USER)
+    void purgeCacheIsForbiddenToUsers() {
+        webTestClient.delete().uri("/api/gateway/cache").exchange().expectStatus().isForbidden();
+
+        assertThat(responseCache.size()).isEqualTo(3);
+    }
+
+    private void cache(String path) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("public, max-age=60");
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        responseCache.put(
+            "conference " + path,
+            new CachedResponse(path, headers, Unpooled.wrappedBuffer(body), Map.of(), TimeUnit.MINUTES.toNanos(1), System.nanoTime())
+        );
+    }
+}
@@ -9,6 +9,7 @@ import com.appsdeveloper.IntegrationTest;
 import com.appsdeveloper.domain.Session;
 import com.appsdeveloper.repository.SessionRepository;
 import com.appsdeveloper.service.EntityManager;
+import java.net.URI;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
@@ -25,8 +26,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.util.Base64Utils;
 
@@ -281,6 +284,64 @@ class SessionResourceIT {
             .value(hasItem(sameInstant(DEFAULT_END_DATE_TIME)));
     }
 
+    @Test
+    void getAllSessionsWithCursor() {
+        // Initialize the database
+        Session laterSession = createUpdatedEntity(em);
+        Session sameStartSession = createEntity(em);
+        sessionRepository.save(session).block();
+        sessionRepository.save(laterSession).block();
+        sessionRepository.save(sameStartSession).block();
+
+        // Get the first page, sorted by start date and id
+        EntityExchangeResult<byte[]> firstPage = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?size=2")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.length()")
+            .isEqualTo(2)
+            .jsonPath("$.[0].id")
+            .isEqualTo(session.getId().intValue())
+            .jsonPath("$.[1].id")
+            .isEqualTo(sameStartSession.getId().intValue())
+            .returnResult();
+
+        String link = firstPage.getResponseHeaders().getFirst(HttpHeaders.LINK);
+        assertThat(link).endsWith("; rel=\"next\"");
+        URI next = URI.create(link.substring(1, link.indexOf('>')));
+
+        // Get the last page through the next link
+        webTestClient
+            .get()
+            .uri(next.getRawPath() + "?" + next.getRawQuery())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist(HttpHeaders.LINK)
+            .expectBody()
+            .jsonPath("$.length()")
+            .isEqualTo(1)
+            .jsonPath("$.[0].id")
+            .isEqualTo(laterSession.getId().intValue());
+    }
+
+    @Test
+    void getAllSessionsWithInvalidCursor() {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=*")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
     @Test
     void getSession() {
         // Initialize the database
@@ -309,6 +370,49 @@ class SessionResourceIT {
             .value(is(sameInstant(DEFAULT_END_DATE_TIME)));
     }
 
+    @Test
+    void getSessionNotModified() {
+        // Initialize the database
+        sessionRepository.save(session).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, session.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(Session.class)
+            .getResponseHeaders()
+            .getETag();
+        assertThat(eTag).isNotNull();
+
+        // Get the session with the same ETag
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, session.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified();
+
+        // Update the session, which changes the ETag
+        sessionRepository.save(session.title(UPDATED_TITLE)).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, session.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.title")
+            .value(is(UPDATED_TITLE));
+    }
+
     @Test
     void getNonExistingSession() {
         // Get the session
@@ -6,9 +6,13 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.*;
 
 import com.appsdeveloper.IntegrationTest;
+import com.appsdeveloper.domain.Session;
 import com.appsdeveloper.domain.Speaker;
+import com.appsdeveloper.repository.SessionRepository;
 import com.appsdeveloper.repository.SpeakerRepository;
 import com.appsdeveloper.service.EntityManager;
+import com.appsdeveloper.service.EntityVersionService;
+import java.net.URI;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
@@ -24,8 +28,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -66,12 +73,21 @@ class SpeakerResourceIT {
     @Mock
     private SpeakerRepository speakerRepositoryMock;
 
+    @Autowired
+    private SessionRepository sessionRepository;
+
     @Autowired
     private EntityManager em;
 
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private DatabaseClient db;
+
+    @Autowired
+    private EntityVersionService entityVersionService;
+
     private Speaker speaker;
 
     /**
@@ -118,6 +134,7 @@ class SpeakerResourceIT {
     @AfterEach
     public void cleanup() {
         deleteEntities(em);
+        SessionResourceIT.deleteEntities(em);
     }
 
     @BeforeEach
@@ -355,6 +372,174 @@ class SpeakerResourceIT {
         verify(speakerRepositoryMock, times(1)).findAllWithEagerRelationships(any());
     }
 
+    @Test
+    void getAllSpeakersWithCursor() {
+        // Initialize the database
+        Speaker laterSpeaker = createUpdatedEntity(em);
+        Speaker sameLastNameSpeaker = createEntity(em);
+        speakerRepository.save(speaker).block();
+        speakerRepository.save(laterSpeaker).block();
+        speakerRepository.save(sameLastNameSpeaker).block();
+
+        // Get the first page, sorted by last name and id
+        EntityExchangeResult<byte[]> firstPage = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?size=2")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.length()")
+            .isEqualTo(2)
+            .jsonPath("$.[0].id")
+            .isEqualTo(speaker.getId().intValue())
+            .jsonPath("$.[1].id")
+            .isEqualTo(sameLastNameSpeaker.getId().intValue())
+            .returnResult();
+
+        String link = firstPage.getResponseHeaders().getFirst(HttpHeaders.LINK);
+        assertThat(link).endsWith("; rel=\"next\"");
+        URI next = URI.create(link.substring(1, link.indexOf('>')));
+
+        // Get the last page through the next link
+        webTestClient
+            .get()
+            .uri(next.getRawPath() + "?" + next.getRawQuery())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist(HttpHeaders.LINK)
+            .expectBody()
+            .jsonPath("$.length()")
+            .isEqualTo(1)
+            .jsonPath("$.[0].id")
+            .isEqualTo(laterSpeaker.getId().intValue());
+    }
+
+    @Test
+    void getAllSpeakersWithInvalidCursor() {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=*")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
+    @Test
+    void getAllSpeakersNotModified() {
+        // Initialize the database
+        speakerRepository.save(speaker).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(Speaker.class)
+            .getResponseHeaders()
+            .getETag();
+        assertThat(eTag).isNotNull();
+
+        // Get the speakers with the same ETag
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified();
+
+        // Update the speaker, which changes the ETag
+        speakerRepository.save(speaker.lastName(UPDATED_LAST_NAME)).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].lastName")
+            .value(hasItem(UPDATED_LAST_NAME));
+    }
+
+    @Test
+    void getSpeakerModifiedByAnotherInstance() {
+        // Initialize the database
+        speakerRepository.save(speaker).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, speaker.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(Speaker.class)
+            .getResponseHeaders()
+            .getETag();
+
+        // Update the speaker as another gateway instance would, through the shared database
+        db
+            .sql("UPDATE speaker SET last_name = :lastName WHERE id = :id")
+            .bind("lastName", UPDATED_LAST_NAME)
+            .bind("id", speaker.getId())
+            .then()
+            .block();
+        db.sql("UPDATE entity_version SET version = version + 1 WHERE entity_type = 'speaker'").then().block();
+        entityVersionService.refresh().block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, speaker.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.lastName")
+            .isEqualTo(UPDATED_LAST_NAME);
+    }
+
+    @Test
+    void getAllSpeakersModifiedByBatchDelete() {
+        // Initialize the database
+        speakerRepository.save(speaker).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(Speaker.class)
+            .getResponseHeaders()
+            .getETag();
+
+        speakerRepository.deleteAll(List.of(speaker)).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isOk();
+    }
+
     @Test
     void getSpeaker() {
         // Initialize the database
@@ -385,6 +570,55 @@ class SpeakerResourceIT {
             .value(is(DEFAULT_BIO));
     }
 
+    @Test
+    void getSpeakerWithSessions() {
+        // Initialize the database
+        Session session = sessionRepository.save(SessionResourceIT.createEntity(em)).block();
+        speaker.addSessions(session);
+        speakerRepository.save(speaker).block();
+
+        // Get the speaker with its sessions
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, speaker.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.sessions.[*].id")
+            .value(hasItem(session.getId().intValue()));
+
+        // Get all the speakers with their sessions
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].sessions.[*].id")
+            .value(hasItem(session.getId().intValue()));
+    }
+
+    @Test
+    void updateSpeakerSessions() {
+        // Initialize the database
+        Session first = sessionRepository.save(SessionResourceIT.createEntity(em)).block();
+        Session second = sessionRepository.save(SessionResourceIT.createEntity(em)).block();
+        Session third = sessionRepository.save(SessionResourceIT.createEntity(em)).block();
+        speaker.addSessions(first).addSessions(second);
+        speakerRepository.save(speaker).block();
+
+        // Replace the first session with the third one
+        speaker.removeSessions(first).addSessions(third);
+        speakerRepository.save(speaker).block();
+
+        Speaker testSpeaker = speakerRepository.findOneWithEagerRelationships(speaker.getId()).block();
+        assertThat(testSpeaker.getSessions()).extracting(Session::getId).containsExactlyInAnyOrder(second.getId(), third.getId());
+    }
+
     @Test
     void getNonExistingSpeaker() {
         // Get the speaker
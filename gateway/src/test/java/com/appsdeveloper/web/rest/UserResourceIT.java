@@ -287,6 +287,36 @@ class UserResourceIT {
         assertThat(foundUser.getAuthorities()).containsExactly(AuthoritiesConstants.USER);
     }
 
+    @Test
+    void getAllUsersSortedAndPaginated() {
+        // Initialize the database
+        userRepository.save(user).block();
+        User otherUser = createEntity(em);
+        otherUser.setLogin("a" + DEFAULT_LOGIN);
+        userRepository.save(otherUser).block();
+        authorityRepository
+            .findById(AuthoritiesConstants.USER)
+            .flatMap(authority -> userRepository.saveUserAuthority(user.getId(), authority.getName()))
+            .block();
+
+        // Get the second page of the users sorted by login
+        List<AdminUserDTO> foundUsers = webTestClient
+            .get()
+            .uri("/api/admin/users?sort=login,ASC&page=1&size=1")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(AdminUserDTO.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+
+        assertThat(foundUsers).hasSize(1);
+        assertThat(foundUsers.get(0).getLogin()).isEqualTo(DEFAULT_LOGIN);
+        assertThat(foundUsers.get(0).getAuthorities()).containsExactly(AuthoritiesConstants.USER);
+    }
+
     @Test
     void getUser() {
         // Initialize the database
@@ -13,10 +13,28 @@ public class ApplicationProperties {
 
     private final Oauth2 oauth2 = new Oauth2();
 
+    private final SwaggerCache swaggerCache = new SwaggerCache();
+
+    private final EurekaSnapshot eurekaSnapshot = new EurekaSnapshot();
+
+    private final TokenCache tokenCache = new TokenCache();
+
     public Oauth2 getOauth2() {
         return oauth2;
     }
 
+    public SwaggerCache getSwaggerCache() {
+        return swaggerCache;
+    }
+
+    public EurekaSnapshot getEurekaSnapshot() {
+        return eurekaSnapshot;
+    }
+
+    public TokenCache getTokenCache() {
+        return tokenCache;
+    }
+
     public static class Oauth2 {
 
         private String principalAttribute;
@@ -39,4 +57,53 @@ public class ApplicationProperties {
             this.authoritiesAttribute = authoritiesAttribute;
         }
     }
+
+    public static class SwaggerCache {
+
+        private int maxSize = 100;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class EurekaSnapshot {
+
+        private long refreshIntervalMillis = 1000;
+
+        private long sseTimeoutMillis = 1_800_000;
+
+        public long getRefreshIntervalMillis() {
+            return refreshIntervalMillis;
+        }
+
+        public void setRefreshIntervalMillis(long refreshIntervalMillis) {
+            this.refreshIntervalMillis = refreshIntervalMillis;
+        }
+
+        public long getSseTimeoutMillis() {
+            return sseTimeoutMillis;
+        }
+
+        public void setSseTimeoutMillis(long sseTimeoutMillis) {
+            this.sseTimeoutMillis = sseTimeoutMillis;
+        }
+    }
+
+    public static class TokenCache {
+
+        private int maxSize = 10_000;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
 }
@@ -4,6 +4,8 @@ import io.github.jhipster.config.JHipsterProperties;
 
 import io.github.jhipster.registry.gateway.accesscontrol.AccessControlFilter;
 import io.github.jhipster.registry.gateway.responserewriting.SwaggerBasePathRewritingFilter;
+import io.github.jhipster.registry.gateway.responserewriting.SwaggerDocsCache;
+import io.github.jhipster.registry.gateway.responserewriting.SwaggerDocsCacheFilter;
 import org.springframework.cloud.netflix.zuul.filters.RouteLocator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,8 +17,18 @@ public class GatewayConfiguration {
     public static class SwaggerBasePathRewritingConfiguration {
 
         @Bean
-        public SwaggerBasePathRewritingFilter swaggerBasePathRewritingFilter() {
-            return new SwaggerBasePathRewritingFilter();
+        public SwaggerDocsCache swaggerDocsCache(ApplicationProperties applicationProperties) {
+            return new SwaggerDocsCache(applicationProperties);
+        }
+
+        @Bean
+        public SwaggerDocsCacheFilter swaggerDocsCacheFilter(SwaggerDocsCache swaggerDocsCache) {
+            return new SwaggerDocsCacheFilter(swaggerDocsCache);
+        }
+
+        @Bean
+        public SwaggerBasePathRewritingFilter swaggerBasePathRewritingFilter(SwaggerDocsCache swaggerDocsCache) {
+            return new SwaggerBasePathRewritingFilter(swaggerDocsCache);
         }
     }
 
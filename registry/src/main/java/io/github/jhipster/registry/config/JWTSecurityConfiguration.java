@@ -5,6 +5,7 @@ import io.github.jhipster.registry.security.AuthoritiesConstants;
 import io.github.jhipster.registry.security.Http401UnauthorizedEntryPoint;
 import io.github.jhipster.registry.security.jwt.JWTConfigurer;
 import io.github.jhipster.registry.security.jwt.TokenProvider;
+import io.github.jhipster.registry.security.jwt.VerifiedTokenCache;
 import io.github.jhipster.registry.gateway.JWTTokenRelayFilter;
 import org.springframework.beans.factory.BeanInitializationException;
 import org.springframework.beans.factory.annotation.Value;
@@ -39,6 +40,8 @@ public class JWTSecurityConfiguration extends WebSecurityConfigurerAdapter {
 
     private final JHipsterProperties jHipsterProperties;
 
+    private final ApplicationProperties applicationProperties;
+
     private final String username;
 
     private final String password;
@@ -50,13 +53,15 @@ public class JWTSecurityConfiguration extends WebSecurityConfigurerAdapter {
                                     @Value("${spring.security.user.roles}") String[] roles,
                                     AuthenticationManagerBuilder authenticationManagerBuilder,
                                     Http401UnauthorizedEntryPoint authenticationEntryPoint,
-                                    JHipsterProperties jHipsterProperties) {
+                                    JHipsterProperties jHipsterProperties,
+                                    ApplicationProperties applicationProperties) {
         this.username = username;
         this.password = password;
         this.roles = roles;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
         this.authenticationEntryPoint = authenticationEntryPoint;
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @PostConstruct
@@ -140,9 +145,14 @@ public class JWTSecurityConfiguration extends WebSecurityConfigurerAdapter {
         return new JWTConfigurer(tokenProvider());
     }
 
+    @Bean
+    public VerifiedTokenCache verifiedTokenCache() {
+        return new VerifiedTokenCache(applicationProperties);
+    }
+
     @Bean
     public TokenProvider tokenProvider() {
-        return new TokenProvider(jHipsterProperties);
+        return new TokenProvider(jHipsterProperties, verifiedTokenCache());
     }
 
     @Bean
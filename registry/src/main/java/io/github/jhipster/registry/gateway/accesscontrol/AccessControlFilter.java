@@ -5,15 +5,27 @@ import com.netflix.zuul.context.RequestContext;
 import io.github.jhipster.config.JHipsterProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.cloud.netflix.zuul.RoutesRefreshedEvent;
 import org.springframework.cloud.netflix.zuul.filters.Route;
 import org.springframework.cloud.netflix.zuul.filters.RouteLocator;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpStatus;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Zuul filter for restricting access to backend micro-services endpoints.
+ *
+ * The routes and their authorized endpoints are compiled into a {@link PrefixTrie}, so a request is matched in a
+ * single pass over its URI. The trie is rebuilt on the first request after the routes were refreshed: the
+ * {@link RouteLocator} only reloads its routes when the next request is mapped, so they are still stale when the
+ * {@link RoutesRefreshedEvent} is published. It is also rebuilt after a configuration refresh, which may change the
+ * access control policy: on the {@link EnvironmentChangeEvent}, and again on the {@link RefreshScopeRefreshedEvent}
+ * once the properties are rebound, so a trie compiled in between from the previous policy is never kept.
  */
 public class AccessControlFilter extends ZuulFilter {
 
@@ -23,6 +35,10 @@ public class AccessControlFilter extends ZuulFilter {
 
     private final JHipsterProperties jHipsterProperties;
 
+    private final AtomicLong routesVersion = new AtomicLong();
+
+    private volatile CompiledRoutes compiledRoutes;
+
     public AccessControlFilter(RouteLocator routeLocator, JHipsterProperties jHipsterProperties) {
         this.routeLocator = routeLocator;
         this.jHipsterProperties = jHipsterProperties;
@@ -38,6 +54,21 @@ public class AccessControlFilter extends ZuulFilter {
         return 0;
     }
 
+    @EventListener
+    public void onRoutesRefreshed(RoutesRefreshedEvent event) {
+        routesVersion.incrementAndGet();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        routesVersion.incrementAndGet();
+    }
+
+    @EventListener
+    public void onRefreshScopeRefreshed(RefreshScopeRefreshedEvent event) {
+        routesVersion.incrementAndGet();
+    }
+
     /**
      * Filter requests on endpoints that are not in the list of authorized microservices endpoints.
      */
@@ -47,43 +78,67 @@ public class AccessControlFilter extends ZuulFilter {
         String contextPath = RequestContext.getCurrentContext().getRequest().getContextPath();
 
         // If the request Uri does not start with the path of the authorized endpoints, we block the request
-        for (Route route : routeLocator.getRoutes()) {
-            String serviceUrl = contextPath + route.getFullPath();
-            String serviceName = route.getId();
+        if (!requestUri.startsWith(contextPath)) {
+            return true;
+        }
+        // If a route correspond to the current request URI, the first one is used
+        AuthorizedRoute route = getCompiledRoutes().routes.findFirst(requestUri, contextPath.length());
+        if (route == null) {
+            return true;
+        }
+        return !isAuthorizedRequest(route, requestUri, contextPath.length());
+    }
 
-            // If this route correspond to the current request URI
-            // We do a substring to remove the "**" at the end of the route URL
-            if (requestUri.startsWith(serviceUrl.substring(0, serviceUrl.length() - 2))) {
-                return !isAuthorizedRequest(serviceUrl, serviceName, requestUri);
-            }
+    private boolean isAuthorizedRequest(AuthorizedRoute route, String requestUri, int offset) {
+        // If the authorized endpoints list was left empty for this route, all access are allowed
+        if (route.authorizedEndpoints == null) {
+            log.debug("Access Control: allowing access for {}, as no access control policy has been set up for " +
+                "service: {}", requestUri, route.serviceName);
+            return true;
         }
-        return true;
+        // Control that the request URI matches one of the authorized endpoints
+        String gatewayEndpoint = route.authorizedEndpoints.findAny(requestUri, offset);
+        if (gatewayEndpoint != null) {
+            log.debug("Access Control: allowing access for {}, as it matches the following authorized " +
+                "microservice endpoint: {}", requestUri, gatewayEndpoint);
+            return true;
+        }
+        return false;
     }
 
-    private boolean isAuthorizedRequest(String serviceUrl, String serviceName, String requestUri) {
+    private CompiledRoutes getCompiledRoutes() {
+        CompiledRoutes current = compiledRoutes;
+        long version = routesVersion.get();
+        if (current == null || current.version != version) {
+            current = compileRoutes(version);
+            compiledRoutes = current;
+        }
+        return current;
+    }
+
+    private CompiledRoutes compileRoutes(long version) {
         Map<String, List<String>> authorizedMicroservicesEndpoints = jHipsterProperties.getGateway()
             .getAuthorizedMicroservicesEndpoints();
 
-        // If the authorized endpoints list was left empty for this route, all access are allowed
-        if (authorizedMicroservicesEndpoints.get(serviceName) == null) {
-            log.debug("Access Control: allowing access for {}, as no access control policy has been set up for " +
-                "service: {}", requestUri, serviceName);
-            return true;
-        } else {
-            List<String> authorizedEndpoints = authorizedMicroservicesEndpoints.get(serviceName);
-
-            // Go over the authorized endpoints to control that the request URI matches it
-            for (String endpoint : authorizedEndpoints) {
-                // We do a substring to remove the "**/" at the end of the route URL
-                String gatewayEndpoint = serviceUrl.substring(0, serviceUrl.length() - 3) + endpoint;
-                if (requestUri.startsWith(gatewayEndpoint)) {
-                    log.debug("Access Control: allowing access for {}, as it matches the following authorized " +
-                        "microservice endpoint: {}", requestUri, gatewayEndpoint);
-                    return true;
+        PrefixTrie<AuthorizedRoute> routes = new PrefixTrie<>();
+        for (Route route : routeLocator.getRoutes()) {
+            String serviceUrl = route.getFullPath();
+            String serviceName = route.getId();
+            PrefixTrie<String> authorizedEndpoints = null;
+            List<String> endpoints = authorizedMicroservicesEndpoints.get(serviceName);
+            if (endpoints != null) {
+                authorizedEndpoints = new PrefixTrie<>();
+                for (String endpoint : endpoints) {
+                    // We do a substring to remove the "**/" at the end of the route URL
+                    String gatewayEndpoint = serviceUrl.substring(0, serviceUrl.length() - 3) + endpoint;
+                    authorizedEndpoints.put(gatewayEndpoint, gatewayEndpoint);
                 }
             }
+            // We do a substring to remove the "**" at the end of the route URL
+            routes.put(serviceUrl.substring(0, serviceUrl.length() - 2), new AuthorizedRoute(serviceName, authorizedEndpoints));
         }
-        return false;
+        log.debug("Access Control: compiled {} routes", routes.size());
+        return new CompiledRoutes(version, routes);
     }
 
     @Override
@@ -96,4 +151,29 @@ public class AccessControlFilter extends ZuulFilter {
         log.debug("Access Control: filtered unauthorized access on endpoint {}", ctx.getRequest().getRequestURI());
         return null;
     }
+
+    private static final class CompiledRoutes {
+
+        private final long version;
+
+        private final PrefixTrie<AuthorizedRoute> routes;
+
+        private CompiledRoutes(long version, PrefixTrie<AuthorizedRoute> routes) {
+            this.version = version;
+            this.routes = routes;
+        }
+    }
+
+    private static final class AuthorizedRoute {
+
+        private final String serviceName;
+
+        // null when no access control policy has been set up for the service
+        private final PrefixTrie<String> authorizedEndpoints;
+
+        private AuthorizedRoute(String serviceName, PrefixTrie<String> authorizedEndpoints) {
+            this.serviceName = serviceName;
+            this.authorizedEndpoints = authorizedEndpoints;
+        }
+    }
 }
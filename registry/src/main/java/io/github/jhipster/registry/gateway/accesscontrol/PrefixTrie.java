@@ -0,0 +1,119 @@
+package io.github.jhipster.registry.gateway.accesscontrol;
+
+import java.util.Arrays;
+
+/**
+ * Character trie of path prefixes, matching a path against all the prefixes in a single pass over its characters.
+ *
+ * The trie is filled once and must not be modified after it has been published to other threads. Lookups don't
+ * allocate.
+ *
+ * @param <T> the type of the values associated with the prefixes.
+ */
+final class PrefixTrie<T> {
+
+    private final Node<T> root = new Node<>();
+
+    private int size;
+
+    /**
+     * Add a prefix. If the prefix was already added, its first value is kept.
+     *
+     * @param prefix the prefix.
+     * @param value the value associated with the prefix.
+     */
+    void put(String prefix, T value) {
+        Node<T> node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.getOrCreateChild(prefix.charAt(i));
+        }
+        if (node.value == null) {
+            node.value = value;
+            node.order = size++;
+        }
+    }
+
+    /**
+     * Find the first added prefix of a path.
+     *
+     * @param path the path.
+     * @param offset the index of the path where the prefixes are matched from.
+     * @return the value of the first added prefix matching the path, or {@code null} if none matches.
+     */
+    T findFirst(String path, int offset) {
+        T found = null;
+        int foundOrder = Integer.MAX_VALUE;
+        Node<T> node = root;
+        int i = offset;
+        while (node != null) {
+            if (node.value != null && node.order < foundOrder) {
+                found = node.value;
+                foundOrder = node.order;
+            }
+            node = i < path.length() ? node.getChild(path.charAt(i++)) : null;
+        }
+        return found;
+    }
+
+    /**
+     * Find any prefix of a path.
+     *
+     * @param path the path.
+     * @param offset the index of the path where the prefixes are matched from.
+     * @return the value of the shortest prefix matching the path, or {@code null} if none matches.
+     */
+    T findAny(String path, int offset) {
+        Node<T> node = root;
+        int i = offset;
+        while (node != null) {
+            if (node.value != null) {
+                return node.value;
+            }
+            node = i < path.length() ? node.getChild(path.charAt(i++)) : null;
+        }
+        return null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static final class Node<T> {
+
+        private static final char[] NO_KEYS = new char[0];
+
+        // keys are sorted, children[i] is the child for keys[i]
+        private char[] keys = NO_KEYS;
+
+        @SuppressWarnings("unchecked")
+        private Node<T>[] children = new Node[0];
+
+        private T value;
+
+        private int order;
+
+        private Node<T> getChild(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node<T> getOrCreateChild(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertion = -index - 1;
+            Node<T> child = new Node<>();
+            char[] newKeys = new char[keys.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertion);
+            System.arraycopy(keys, insertion, newKeys, insertion + 1, keys.length - insertion);
+            newKeys[insertion] = key;
+            Node<T>[] newChildren = Arrays.copyOf(children, children.length + 1);
+            System.arraycopy(children, insertion, newChildren, insertion + 1, children.length - insertion);
+            newChildren[insertion] = child;
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+    }
+}
@@ -1,31 +1,45 @@
 package io.github.jhipster.registry.gateway.responserewriting;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.netflix.zuul.context.RequestContext;
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.netflix.zuul.filters.ZuulProperties;
 import org.springframework.cloud.netflix.zuul.filters.post.SendResponseFilter;
+import org.springframework.http.HttpStatus;
 import springfox.documentation.swagger2.web.Swagger2Controller;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
-import java.util.LinkedHashMap;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 /**
  * Zuul filter to rewrite micro-services Swagger URL Base Path.
+ *
+ * The docs are streamed token by token from the micro-service response to the rewritten response, so only the
+ * {@code basePath} field is replaced, without building the whole document in memory.
  */
 public class SwaggerBasePathRewritingFilter extends SendResponseFilter {
 
+    private static final String BASE_PATH_FIELD = "basePath";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+        .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
     private final Logger log = LoggerFactory.getLogger(SwaggerBasePathRewritingFilter.class);
 
-    private ObjectMapper mapper = new ObjectMapper();
+    private final SwaggerDocsCache swaggerDocsCache;
 
-    public SwaggerBasePathRewritingFilter() {
+    public SwaggerBasePathRewritingFilter(SwaggerDocsCache swaggerDocsCache) {
         super(new ZuulProperties());
+        this.swaggerDocsCache = swaggerDocsCache;
     }
 
     @Override
@@ -39,11 +53,13 @@ public class SwaggerBasePathRewritingFilter extends SendResponseFilter {
     }
 
     /**
-     * Filter requests to micro-services Swagger docs.
+     * Filter requests to micro-services Swagger docs, unless they were served from the cache.
      */
     @Override
     public boolean shouldFilter() {
-        return RequestContext.getCurrentContext().getRequest().getRequestURI().endsWith(Swagger2Controller.DEFAULT_URL);
+        RequestContext context = RequestContext.getCurrentContext();
+        return context.get(SwaggerDocsCacheFilter.CACHED_KEY) == null &&
+            context.getRequest().getRequestURI().endsWith(Swagger2Controller.DEFAULT_URL);
     }
 
     @Override
@@ -52,40 +68,75 @@ public class SwaggerBasePathRewritingFilter extends SendResponseFilter {
 
         context.getResponse().setCharacterEncoding("UTF-8");
 
-        String rewrittenResponse = rewriteBasePath(context);
-        if (context.getResponseGZipped()) {
-            try {
-                context.setResponseDataStream(new ByteArrayInputStream(gzipData(rewrittenResponse)));
-            } catch (IOException e) {
-                log.error("Swagger-docs filter error", e);
-            }
+        InputStream responseDataStream = context.getResponseDataStream();
+        if (responseDataStream == null) {
+            return null;
+        }
+        String requestUri = context.getRequest().getRequestURI();
+        String basePath = requestUri.replace(Swagger2Controller.DEFAULT_URL, "");
+        boolean gzipped = context.getResponseGZipped();
+        byte[] rewrittenResponse;
+        try {
+            rewrittenResponse = rewriteBasePath(responseDataStream, basePath, gzipped);
+            log.debug("Swagger-docs: rewritten Base URL with correct micro-service route: {}", basePath);
+        } catch (IOException e) {
+            log.error("Swagger-docs filter error", e);
+            context.setResponseDataStream(null);
+            context.setResponseBody(null);
+            return null;
+        }
+        String version = (String) context.get(SwaggerDocsCacheFilter.INSTANCE_VERSION_KEY);
+        if (version != null && context.getResponseStatusCode() == HttpStatus.OK.value()) {
+            swaggerDocsCache.put(requestUri, version, rewrittenResponse, gzipped);
+        }
+        if (gzipped) {
+            context.setResponseDataStream(new ByteArrayInputStream(rewrittenResponse));
         } else {
-            context.setResponseBody(rewrittenResponse);
+            context.setResponseDataStream(null);
+            context.setResponseBody(new String(rewrittenResponse, StandardCharsets.UTF_8));
         }
         return null;
     }
 
-    @SuppressWarnings("unchecked")
-    private String rewriteBasePath(RequestContext context) {
-        InputStream responseDataStream = context.getResponseDataStream();
-        String requestUri = RequestContext.getCurrentContext().getRequest().getRequestURI();
-        try {
-            if (context.getResponseGZipped()) {
-                responseDataStream = new GZIPInputStream(context.getResponseDataStream());
+    private static byte[] rewriteBasePath(InputStream responseDataStream, String basePath, boolean gzipped) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (InputStream in = gzipped ? new GZIPInputStream(responseDataStream) : responseDataStream;
+             OutputStream out = gzipped ? new GZIPOutputStream(bos) : bos) {
+            rewriteBasePath(in, out, basePath);
+        }
+        return bos.toByteArray();
+    }
+
+    /**
+     * Copy a Swagger document, replacing or adding its top-level {@code basePath}.
+     */
+    static void rewriteBasePath(InputStream in, OutputStream out, String basePath) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Swagger docs must be a JSON object");
             }
-            String response = IOUtils.toString(responseDataStream, StandardCharsets.UTF_8);
-            if (response != null) {
-                LinkedHashMap<String, Object> map = this.mapper.readValue(response, LinkedHashMap.class);
-
-                String basePath = requestUri.replace(Swagger2Controller.DEFAULT_URL, "");
-                map.put("basePath", basePath);
-                log.debug("Swagger-docs: rewritten Base URL with correct micro-service route: {}", basePath);
-                return mapper.writeValueAsString(map);
+            generator.writeStartObject();
+            boolean basePathWritten = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if (BASE_PATH_FIELD.equals(fieldName)) {
+                    parser.skipChildren();
+                    if (!basePathWritten) {
+                        generator.writeStringField(BASE_PATH_FIELD, basePath);
+                        basePathWritten = true;
+                    }
+                } else {
+                    generator.writeFieldName(fieldName);
+                    generator.copyCurrentStructure(parser);
+                }
             }
-        } catch (IOException e) {
-            log.error("Swagger-docs filter error", e);
+            if (!basePathWritten) {
+                generator.writeStringField(BASE_PATH_FIELD, basePath);
+            }
+            generator.writeEndObject();
         }
-        return null;
     }
 
     public static byte[] gzipData(String content) throws IOException {
@@ -0,0 +1,97 @@
+package io.github.jhipster.registry.gateway.responserewriting;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.eureka.EurekaServerContext;
+import com.netflix.eureka.EurekaServerContextHolder;
+import io.github.jhipster.registry.config.ApplicationProperties;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of the rewritten Swagger docs of the micro-services instances.
+ *
+ * The docs are cached by request URI, along with the Eureka dirty timestamp of the instance they were loaded from: the
+ * timestamp changes when the instance registers again, e.g. after a new version was deployed, which discards the docs.
+ */
+public class SwaggerDocsCache {
+
+    private final Map<String, CachedDocs> docs = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    public SwaggerDocsCache(ApplicationProperties applicationProperties) {
+        this.maxSize = applicationProperties.getSwaggerCache().getMaxSize();
+    }
+
+    /**
+     * Get the version of the instance behind a route.
+     *
+     * @param instanceId the id of the route, which is the id of the instance for the routes to the Eureka instances.
+     * @return the version of the instance, or {@code null} if the route doesn't lead to a single Eureka instance, or
+     * if the cache is disabled.
+     */
+    public String getInstanceVersion(String instanceId) {
+        EurekaServerContextHolder holder = EurekaServerContextHolder.getInstance();
+        if (maxSize <= 0 || instanceId == null || holder == null) {
+            return null;
+        }
+        EurekaServerContext serverContext = holder.getServerContext();
+        List<InstanceInfo> instances = serverContext.getRegistry().getInstancesById(instanceId);
+        if (instances.size() != 1 || instances.get(0).getLastDirtyTimestamp() == null) {
+            return null;
+        }
+        return String.valueOf(instances.get(0).getLastDirtyTimestamp());
+    }
+
+    public CachedDocs get(String requestUri, String version) {
+        CachedDocs cachedDocs = docs.get(requestUri);
+        if (cachedDocs == null || !cachedDocs.version.equals(version)) {
+            return null;
+        }
+        return cachedDocs;
+    }
+
+    public void put(String requestUri, String version, byte[] body, boolean gzipped) {
+        if (maxSize <= 0) {
+            return;
+        }
+        if (docs.size() >= maxSize && !docs.containsKey(requestUri)) {
+            Iterator<String> requestUris = docs.keySet().iterator();
+            while (docs.size() >= maxSize && requestUris.hasNext()) {
+                requestUris.next();
+                requestUris.remove();
+            }
+        }
+        docs.put(requestUri, new CachedDocs(version, body, gzipped));
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    public static final class CachedDocs {
+
+        private final String version;
+
+        private final byte[] body;
+
+        private final boolean gzipped;
+
+        private CachedDocs(String version, byte[] body, boolean gzipped) {
+            this.version = version;
+            this.body = body;
+            this.gzipped = gzipped;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public boolean isGzipped() {
+            return gzipped;
+        }
+    }
+}
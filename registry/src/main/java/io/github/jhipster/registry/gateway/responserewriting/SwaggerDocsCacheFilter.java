@@ -0,0 +1,81 @@
+package io.github.jhipster.registry.gateway.responserewriting;
+
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import springfox.documentation.swagger2.web.Swagger2Controller;
+
+import java.io.ByteArrayInputStream;
+
+/**
+ * Zuul filter to serve micro-services Swagger docs from the {@link SwaggerDocsCache}, without calling the micro-service.
+ *
+ * On a cache miss, the version of the instance is kept in the request context, so that the
+ * {@link SwaggerBasePathRewritingFilter} caches the rewritten docs.
+ */
+public class SwaggerDocsCacheFilter extends ZuulFilter {
+
+    static final String INSTANCE_VERSION_KEY = "swaggerDocsInstanceVersion";
+
+    static final String CACHED_KEY = "swaggerDocsCached";
+
+    private final Logger log = LoggerFactory.getLogger(SwaggerDocsCacheFilter.class);
+
+    private final SwaggerDocsCache swaggerDocsCache;
+
+    public SwaggerDocsCacheFilter(SwaggerDocsCache swaggerDocsCache) {
+        this.swaggerDocsCache = swaggerDocsCache;
+    }
+
+    @Override
+    public String filterType() {
+        return "pre";
+    }
+
+    /**
+     * Run once the route, and so the instance, is known.
+     */
+    @Override
+    public int filterOrder() {
+        return FilterConstants.PRE_DECORATION_FILTER_ORDER + 1;
+    }
+
+    /**
+     * Filter requests to micro-services Swagger docs.
+     */
+    @Override
+    public boolean shouldFilter() {
+        RequestContext context = RequestContext.getCurrentContext();
+        return context.sendZuulResponse() &&
+            context.getRequest().getRequestURI().endsWith(Swagger2Controller.DEFAULT_URL);
+    }
+
+    @Override
+    public Object run() {
+        RequestContext context = RequestContext.getCurrentContext();
+        String version = swaggerDocsCache.getInstanceVersion((String) context.get(FilterConstants.PROXY_KEY));
+        if (version == null) {
+            return null;
+        }
+        String requestUri = context.getRequest().getRequestURI();
+        SwaggerDocsCache.CachedDocs cachedDocs = swaggerDocsCache.get(requestUri, version);
+        if (cachedDocs == null) {
+            context.set(INSTANCE_VERSION_KEY, version);
+            return null;
+        }
+        log.debug("Swagger-docs: serving {} from the cache", requestUri);
+        context.set(CACHED_KEY, true);
+        context.setSendZuulResponse(false);
+        context.setResponseStatusCode(HttpStatus.OK.value());
+        context.addZuulResponseHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        context.getResponse().setCharacterEncoding("UTF-8");
+        context.setResponseGZipped(cachedDocs.isGzipped());
+        context.setResponseDataStream(new ByteArrayInputStream(cachedDocs.getBody()));
+        return null;
+    }
+}
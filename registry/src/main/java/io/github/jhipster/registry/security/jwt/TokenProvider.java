@@ -28,14 +28,19 @@ public class TokenProvider {
 
     private Key key;
 
+    private JwtParser jwtParser;
+
     private long tokenValidityInMilliseconds;
 
     private long tokenValidityInMillisecondsForRememberMe;
 
     private final JHipsterProperties jHipsterProperties;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties) {
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    public TokenProvider(JHipsterProperties jHipsterProperties, VerifiedTokenCache verifiedTokenCache) {
         this.jHipsterProperties = jHipsterProperties;
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @PostConstruct
@@ -51,6 +56,8 @@ public class TokenProvider {
             keyBytes = Decoders.BASE64.decode(jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret());
         }
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        // the parser is immutable and thread-safe, so it is built once for all the requests
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
         this.tokenValidityInMilliseconds =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
@@ -80,21 +87,19 @@ public class TokenProvider {
     }
 
     public Authentication getAuthentication(String token) {
-    	Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
-
-        Collection<? extends GrantedAuthority> authorities =
-            Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
-
-        User principal = new User(claims.getSubject(), "", authorities);
-
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        Authentication authentication = verifiedTokenCache.get(token);
+        if (authentication != null) {
+            return authentication;
+        }
+        return verify(token);
     }
 
     public boolean validateToken(String authToken) {
+        if (verifiedTokenCache.get(authToken) != null) {
+            return true;
+        }
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(authToken);
+            verify(authToken);
             return true;
         } catch (io.jsonwebtoken.security.SecurityException | MalformedJwtException e) {
             log.info("Invalid JWT signature.");
@@ -111,4 +116,23 @@ public class TokenProvider {
         }
         return false;
     }
+
+    /**
+     * Verify a token and cache the {@link Authentication} built from its claims, so that the {@link JWTFilter} checks
+     * the signature once, and not again for each request made with the same token.
+     */
+    private Authentication verify(String token) {
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+
+        Collection<? extends GrantedAuthority> authorities =
+            Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        User principal = new User(claims.getSubject(), "", authorities);
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        verifiedTokenCache.put(token, claims.getExpiration(), authentication);
+        return authentication;
+    }
 }
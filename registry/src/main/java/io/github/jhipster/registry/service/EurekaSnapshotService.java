@@ -0,0 +1,373 @@
+package io.github.jhipster.registry.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.config.ConfigurationManager;
+import com.netflix.discovery.shared.Application;
+import com.netflix.eureka.EurekaServerContextHolder;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.resources.StatusResource;
+import com.netflix.eureka.util.StatusInfo;
+import io.github.jhipster.registry.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Snapshots of the Eureka registry, as shown by the registry dashboards.
+ *
+ * The snapshots are immutable and versioned, so the dashboards polling the registry don't walk it on every request, and
+ * their serialization can be reused. They are refreshed on request at most once per refresh interval, and in the
+ * background only while dashboards are subscribed to the registry changes. The applications snapshot is only rebuilt
+ * when the {@link RegistryFingerprint} changed, and its changes are pushed as server-sent events to the subscribed
+ * dashboards.
+ *
+ * The events are queued under the refresh lock, so they keep the order of the snapshots, but they are sent by a
+ * dedicated thread: a stalled dashboard connection only delays the other subscribers, not the status of the registry
+ * nor the scheduled tasks.
+ */
+@Service
+public class EurekaSnapshotService {
+
+    public static final String APPLICATIONS_EVENT = "applications";
+
+    public static final String DELTA_EVENT = "delta";
+
+    private final Logger log = LoggerFactory.getLogger(EurekaSnapshotService.class);
+
+    private final ObjectMapper objectMapper;
+
+    private final long refreshIntervalMillis;
+
+    private final long sseTimeoutMillis;
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(
+        job -> {
+            Thread thread = new Thread(job, "eureka-snapshot-sender");
+            thread.setDaemon(true);
+            return thread;
+        }
+    );
+
+    private volatile ApplicationsSnapshot applications;
+
+    private volatile long applicationsExpiresAt;
+
+    private volatile StatusSnapshot status;
+
+    private volatile long statusExpiresAt;
+
+    public EurekaSnapshotService(ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
+        this.objectMapper = objectMapper;
+        this.refreshIntervalMillis = applicationProperties.getEurekaSnapshot().getRefreshIntervalMillis();
+        this.sseTimeoutMillis = applicationProperties.getEurekaSnapshot().getSseTimeoutMillis();
+    }
+
+    /**
+     * Get the applications of the registry, which are checked for changes at most once per refresh interval.
+     *
+     * @return the applications snapshot.
+     */
+    public ApplicationsSnapshot getApplications() {
+        ApplicationsSnapshot current = applications;
+        if (current == null || System.currentTimeMillis() >= applicationsExpiresAt) {
+            refreshApplications();
+            current = applications;
+        }
+        return current;
+    }
+
+    /**
+     * Get the status of the registry, which is computed at most once per refresh interval.
+     *
+     * @return the status snapshot.
+     */
+    public StatusSnapshot getStatus() {
+        StatusSnapshot current = status;
+        if (current == null || System.currentTimeMillis() >= statusExpiresAt) {
+            refreshStatus();
+            current = status;
+        }
+        return current;
+    }
+
+    /**
+     * Subscribe to the changes of the registry: the current applications are sent at once, followed by the added,
+     * updated and removed instances.
+     *
+     * @return the emitter of the events.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        // the snapshot is queued under the refresh lock, so the first delta received is the one following it
+        synchronized (this) {
+            ApplicationsSnapshot current = getApplications();
+            SseEmitter.SseEventBuilder event = SseEmitter.event()
+                .name(APPLICATIONS_EVENT)
+                .id(String.valueOf(current.getVersion()))
+                .data(new String(toJson(current.getApplications()), StandardCharsets.UTF_8), MediaType.APPLICATION_JSON);
+            emitters.add(emitter);
+            sender.execute(() -> send(emitter, event));
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * Push the changes of the registry to the subscribed dashboards, if any.
+     */
+    @Scheduled(fixedDelayString = "${application.eureka-snapshot.refresh-interval-millis:1000}")
+    public void refresh() {
+        if (emitters.isEmpty() || EurekaServerContextHolder.getInstance() == null) {
+            return;
+        }
+        refreshApplications();
+    }
+
+    private synchronized void refreshApplications() {
+        PeerAwareInstanceRegistry registry = getRegistry();
+        long fingerprint = RegistryFingerprint.of(registry.getApplications().getRegisteredApplications());
+        applicationsExpiresAt = System.currentTimeMillis() + refreshIntervalMillis;
+        ApplicationsSnapshot previous = applications;
+        if (previous != null && previous.fingerprint == fingerprint) {
+            return;
+        }
+        long version = previous == null ? 1 : previous.getVersion() + 1;
+        Map<String, Map<String, Object>> instances = new LinkedHashMap<>();
+        List<Map<String, Object>> apps = new ArrayList<>();
+        for (Application app : registry.getSortedApplications()) {
+            Map<String, Object> appData = new LinkedHashMap<>();
+            appData.put("name", app.getName());
+            List<Map<String, Object>> appInstances = new ArrayList<>();
+            for (InstanceInfo info : app.getInstances()) {
+                Map<String, Object> instance = new HashMap<>();
+                instance.put("instanceId", info.getInstanceId());
+                instance.put("homePageUrl", info.getHomePageUrl());
+                instance.put("healthCheckUrl", info.getHealthCheckUrl());
+                instance.put("statusPageUrl", info.getStatusPageUrl());
+                instance.put("status", info.getStatus().name());
+                instance.put("metadata", Collections.unmodifiableMap(new HashMap<>(info.getMetadata())));
+                instance = Collections.unmodifiableMap(instance);
+                appInstances.add(instance);
+                instances.put(app.getName() + "/" + info.getInstanceId(), instance);
+            }
+            appData.put("instances", Collections.unmodifiableList(appInstances));
+            apps.add(Collections.unmodifiableMap(appData));
+        }
+        ApplicationsSnapshot snapshot = new ApplicationsSnapshot(version, Collections.unmodifiableList(apps), fingerprint,
+            Collections.unmodifiableMap(instances));
+        applications = snapshot;
+        log.debug("Eureka registry changed, new snapshot version: {}", version);
+        if (previous != null) {
+            publishDelta(previous, snapshot);
+        }
+    }
+
+    private synchronized void refreshStatus() {
+        StatusSnapshot previous = status;
+        long now = System.currentTimeMillis();
+        if (previous != null && now < statusExpiresAt) {
+            return;
+        }
+        long version = previous == null ? 1 : previous.getVersion() + 1;
+        status = new StatusSnapshot(version, Collections.unmodifiableMap(getEurekaStatus()));
+        statusExpiresAt = now + refreshIntervalMillis;
+    }
+
+    private void publishDelta(ApplicationsSnapshot previous, ApplicationsSnapshot current) {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> added = new ArrayList<>();
+        List<Map<String, Object>> updated = new ArrayList<>();
+        List<Map<String, Object>> removed = new ArrayList<>();
+        current.instances.forEach((key, instance) -> {
+            Map<String, Object> previousInstance = previous.instances.get(key);
+            if (previousInstance == null) {
+                added.add(instanceChange(key, instance));
+            } else if (!previousInstance.equals(instance)) {
+                updated.add(instanceChange(key, instance));
+            }
+        });
+        previous.instances.forEach((key, instance) -> {
+            if (!current.instances.containsKey(key)) {
+                removed.add(instanceChange(key, instance));
+            }
+        });
+        if (added.isEmpty() && updated.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("version", current.getVersion());
+        delta.put("added", added);
+        delta.put("updated", updated);
+        delta.put("removed", removed);
+        String data = new String(toJson(delta), StandardCharsets.UTF_8);
+        List<SseEmitter> subscribers = new ArrayList<>(emitters);
+        sender.execute(() -> {
+            for (SseEmitter emitter : subscribers) {
+                send(emitter, SseEmitter.event()
+                    .name(DELTA_EVENT)
+                    .id(String.valueOf(current.getVersion()))
+                    .data(data, MediaType.APPLICATION_JSON));
+            }
+        });
+    }
+
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        if (!emitters.contains(emitter)) {
+            return;
+        }
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Could not push the Eureka registry changes: {}", e.getMessage());
+            emitters.remove(emitter);
+        }
+    }
+
+    private static Map<String, Object> instanceChange(String key, Map<String, Object> instance) {
+        Map<String, Object> change = new LinkedHashMap<>();
+        change.put("application", key.substring(0, key.indexOf('/')));
+        change.put("instance", instance);
+        return change;
+    }
+
+    private Map<String, Object> getEurekaStatus() {
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("time", new Date());
+        stats.put("currentTime", StatusResource.getCurrentTimeAsString());
+        stats.put("upTime", StatusInfo.getUpTime());
+        stats.put("environment", ConfigurationManager.getDeploymentContext()
+            .getDeploymentEnvironment());
+        stats.put("datacenter", ConfigurationManager.getDeploymentContext()
+            .getDeploymentDatacenter());
+
+        PeerAwareInstanceRegistry registry = getRegistry();
+
+        stats.put("isBelowRenewThreshold", registry.isBelowRenewThresold() == 1);
+
+        populateInstanceInfo(stats);
+
+        return stats;
+    }
+
+    private void populateInstanceInfo(Map<String, Object> model) {
+
+        StatusInfo statusInfo;
+        try {
+            statusInfo = new StatusResource().getStatusInfo();
+        } catch (Exception e) {
+            log.error(e.getMessage());
+            statusInfo = StatusInfo.Builder.newBuilder().isHealthy(false).build();
+        }
+        if (statusInfo != null && statusInfo.getGeneralStats() != null) {
+            model.put("generalStats", statusInfo.getGeneralStats());
+        }
+        if (statusInfo != null && statusInfo.getInstanceInfo() != null) {
+            InstanceInfo instanceInfo = statusInfo.getInstanceInfo();
+            Map<String, String> instanceMap = new HashMap<>();
+            instanceMap.put("ipAddr", instanceInfo.getIPAddr());
+            instanceMap.put("status", instanceInfo.getStatus().toString());
+            model.put("instanceInfo", instanceMap);
+        }
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize the Eureka registry", e);
+        }
+    }
+
+    private PeerAwareInstanceRegistry getRegistry() {
+        return EurekaServerContextHolder.getInstance().getServerContext().getRegistry();
+    }
+
+    /**
+     * Snapshot of the registry, identified by its version.
+     */
+    public abstract static class Snapshot {
+
+        private final long version;
+
+        private Snapshot(long version) {
+            this.version = version;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    /**
+     * Snapshot of the registered applications, with their instances.
+     */
+    public static final class ApplicationsSnapshot extends Snapshot {
+
+        private final List<Map<String, Object>> applications;
+
+        private final long fingerprint;
+
+        // instances by application name and instance id, to compute the deltas
+        private final Map<String, Map<String, Object>> instances;
+
+        private ApplicationsSnapshot(long version, List<Map<String, Object>> applications, long fingerprint,
+                                     Map<String, Map<String, Object>> instances) {
+            super(version);
+            this.applications = applications;
+            this.fingerprint = fingerprint;
+            this.instances = instances;
+        }
+
+        public List<Map<String, Object>> getApplications() {
+            return applications;
+        }
+    }
+
+    /**
+     * Snapshot of the status of the registry.
+     */
+    public static final class StatusSnapshot extends Snapshot {
+
+        private final Map<String, Object> status;
+
+        private StatusSnapshot(long version, Map<String, Object> status) {
+            super(version);
+            this.status = status;
+        }
+
+        public Map<String, Object> getStatus() {
+            return status;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.jhipster.registry.service;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Fingerprint of the Eureka registry, to detect its changes without comparing the instances one by one.
+ *
+ * Eureka updates the dirty timestamp of an instance on every change, so the fingerprint changes when an instance is
+ * added, removed, or updated.
+ */
+public final class RegistryFingerprint {
+
+    private RegistryFingerprint() {
+    }
+
+    /**
+     * Fold the instances into a value which doesn't depend on their order.
+     *
+     * @param applications the registered applications.
+     * @return the fingerprint of their instances.
+     */
+    public static long of(List<Application> applications) {
+        long fingerprint = 0;
+        for (Application application : applications) {
+            for (InstanceInfo instanceInfo : application.getInstances()) {
+                long hash = Objects.hash(instanceInfo.getId(), instanceInfo.getStatus(), instanceInfo.getHomePageUrl(),
+                    instanceInfo.getLastDirtyTimestamp());
+                // spread the bits, so that the sum of the instance hashes is unlikely to collide
+                hash *= 0x9E3779B97F4A7C15L;
+                fingerprint += hash ^ (hash >>> 32);
+            }
+        }
+        return fingerprint;
+    }
+}
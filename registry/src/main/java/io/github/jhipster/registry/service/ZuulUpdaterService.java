@@ -4,6 +4,9 @@ import com.netflix.appinfo.InstanceInfo;
 import com.netflix.discovery.shared.Application;
 import com.netflix.eureka.EurekaServerContextHolder;
 import io.github.jhipster.registry.service.dto.ZuulRouteDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.netflix.zuul.RoutesRefreshedEvent;
@@ -13,14 +16,19 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Updates Zuul proxies depending on available application instances.
  *
  * This uses directly the Eureka server, so it only works with the Eureka option.
+ *
+ * When the {@link RegistryFingerprint} didn't change since the previous run, the routes are left untouched. Otherwise
+ * the routes are diffed against the instances indexed by id.
  */
 @Service
 public class ZuulUpdaterService {
@@ -33,68 +41,113 @@ public class ZuulUpdaterService {
 
     private final ApplicationEventPublisher publisher;
 
+    private final Timer updateTimer;
+
+    private final Counter skippedUpdates;
+
+    private final Counter addedRoutes;
+
+    private final Counter updatedRoutes;
+
+    private final Counter removedRoutes;
+
+    private long lastFingerprint;
+
+    private boolean initialized;
+
     public ZuulUpdaterService(RouteLocator routeLocator, ZuulProperties zuulProperties,
-                              ApplicationEventPublisher publisher) {
+                              ApplicationEventPublisher publisher, MeterRegistry meterRegistry) {
         this.routeLocator = routeLocator;
         this.zuulProperties = zuulProperties;
         this.publisher = publisher;
+        this.updateTimer = Timer.builder("zuul.routes.update")
+            .description("The time taken to update the Zuul routes from the Eureka instances")
+            .register(meterRegistry);
+        this.skippedUpdates = Counter.builder("zuul.routes.update.skipped")
+            .description("The number of updates skipped because no instance changed")
+            .register(meterRegistry);
+        this.addedRoutes = routeChanges(meterRegistry, "added");
+        this.updatedRoutes = routeChanges(meterRegistry, "updated");
+        this.removedRoutes = routeChanges(meterRegistry, "removed");
+    }
+
+    private static Counter routeChanges(MeterRegistry meterRegistry, String change) {
+        return Counter.builder("zuul.routes.changes")
+            .tag("change", change)
+            .description("The number of Zuul routes changed by the updates")
+            .register(meterRegistry);
     }
 
     @Scheduled(fixedDelay = 5_000)
     public void updateZuulRoutes() {
-        boolean isDirty = false;
+        updateTimer.record(this::doUpdateZuulRoutes);
+    }
 
+    private void doUpdateZuulRoutes() {
         List<Application> applications = EurekaServerContextHolder
             .getInstance().getServerContext().getRegistry().getApplications().getRegisteredApplications();
 
-        for (Application application : applications) {
+        long fingerprint = RegistryFingerprint.of(applications);
+        if (initialized && fingerprint == lastFingerprint) {
+            log.debug("No instance changed, keeping the Zuul routes");
+            skippedUpdates.increment();
+            return;
+        }
 
+        Map<String, ZuulProperties.ZuulRoute> routes = zuulProperties.getRoutes();
+        Set<String> instanceIds = new HashSet<>();
+        int changes = 0;
+        for (Application application : applications) {
             for (InstanceInfo instanceInfos : application.getInstances()) {
-                if(!instanceInfos.getStatus().equals(InstanceInfo.InstanceStatus.UP) &&
-                    !instanceInfos.getStatus().equals(InstanceInfo.InstanceStatus.STARTING)) continue;
                 String instanceId = instanceInfos.getId();
+                instanceIds.add(instanceId);
+                if (!instanceInfos.getStatus().equals(InstanceInfo.InstanceStatus.UP) &&
+                    !instanceInfos.getStatus().equals(InstanceInfo.InstanceStatus.STARTING)) continue;
                 String url = instanceInfos.getHomePageUrl();
+                String status = instanceInfos.getStatus().toString();
                 log.debug("Checking instance {} - {} ", instanceId, url);
 
-                ZuulRouteDTO route = new ZuulRouteDTO(instanceId, "/" +
-                    application.getName().toLowerCase() + "/" + instanceId + "/**",
-                    null, url, zuulProperties.isStripPrefix(), zuulProperties.getRetryable(), Collections.emptySet(),
-                    instanceInfos.getStatus().toString());
-
-                if (zuulProperties.getRoutes().containsKey(instanceId)) {
+                ZuulProperties.ZuulRoute existingRoute = routes.get(instanceId);
+                if (existingRoute != null) {
                     log.debug("Instance '{}' already registered", instanceId);
-                    if (!zuulProperties.getRoutes().get(instanceId).getUrl().equals(url) ||
-                        !((ZuulRouteDTO) zuulProperties.getRoutes().get(instanceId)).getStatus().equals(instanceInfos.getStatus().toString())) {
-
+                    if (!existingRoute.getUrl().equals(url) || !((ZuulRouteDTO) existingRoute).getStatus().equals(status)) {
                         log.debug("Updating instance '{}' with new URL: {}", instanceId, url);
-                        zuulProperties.getRoutes().put(instanceId, route);
-                        isDirty = true;
+                        routes.put(instanceId, createRoute(application, instanceId, url, status));
+                        updatedRoutes.increment();
+                        changes++;
                     }
                 } else {
                     log.debug("Adding instance '{}' with URL: {}", instanceId, url);
-                    zuulProperties.getRoutes().put(instanceId, route);
-                    isDirty = true;
+                    routes.put(instanceId, createRoute(application, instanceId, url, status));
+                    addedRoutes.increment();
+                    changes++;
                 }
             }
         }
-        List<String> zuulRoutesToRemove = new ArrayList<>();
-        for (String key : zuulProperties.getRoutes().keySet()) {
-            if (applications.stream()
-                .flatMap(application -> application.getInstances().stream())
-                .filter(instanceInfo -> instanceInfo.getId().equals(key))
-                .count() == 0) {
-
+        int routeCount = routes.size();
+        routes.keySet().removeIf(key -> {
+            boolean removed = !instanceIds.contains(key);
+            if (removed) {
                 log.debug("Removing instance '{}'", key);
-                zuulRoutesToRemove.add(key);
-                isDirty = true;
             }
-        }
-        for (String key : zuulRoutesToRemove) {
-            zuulProperties.getRoutes().remove(key);
-        }
-        if (isDirty) {
+            return removed;
+        });
+        int removed = routeCount - routes.size();
+        removedRoutes.increment(removed);
+        changes += removed;
+
+        lastFingerprint = fingerprint;
+        initialized = true;
+        if (changes > 0) {
             log.info("Zuul routes have changed - refreshing the configuration");
             this.publisher.publishEvent(new RoutesRefreshedEvent(routeLocator));
         }
     }
+
+    private ZuulRouteDTO createRoute(Application application, String instanceId, String url, String status) {
+        return new ZuulRouteDTO(instanceId, "/" +
+            application.getName().toLowerCase() + "/" + instanceId + "/**",
+            null, url, zuulProperties.isStripPrefix(), zuulProperties.getRetryable(), Collections.emptySet(),
+            status);
+    }
 }
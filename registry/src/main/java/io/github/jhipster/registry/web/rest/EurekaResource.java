@@ -1,32 +1,33 @@
 package io.github.jhipster.registry.web.rest;
 
-import com.netflix.appinfo.InstanceInfo;
-import com.netflix.config.ConfigurationManager;
-import com.netflix.discovery.shared.Application;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.netflix.discovery.shared.Pair;
 import com.netflix.eureka.EurekaServerContext;
 import com.netflix.eureka.EurekaServerContextHolder;
 import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
 import com.netflix.eureka.registry.PeerAwareInstanceRegistryImpl;
-import com.netflix.eureka.resources.StatusResource;
-import com.netflix.eureka.util.StatusInfo;
+import io.github.jhipster.registry.service.EurekaSnapshotService;
 import io.github.jhipster.registry.web.rest.vm.EurekaVM;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.stream.Collectors.toMap;
 
@@ -39,37 +40,36 @@ public class EurekaResource {
 
     private final Logger log = LoggerFactory.getLogger(EurekaResource.class);
 
+    private final EurekaSnapshotService eurekaSnapshotService;
+
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<SerializedSnapshot> applications = new AtomicReference<>();
+
+    private final AtomicReference<SerializedSnapshot> status = new AtomicReference<>();
+
+    public EurekaResource(EurekaSnapshotService eurekaSnapshotService, ObjectMapper objectMapper) {
+        this.eurekaSnapshotService = eurekaSnapshotService;
+        this.objectMapper = objectMapper;
+    }
+
     /**
      * GET  /eureka/applications : get Eureka applications information
      */
     @GetMapping("/eureka/applications")
-    public ResponseEntity<EurekaVM> eureka() {
+    public ResponseEntity<byte[]> eureka(WebRequest request) {
+        EurekaSnapshotService.ApplicationsSnapshot snapshot = eurekaSnapshotService.getApplications();
         EurekaVM eurekaVM = new EurekaVM();
-        eurekaVM.setApplications(getApplications());
-        return new ResponseEntity<>(eurekaVM, HttpStatus.OK);
+        eurekaVM.setApplications(snapshot.getApplications());
+        return snapshotResponse(serialize(applications, snapshot, eurekaVM), request);
     }
 
-    private List<Map<String, Object>> getApplications() {
-        List<Application> sortedApplications = getRegistry().getSortedApplications();
-        ArrayList<Map<String, Object>> apps = new ArrayList<>();
-        for (Application app : sortedApplications) {
-            LinkedHashMap<String, Object> appData = new LinkedHashMap<>();
-            apps.add(appData);
-            appData.put("name", app.getName());
-            List<Map<String, Object>> instances = new ArrayList<>();
-            for (InstanceInfo info : app.getInstances()) {
-                Map<String, Object> instance = new HashMap<>();
-                instance.put("instanceId", info.getInstanceId());
-                instance.put("homePageUrl", info.getHomePageUrl());
-                instance.put("healthCheckUrl", info.getHealthCheckUrl());
-                instance.put("statusPageUrl", info.getStatusPageUrl());
-                instance.put("status", info.getStatus().name());
-                instance.put("metadata", info.getMetadata());
-                instances.add(instance);
-            }
-            appData.put("instances", instances);
-        }
-        return apps;
+    /**
+     * GET  /eureka/applications/stream : get Eureka applications information, followed by their changes
+     */
+    @GetMapping(value = "/eureka/applications/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter eurekaStream() {
+        return eurekaSnapshotService.subscribe();
     }
 
     /**
@@ -113,52 +113,38 @@ public class EurekaResource {
      * GET  /eureka/status : get Eureka status
      */
     @GetMapping("/eureka/status")
-    public ResponseEntity<EurekaVM> eurekaStatus() {
-
+    public ResponseEntity<byte[]> eurekaStatus(WebRequest request) {
+        EurekaSnapshotService.StatusSnapshot snapshot = eurekaSnapshotService.getStatus();
         EurekaVM eurekaVM = new EurekaVM();
-        eurekaVM.setStatus(getEurekaStatus());
-        return new ResponseEntity<>(eurekaVM, HttpStatus.OK);
+        eurekaVM.setStatus(snapshot.getStatus());
+        return snapshotResponse(serialize(status, snapshot, eurekaVM), request);
     }
 
-    private Map<String, Object> getEurekaStatus() {
-
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("time", new Date());
-        stats.put("currentTime", StatusResource.getCurrentTimeAsString());
-        stats.put("upTime", StatusInfo.getUpTime());
-        stats.put("environment", ConfigurationManager.getDeploymentContext()
-            .getDeploymentEnvironment());
-        stats.put("datacenter", ConfigurationManager.getDeploymentContext()
-            .getDeploymentDatacenter());
-
-        PeerAwareInstanceRegistry registry = getRegistry();
-
-        stats.put("isBelowRenewThreshold", registry.isBelowRenewThresold() == 1);
-
-        populateInstanceInfo(stats);
-
-        return stats;
+    /**
+     * The snapshots are immutable, so the last one is only serialized once for all the dashboards.
+     */
+    private SerializedSnapshot serialize(AtomicReference<SerializedSnapshot> serializedSnapshot,
+                                         EurekaSnapshotService.Snapshot snapshot, EurekaVM eurekaVM) {
+        SerializedSnapshot current = serializedSnapshot.get();
+        if (current == null || current.snapshot != snapshot) {
+            try {
+                current = new SerializedSnapshot(snapshot, objectMapper.writeValueAsBytes(eurekaVM));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot serialize the Eureka registry", e);
+            }
+            serializedSnapshot.set(current);
+        }
+        return current;
     }
 
-    private void populateInstanceInfo(Map<String, Object> model) {
-
-        StatusInfo statusInfo;
-        try {
-            statusInfo = new StatusResource().getStatusInfo();
-        } catch (Exception e) {
-            log.error(e.getMessage());
-            statusInfo = StatusInfo.Builder.newBuilder().isHealthy(false).build();
-        }
-        if (statusInfo != null && statusInfo.getGeneralStats() != null) {
-            model.put("generalStats", statusInfo.getGeneralStats());
-        }
-        if (statusInfo != null && statusInfo.getInstanceInfo() != null) {
-            InstanceInfo instanceInfo = statusInfo.getInstanceInfo();
-            Map<String, String> instanceMap = new HashMap<>();
-            instanceMap.put("ipAddr", instanceInfo.getIPAddr());
-            instanceMap.put("status", instanceInfo.getStatus().toString());
-            model.put("instanceInfo", instanceMap);
+    private ResponseEntity<byte[]> snapshotResponse(SerializedSnapshot snapshot, WebRequest request) {
+        if (request.checkNotModified(snapshot.eTag)) {
+            return null;
         }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(snapshot.eTag)
+            .body(snapshot.json);
     }
 
     private PeerAwareInstanceRegistry getRegistry() {
@@ -169,4 +155,18 @@ public class EurekaResource {
         return EurekaServerContextHolder.getInstance().getServerContext();
     }
 
+    private static final class SerializedSnapshot {
+
+        private final EurekaSnapshotService.Snapshot snapshot;
+
+        private final byte[] json;
+
+        private final String eTag;
+
+        private SerializedSnapshot(EurekaSnapshotService.Snapshot snapshot, byte[] json) {
+            this.snapshot = snapshot;
+            this.json = json;
+            this.eTag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+        }
+    }
 }
@@ -0,0 +1,151 @@
+package io.github.jhipster.registry.gateway.accesscontrol;
+
+import com.netflix.zuul.context.RequestContext;
+import io.github.jhipster.config.JHipsterProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.cloud.netflix.zuul.RoutesRefreshedEvent;
+import org.springframework.cloud.netflix.zuul.filters.Route;
+import org.springframework.cloud.netflix.zuul.filters.RouteLocator;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests AccessControlFilter class.
+ */
+public class AccessControlFilterTest {
+
+    private RouteLocator routeLocator;
+
+    private JHipsterProperties jHipsterProperties;
+
+    private AccessControlFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        routeLocator = mock(RouteLocator.class);
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getGateway().getAuthorizedMicroservicesEndpoints()
+            .put("app-1", Arrays.asList("/api", "/management/health"));
+        when(routeLocator.getRoutes()).thenReturn(Arrays.asList(route("app-1"), route("app-2")));
+        filter = new AccessControlFilter(routeLocator, jHipsterProperties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContext.getCurrentContext().clear();
+    }
+
+    @Test
+    public void shouldNotFilterAuthorizedEndpoints() {
+        assertThat(shouldFilter("/app/app-1/api/sessions")).isFalse();
+        assertThat(shouldFilter("/app/app-1/management/health")).isFalse();
+    }
+
+    @Test
+    public void shouldFilterUnauthorizedEndpoints() {
+        assertThat(shouldFilter("/app/app-1/management/env")).isTrue();
+        assertThat(shouldFilter("/app/app-1/")).isTrue();
+    }
+
+    @Test
+    public void shouldNotFilterRoutesWithoutAccessControlPolicy() {
+        assertThat(shouldFilter("/app/app-2/management/env")).isFalse();
+    }
+
+    @Test
+    public void shouldFilterUnknownRoutes() {
+        assertThat(shouldFilter("/app/app-3/api/sessions")).isTrue();
+        assertThat(shouldFilter("/app")).isTrue();
+    }
+
+    @Test
+    public void shouldMatchRoutesAfterTheContextPath() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/registry/app/app-1/api/sessions");
+        request.setContextPath("/registry");
+        RequestContext.getCurrentContext().setRequest(request);
+        assertThat(filter.shouldFilter()).isFalse();
+
+        request = new MockHttpServletRequest("GET", "/app/app-1/api/sessions");
+        request.setContextPath("/registry");
+        RequestContext.getCurrentContext().setRequest(request);
+        assertThat(filter.shouldFilter()).isTrue();
+    }
+
+    @Test
+    public void shouldUseTheFirstMatchingRoute() {
+        when(routeLocator.getRoutes()).thenReturn(Arrays.asList(
+            new Route("app-2", "/**", null, "/app", false, Collections.emptySet()),
+            route("app-1")));
+
+        assertThat(shouldFilter("/app/app-1/management/env")).isFalse();
+    }
+
+    @Test
+    public void shouldCompileRoutesOnceUntilTheyAreRefreshed() {
+        shouldFilter("/app/app-1/api/sessions");
+        shouldFilter("/app/app-3/api/sessions");
+        verify(routeLocator, times(1)).getRoutes();
+
+        when(routeLocator.getRoutes()).thenReturn(Arrays.asList(route("app-1"), route("app-2"), route("app-3")));
+        filter.onRoutesRefreshed(new RoutesRefreshedEvent(routeLocator));
+
+        assertThat(shouldFilter("/app/app-3/api/sessions")).isFalse();
+        verify(routeLocator, times(2)).getRoutes();
+    }
+
+    @Test
+    public void shouldApplyTheRefreshedAccessControlPolicy() {
+        assertThat(shouldFilter("/app/app-1/api/sessions")).isFalse();
+
+        jHipsterProperties.getGateway().getAuthorizedMicroservicesEndpoints()
+            .put("app-1", Collections.singletonList("/management/health"));
+        filter.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("jhipster.gateway.authorized-microservices-endpoints.app-1")));
+
+        assertThat(shouldFilter("/app/app-1/api/sessions")).isTrue();
+
+        jHipsterProperties.getGateway().getAuthorizedMicroservicesEndpoints().remove("app-1");
+        filter.onRefreshScopeRefreshed(new RefreshScopeRefreshedEvent());
+
+        assertThat(shouldFilter("/app/app-1/api/sessions")).isFalse();
+    }
+
+    @Test
+    public void shouldMatchAmongManyRoutes() {
+        List<Route> routes = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            routes.add(route("service-" + i));
+            jHipsterProperties.getGateway().getAuthorizedMicroservicesEndpoints()
+                .put("service-" + i, Collections.singletonList("/api"));
+        }
+        when(routeLocator.getRoutes()).thenReturn(routes);
+
+        assertThat(shouldFilter("/app/service-499/api/sessions")).isFalse();
+        assertThat(shouldFilter("/app/service-49/api/sessions")).isFalse();
+        assertThat(shouldFilter("/app/service-49/management/env")).isTrue();
+        assertThat(shouldFilter("/app/service-500/api/sessions")).isTrue();
+    }
+
+    private boolean shouldFilter(String requestUri) {
+        RequestContext.getCurrentContext().setRequest(new MockHttpServletRequest("GET", requestUri));
+        return filter.shouldFilter();
+    }
+
+    private static Route route(String serviceName) {
+        return new Route(serviceName, "/" + serviceName + "/**", null, "/app", false, Collections.emptySet());
+    }
+}
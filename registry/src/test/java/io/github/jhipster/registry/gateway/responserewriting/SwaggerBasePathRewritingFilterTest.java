@@ -1,12 +1,15 @@
 package io.github.jhipster.registry.gateway.responserewriting;
 
 import com.netflix.zuul.context.RequestContext;
+import io.github.jhipster.registry.config.ApplicationProperties;
 import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.zip.GZIPInputStream;
@@ -20,7 +23,14 @@ import static springfox.documentation.swagger2.web.Swagger2Controller.DEFAULT_UR
  */
 public class SwaggerBasePathRewritingFilterTest {
 
-    private SwaggerBasePathRewritingFilter filter = new SwaggerBasePathRewritingFilter();
+    private SwaggerDocsCache swaggerDocsCache = new SwaggerDocsCache(new ApplicationProperties());
+
+    private SwaggerBasePathRewritingFilter filter = new SwaggerBasePathRewritingFilter(swaggerDocsCache);
+
+    @AfterEach
+    public void tearDown() {
+        RequestContext.getCurrentContext().unset();
+    }
 
     @Test
     public void shouldFilter_on_default_swagger_url() {
@@ -92,4 +102,55 @@ public class SwaggerBasePathRewritingFilterTest {
         String responseBody = IOUtils.toString(responseDataStream, StandardCharsets.UTF_8);
         assertThat(responseBody).isEqualTo("{\"basePath\":\"/service1\"}");
     }
+
+    @Test
+    public void shouldNotFilter_on_cached_response() {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", DEFAULT_URL);
+        RequestContext.getCurrentContext().setRequest(request);
+        RequestContext.getCurrentContext().set(SwaggerDocsCacheFilter.CACHED_KEY, true);
+
+        assertThat(filter.shouldFilter()).isFalse();
+    }
+
+    @Test
+    public void rewriteBasePath_keeps_other_fields() throws Exception {
+        String docs = "{\"swagger\":\"2.0\",\"basePath\":{\"nested\":[1,2]},\"paths\":{\"/api/sessions\":{\"get\":{}}},\"tags\":[]}";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        SwaggerBasePathRewritingFilter.rewriteBasePath(IOUtils.toInputStream(docs, StandardCharsets.UTF_8), out, "/service1");
+
+        assertThat(out.toString(StandardCharsets.UTF_8.name()))
+            .isEqualTo("{\"swagger\":\"2.0\",\"basePath\":\"/service1\",\"paths\":{\"/api/sessions\":{\"get\":{}}},\"tags\":[]}");
+    }
+
+    @Test
+    public void rewriteBasePath_adds_missing_base_path() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        SwaggerBasePathRewritingFilter.rewriteBasePath(IOUtils.toInputStream("{\"swagger\":\"2.0\"}", StandardCharsets.UTF_8), out, "/service1");
+
+        assertThat(out.toString(StandardCharsets.UTF_8.name())).isEqualTo("{\"swagger\":\"2.0\",\"basePath\":\"/service1\"}");
+    }
+
+    @Test
+    public void run_caches_response_of_known_instance() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/service1" + DEFAULT_URL);
+        RequestContext context = RequestContext.getCurrentContext();
+        context.setRequest(request);
+        context.setResponse(new MockHttpServletResponse());
+        context.setResponseGZipped(true);
+        context.setResponseDataStream(new ByteArrayInputStream(gzipData("{\"basePath\":\"/\"}")));
+        context.setResponseStatusCode(200);
+        context.set(SwaggerDocsCacheFilter.INSTANCE_VERSION_KEY, "1");
+
+        filter.run();
+
+        SwaggerDocsCache.CachedDocs cachedDocs = swaggerDocsCache.get("/service1" + DEFAULT_URL, "1");
+        assertThat(cachedDocs).isNotNull();
+        assertThat(cachedDocs.isGzipped()).isTrue();
+        String cachedBody = IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(cachedDocs.getBody())), StandardCharsets.UTF_8);
+        assertThat(cachedBody).isEqualTo("{\"basePath\":\"/service1\"}");
+        assertThat(swaggerDocsCache.get("/service1" + DEFAULT_URL, "2")).isNull();
+    }
 }
@@ -0,0 +1,102 @@
+package io.github.jhipster.registry.gateway.responserewriting;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.eureka.EurekaServerContext;
+import com.netflix.eureka.EurekaServerContextHolder;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.zuul.context.RequestContext;
+import io.github.jhipster.registry.config.ApplicationProperties;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static springfox.documentation.swagger2.web.Swagger2Controller.DEFAULT_URL;
+
+/**
+ * Tests SwaggerDocsCacheFilter class.
+ */
+public class SwaggerDocsCacheFilterTest {
+
+    private static final String REQUEST_URI = "/services/app/app-1" + DEFAULT_URL;
+
+    private SwaggerDocsCache swaggerDocsCache;
+
+    private SwaggerDocsCacheFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        InstanceInfo instance = InstanceInfo.Builder.newBuilder()
+            .setAppName("APP")
+            .setInstanceId("app-1")
+            .setHostName("app-1")
+            .build();
+        PeerAwareInstanceRegistry registry = mock(PeerAwareInstanceRegistry.class);
+        when(registry.getInstancesById("app-1")).thenReturn(Collections.singletonList(instance));
+        EurekaServerContext serverContext = mock(EurekaServerContext.class);
+        when(serverContext.getRegistry()).thenReturn(registry);
+        EurekaServerContextHolder.initialize(serverContext);
+
+        swaggerDocsCache = new SwaggerDocsCache(new ApplicationProperties());
+        filter = new SwaggerDocsCacheFilter(swaggerDocsCache);
+
+        RequestContext context = RequestContext.getCurrentContext();
+        context.setRequest(new MockHttpServletRequest("GET", REQUEST_URI));
+        context.setResponse(new MockHttpServletResponse());
+        context.set(FilterConstants.PROXY_KEY, "app-1");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContext.getCurrentContext().unset();
+    }
+
+    @Test
+    public void shouldKeepInstanceVersionOnCacheMiss() {
+        RequestContext context = RequestContext.getCurrentContext();
+
+        assertThat(filter.shouldFilter()).isTrue();
+        filter.run();
+
+        assertThat(context.get(SwaggerDocsCacheFilter.INSTANCE_VERSION_KEY)).isNotNull();
+        assertThat(context.sendZuulResponse()).isTrue();
+        assertThat(context.getResponseDataStream()).isNull();
+    }
+
+    @Test
+    public void shouldServeCachedDocs() throws Exception {
+        RequestContext context = RequestContext.getCurrentContext();
+        filter.run();
+        String version = (String) context.get(SwaggerDocsCacheFilter.INSTANCE_VERSION_KEY);
+        swaggerDocsCache.put(REQUEST_URI, version, "{\"basePath\":\"/services/app/app-1\"}".getBytes(StandardCharsets.UTF_8), false);
+        context.remove(SwaggerDocsCacheFilter.INSTANCE_VERSION_KEY);
+
+        filter.run();
+
+        assertThat(context.sendZuulResponse()).isFalse();
+        assertThat(context.get(SwaggerDocsCacheFilter.CACHED_KEY)).isEqualTo(true);
+        assertThat(context.getResponseStatusCode()).isEqualTo(200);
+        assertThat(IOUtils.toString(context.getResponseDataStream(), StandardCharsets.UTF_8))
+            .isEqualTo("{\"basePath\":\"/services/app/app-1\"}");
+    }
+
+    @Test
+    public void shouldNotCacheRoutesWithoutInstance() {
+        RequestContext context = RequestContext.getCurrentContext();
+        context.set(FilterConstants.PROXY_KEY, "app-2");
+
+        filter.run();
+
+        assertThat(context.get(SwaggerDocsCacheFilter.INSTANCE_VERSION_KEY)).isNull();
+        assertThat(context.sendZuulResponse()).isTrue();
+    }
+}
@@ -1,7 +1,9 @@
 package io.github.jhipster.registry.security.jwt;
 
+import io.github.jhipster.registry.config.ApplicationProperties;
 import io.github.jhipster.registry.security.AuthoritiesConstants;
 import io.github.jhipster.config.JHipsterProperties;
+import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 
@@ -16,6 +18,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.security.Key;
 import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,10 +32,11 @@ public class JWTFilterTest {
     @BeforeEach
     public void setup() {
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
-        tokenProvider = new TokenProvider(jHipsterProperties);
-        ReflectionTestUtils.setField(tokenProvider, "key",
-            Keys.hmacShaKeyFor(Decoders.BASE64
-                .decode("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8")));
+        tokenProvider = new TokenProvider(jHipsterProperties, new VerifiedTokenCache(new ApplicationProperties()));
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64
+            .decode("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8"));
+        ReflectionTestUtils.setField(tokenProvider, "key", key);
+        ReflectionTestUtils.setField(tokenProvider, "jwtParser", Jwts.parserBuilder().setSigningKey(key).build());
 
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", 60000);
         jwtFilter = new JWTFilter(tokenProvider);
@@ -1,5 +1,6 @@
 package io.github.jhipster.registry.security.jwt;
 
+import io.github.jhipster.registry.config.ApplicationProperties;
 import io.github.jhipster.registry.security.AuthoritiesConstants;
 
 import java.security.Key;
@@ -30,11 +31,12 @@ public class TokenProviderTest {
 
     @BeforeEach
     public void setup() {
-        tokenProvider = new TokenProvider( new JHipsterProperties());
+        tokenProvider = new TokenProvider(new JHipsterProperties(), new VerifiedTokenCache(new ApplicationProperties()));
         key = Keys.hmacShaKeyFor(Decoders.BASE64
             .decode("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8"));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
+        ReflectionTestUtils.setField(tokenProvider, "jwtParser", Jwts.parserBuilder().setSigningKey(key).build());
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
     }
 
@@ -83,6 +85,19 @@ public class TokenProviderTest {
         assertThat(isTokenValid).isEqualTo(false);
     }
 
+    @Test
+    public void testReuseAuthenticationOfVerifiedToken() {
+        Authentication authentication = createAuthentication();
+        String token = tokenProvider.createToken(authentication, false);
+
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+        Authentication first = tokenProvider.getAuthentication(token);
+        Authentication second = tokenProvider.getAuthentication(token);
+
+        assertThat(first.getName()).isEqualTo("anonymous");
+        assertThat(second).isSameAs(first);
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
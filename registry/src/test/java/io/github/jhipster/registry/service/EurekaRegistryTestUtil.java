@@ -0,0 +1,69 @@
+package io.github.jhipster.registry.service;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.EurekaServerContext;
+import com.netflix.eureka.EurekaServerContextHolder;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Utility class for testing the services reading the Eureka registry.
+ */
+public final class EurekaRegistryTestUtil {
+
+    /**
+     * Mock the registry of the Eureka server context.
+     *
+     * @return the mocked registry.
+     */
+    public static PeerAwareInstanceRegistry mockRegistry() {
+        PeerAwareInstanceRegistry registry = mock(PeerAwareInstanceRegistry.class);
+        EurekaServerContext serverContext = mock(EurekaServerContext.class);
+        when(serverContext.getRegistry()).thenReturn(registry);
+        EurekaServerContextHolder.initialize(serverContext);
+        return registry;
+    }
+
+    /**
+     * Register the instances of a single "APP" application in a mocked registry.
+     *
+     * @param registry the mocked registry.
+     * @param instances the registered instances.
+     */
+    public static void registerInstances(PeerAwareInstanceRegistry registry, InstanceInfo... instances) {
+        Application application = new Application("APP");
+        for (InstanceInfo instance : instances) {
+            application.addInstance(instance);
+        }
+        Applications applications = new Applications();
+        applications.addApplication(application);
+        when(registry.getApplications()).thenReturn(applications);
+        when(registry.getSortedApplications()).thenReturn(Collections.singletonList(application));
+    }
+
+    /**
+     * Create an instance of the "APP" application.
+     *
+     * @param instanceId the id of the instance, also used as its host name.
+     * @param url the home page URL of the instance.
+     * @param status the status of the instance.
+     * @return the instance.
+     */
+    public static InstanceInfo instance(String instanceId, String url, InstanceInfo.InstanceStatus status) {
+        return InstanceInfo.Builder.newBuilder()
+            .setAppName("APP")
+            .setInstanceId(instanceId)
+            .setHostName(instanceId)
+            .setHomePageUrl(null, url)
+            .setStatus(status)
+            .build();
+    }
+
+    private EurekaRegistryTestUtil() {}
+}
@@ -0,0 +1,117 @@
+package io.github.jhipster.registry.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import io.github.jhipster.registry.config.ApplicationProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static io.github.jhipster.registry.service.EurekaRegistryTestUtil.instance;
+import static io.github.jhipster.registry.service.EurekaRegistryTestUtil.mockRegistry;
+import static io.github.jhipster.registry.service.EurekaRegistryTestUtil.registerInstances;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests EurekaSnapshotService class.
+ */
+public class EurekaSnapshotServiceTest {
+
+    private PeerAwareInstanceRegistry registry;
+
+    private ApplicationProperties applicationProperties;
+
+    private EurekaSnapshotService eurekaSnapshotService;
+
+    @BeforeEach
+    public void setup() {
+        registry = mockRegistry();
+
+        applicationProperties = new ApplicationProperties();
+        eurekaSnapshotService = new EurekaSnapshotService(new ObjectMapper(), applicationProperties);
+    }
+
+    @AfterEach
+    public void destroy() {
+        eurekaSnapshotService.destroy();
+    }
+
+    @Test
+    public void shouldSnapshotTheApplications() {
+        registerInstances(registry, instance("app-1", "http://app-1:8081/", InstanceInfo.InstanceStatus.UP));
+
+        EurekaSnapshotService.ApplicationsSnapshot snapshot = eurekaSnapshotService.getApplications();
+
+        assertThat(snapshot.getApplications()).hasSize(1);
+        assertThat(snapshot.getApplications().get(0)).containsEntry("name", "APP");
+        List<Map<String, Object>> instances = instances(snapshot);
+        assertThat(instances).hasSize(1);
+        assertThat(instances.get(0))
+            .containsEntry("instanceId", "app-1")
+            .containsEntry("homePageUrl", "http://app-1:8081/")
+            .containsEntry("status", "UP");
+        assertThat(snapshot.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldKeepTheSnapshotWhenNoInstanceChanged() {
+        InstanceInfo instance = instance("app-1", "http://app-1:8081/", InstanceInfo.InstanceStatus.UP);
+        registerInstances(registry, instance);
+        EurekaSnapshotService.Snapshot snapshot = eurekaSnapshotService.getApplications();
+
+        registerInstances(registry, instance);
+        eurekaSnapshotService.subscribe();
+        eurekaSnapshotService.refresh();
+
+        assertThat(eurekaSnapshotService.getApplications()).isSameAs(snapshot);
+        verify(registry, times(1)).getSortedApplications();
+    }
+
+    @Test
+    public void shouldRebuildTheSnapshotWhenAnInstanceChanged() {
+        registerInstances(registry, instance("app-1", "http://app-1:8081/", InstanceInfo.InstanceStatus.UP));
+        eurekaSnapshotService.getApplications();
+
+        registerInstances(registry, instance("app-1", "http://app-1:8081/", InstanceInfo.InstanceStatus.DOWN));
+        eurekaSnapshotService.subscribe();
+        eurekaSnapshotService.refresh();
+
+        EurekaSnapshotService.ApplicationsSnapshot refreshed = eurekaSnapshotService.getApplications();
+        assertThat(refreshed.getVersion()).isEqualTo(2);
+        assertThat(instances(refreshed).get(0)).containsEntry("status", "DOWN");
+    }
+
+    @Test
+    public void shouldNotReadTheRegistryInTheBackgroundWithoutSubscribers() {
+        registerInstances(registry, instance("app-1", "http://app-1:8081/", InstanceInfo.InstanceStatus.UP));
+
+        eurekaSnapshotService.refresh();
+
+        verify(registry, never()).getApplications();
+    }
+
+    @Test
+    public void shouldRebuildTheSnapshotOnRequestOnceTheRefreshIntervalElapsed() {
+        applicationProperties.getEurekaSnapshot().setRefreshIntervalMillis(0);
+        eurekaSnapshotService.destroy();
+        eurekaSnapshotService = new EurekaSnapshotService(new ObjectMapper(), applicationProperties);
+        registerInstances(registry, instance("app-1", "http://app-1:8081/", InstanceInfo.InstanceStatus.UP));
+        eurekaSnapshotService.getApplications();
+
+        registerInstances(registry, instance("app-1", "http://app-1:8081/", InstanceInfo.InstanceStatus.DOWN));
+
+        EurekaSnapshotService.ApplicationsSnapshot refreshed = eurekaSnapshotService.getApplications();
+        assertThat(refreshed.getVersion()).isEqualTo(2);
+        assertThat(instances(refreshed).get(0)).containsEntry("status", "DOWN");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> instances(EurekaSnapshotService.ApplicationsSnapshot snapshot) {
+        return (List<Map<String, Object>>) snapshot.getApplications().get(0).get("instances");
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.jhipster.registry.service;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import io.github.jhipster.registry.service.dto.ZuulRouteDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.netflix.zuul.RoutesRefreshedEvent;
+import org.springframework.cloud.netflix.zuul.filters.RouteLocator;
+import org.springframework.cloud.netflix.zuul.filters.ZuulProperties;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static io.github.jhipster.registry.service.EurekaRegistryTestUtil.instance;
+import static io.github.jhipster.registry.service.EurekaRegistryTestUtil.mockRegistry;
+import static io.github.jhipster.registry.service.EurekaRegistryTestUtil.registerInstances;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests ZuulUpdaterService class.
+ */
+public class ZuulUpdaterServiceTest {
+
+    private ZuulProperties zuulProperties;
+
+    private ApplicationEventPublisher publisher;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PeerAwareInstanceRegistry registry;
+
+    private ZuulUpdaterService zuulUpdaterService;
+
+    @BeforeEach
+    public void setup() {
+        registry = mockRegistry();
+
+        zuulProperties = new ZuulProperties();
+        publisher = mock(ApplicationEventPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+        zuulUpdaterService = new ZuulUpdaterService(mock(RouteLocator.class), zuulProperties, publisher, meterRegistry);
+    }
+
+    @Test
+    public void shouldAddRoutesOfNewInstances() {
+        registerInstances(registry, instance("app-1", "http://app-1:8081/", InstanceInfo.InstanceStatus.UP),
+            instance("app-2", "http://app-2:8081/", InstanceInfo.InstanceStatus.DOWN));
+
+        zuulUpdaterService.updateZuulRoutes();
+
+        assertThat(zuulProperties.getRoutes()).containsOnlyKeys("app-1");
+        ZuulRouteDTO route = (ZuulRouteDTO) zuulProperties.getRoutes().get("app-1");
+        assertThat(route.getPath()).isEqualTo("/app/app-1/**");
+        assertThat(route.getUrl()).isEqualTo("http://app-1:8081/");
+        assertThat(route.getStatus()).isEqualTo("UP");
+        verify(publisher).publishEvent(any(RoutesRefreshedEvent.class));
+        assertThat(meterRegistry.get("zuul.routes.changes").tag("change", "added").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldSkipUpdateWhenNoInstanceChanged() {
+        InstanceInfo instance = instance("app-1", "http://app-1:8081/", InstanceInfo.InstanceStatus.UP);
+        registerInstances(registry, instance);
+        zuulUpdaterService.updateZuulRoutes();
+
+        registerInstances(registry, instance);
+        zuulUpdaterService.updateZuulRoutes();
+
+        verify(publisher, times(1)).publishEvent(any(RoutesRefreshedEvent.class));
+        assertThat(meterRegistry.get("zuul.routes.update.skipped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("zuul.routes.update").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldUpdateAndRemoveRoutesOfChangedInstances() {
+        registerInstances(registry, instance("app-1", "http://app-1:8081/", InstanceInfo.InstanceStatus.UP),
+            instance("app-2", "http://app-2:8081/", InstanceInfo.InstanceStatus.UP));
+        zuulUpdaterService.updateZuulRoutes();
+
+        registerInstances(registry, instance("app-1", "http://app-1:8082/", InstanceInfo.InstanceStatus.UP));
+        zuulUpdaterService.updateZuulRoutes();
+
+        assertThat(zuulProperties.getRoutes()).containsOnlyKeys("app-1");
+        assertThat(zuulProperties.getRoutes().get("app-1").getUrl()).isEqualTo("http://app-1:8082/");
+        verify(publisher, times(2)).publishEvent(any(RoutesRefreshedEvent.class));
+        assertThat(meterRegistry.get("zuul.routes.changes").tag("change", "updated").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("zuul.routes.changes").tag("change", "removed").counter().count()).isEqualTo(1);
+    }
+}
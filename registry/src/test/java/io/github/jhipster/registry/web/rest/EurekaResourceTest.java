@@ -0,0 +1,65 @@
+package io.github.jhipster.registry.web.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import io.github.jhipster.registry.config.ApplicationProperties;
+import io.github.jhipster.registry.service.EurekaSnapshotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static io.github.jhipster.registry.service.EurekaRegistryTestUtil.instance;
+import static io.github.jhipster.registry.service.EurekaRegistryTestUtil.mockRegistry;
+import static io.github.jhipster.registry.service.EurekaRegistryTestUtil.registerInstances;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class EurekaResourceTest {
+
+    private EurekaSnapshotService eurekaSnapshotService;
+
+    private MockMvc mock;
+
+    @BeforeEach
+    public void setup() {
+        PeerAwareInstanceRegistry registry = mockRegistry();
+        registerInstances(registry, instance("app-1", "http://app-1:8081/", InstanceInfo.InstanceStatus.UP));
+        eurekaSnapshotService = new EurekaSnapshotService(new ObjectMapper(), new ApplicationProperties());
+        mock = MockMvcBuilders.standaloneSetup(new EurekaResource(eurekaSnapshotService, new ObjectMapper())).build();
+    }
+
+    @AfterEach
+    public void destroy() {
+        eurekaSnapshotService.destroy();
+    }
+
+    @Test
+    public void shouldServeTheApplicationsAsEurekaVM() throws Exception {
+        mock.perform(get("/api/eureka/applications"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$.applications[0].name").value("APP"))
+            .andExpect(jsonPath("$.applications[0].instances[0].instanceId").value("app-1"))
+            .andExpect(jsonPath("$.applications[0].instances[0].status").value("UP"))
+            .andExpect(jsonPath("$.status").value(nullValue()));
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedWhenTheApplicationsDidNotChange() throws Exception {
+        String eTag = mock.perform(get("/api/eureka/applications"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mock.perform(get("/api/eureka/applications").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+    }
+}